@@ -0,0 +1,33 @@
+package com.example.myland02.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: the standard JMH command line, except that
+ * results are written as JSON to results/jmh-&lt;timestamp&gt;.json unless
+ * -rf/-rff are given, so runs from different releases can be compared
+ * (e.g. with jmh.morethan.io).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf") && !arguments.contains("-rff")) {
+            Path results = Paths.get("results");
+            Files.createDirectories(results);
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            arguments.addAll(Arrays.asList("-rf", "json", "-rff", results.resolve("jmh-" + stamp + ".json").toString()));
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
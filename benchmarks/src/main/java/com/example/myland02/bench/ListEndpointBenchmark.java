@@ -0,0 +1,100 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.controller.MylandController;
+import com.example.myland02.controller.ProductionController;
+import com.example.myland02.repository.SaleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list endpoints as the client sees them (query plus JSON body): the
+ * whole table versus one keyset page of nested entities versus one flat
+ * page. {@code salesPlainFindAll} is the pre-fetch-join baseline (one
+ * statement per referenced product and shop).
+ *
+ * The whole-table variants load every row; exclude them for the largest
+ * sizes, e.g. {@code -e '.*FullTable|.*PlainFindAll'}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListEndpointBenchmark {
+
+    private static final int PAGE = 100;
+
+    private MylandController sales;
+    private ProductionController production;
+    private SaleRepository saleRepository;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        sales = db.bean(MylandController.class);
+        production = db.bean(ProductionController.class);
+        saleRepository = db.bean(SaleRepository.class);
+        objectMapper = db.bean(ObjectMapper.class);
+    }
+
+    @Benchmark
+    public byte[] salesPlainFindAll() throws Exception {
+        return objectMapper.writeValueAsBytes(saleRepository.findAll());
+    }
+
+    @Benchmark
+    public byte[] salesFullTable() throws Exception {
+        return json(sales.getSales(null, null, null, null, null, null, null, request()));
+    }
+
+    @Benchmark
+    public byte[] salesPage() throws Exception {
+        return json(sales.getSales(PAGE, null, null, null, null, null, null, request()));
+    }
+
+    @Benchmark
+    public byte[] salesFlatPage() throws Exception {
+        return json(sales.getSales(PAGE, null, null, null, null, null, "flat", request()));
+    }
+
+    @Benchmark
+    public byte[] productionFullTable() throws Exception {
+        return json(production.getProduction(null, null, null, null, null, null, request()));
+    }
+
+    @Benchmark
+    public byte[] productionPage() throws Exception {
+        return json(production.getProduction(PAGE, null, null, null, null, null, request()));
+    }
+
+    @Benchmark
+    public byte[] productionFlatPage() throws Exception {
+        return json(production.getProduction(PAGE, null, null, null, null, "flat", request()));
+    }
+
+    private byte[] json(ResponseEntity<?> response) throws Exception {
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    // A fresh request each time: no If-None-Match, so the ETag check never short-circuits
+    private static WebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+}
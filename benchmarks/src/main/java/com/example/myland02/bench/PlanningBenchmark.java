@@ -0,0 +1,86 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionPlan;
+import com.example.myland02.service.RecipeMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /production/plan without HTTP: expanding a plan for every one of
+ * {@link #products} products ({@link #lines} recipe lines each, drawn from
+ * {@link #ingredients} ingredients) through {@link RecipeMatrix}, and
+ * rebuilding the matrix as happens after each recipe change. Synthetic
+ * recipes, so no database is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanningBenchmark {
+
+    @Param({"100", "500", "2000"})
+    public int products;
+
+    @Param("8")
+    public int lines;
+
+    @Param("300")
+    public int ingredients;
+
+    private Map<Long, Map<Long, Double>> recipes;
+    private RecipeMatrix matrix;
+    private List<ProductUnits> targets;
+    private double[] stock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        recipes = new HashMap<>();
+        for (long product = 1; product <= products; product++) {
+            Map<Long, Double> recipe = new HashMap<>();
+            while (recipe.size() < lines) {
+                recipe.put(1L + random.nextInt(ingredients), 0.01 + random.nextInt(500) / 100.0);
+            }
+            recipes.put(product, Map.copyOf(recipe));
+        }
+        matrix = RecipeMatrix.of(recipes);
+        targets = new ArrayList<>();
+        for (long product = 1; product <= products; product++) {
+            targets.add(new ProductUnits(product, 1L + random.nextInt(200)));
+        }
+        stock = new double[ingredients + 1];
+        for (int i = 1; i <= ingredients; i++) {
+            stock[i] = random.nextInt(20_000);
+        }
+    }
+
+    @Benchmark
+    public ProductionPlan plan() {
+        return matrix.plan(targets, id -> stock[(int) id], id -> "Ingredient " + id);
+    }
+
+    @Benchmark
+    public RecipeMatrix build() {
+        return RecipeMatrix.of(recipes);
+    }
+}
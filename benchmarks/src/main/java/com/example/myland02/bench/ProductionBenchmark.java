@@ -0,0 +1,69 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.controller.ProductionController;
+import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductionRequest;
+import com.example.myland02.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /api/myland/production with {@link #lines} ingredient lines: stock
+ * reservation, the batched deduction, journal and product stock writes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductionBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lines;
+
+    private ProductionController controller;
+    private final SplittableRandom random = new SplittableRandom(11);
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        controller = db.bean(ProductionController.class);
+    }
+
+    @Benchmark
+    public Object recordProduction() {
+        Product product = new Product();
+        product.setId((long) (1 + random.nextInt(SeededDatabase.PRODUCTS)));
+
+        ProductionRequest request = new ProductionRequest();
+        request.setProduct(product);
+        request.setDate(LocalDate.now());
+        request.setProducedUnits(10);
+        List<ProductionIngredientRequest> used = new ArrayList<>(lines);
+        int first = random.nextInt(SeededDatabase.INGREDIENTS);
+        for (int i = 0; i < lines; i++) {
+            ProductionIngredientRequest line = new ProductionIngredientRequest();
+            line.setIngredientId((long) (1 + (first + i) % SeededDatabase.INGREDIENTS));
+            line.setQuantityUsed(0.5);
+            used.add(line);
+        }
+        request.setUsedIngredients(used);
+        return controller.recordProduction(request);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.model.Production;
+import com.example.myland02.repository.ProductionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization alone of {@link #runs} fully loaded production
+ * graphs (product, ingredient lines, ingredients), as written by
+ * GET /api/myland/production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductionJsonBenchmark {
+
+    @Param({"100", "1000"})
+    public int runs;
+
+    private ObjectMapper objectMapper;
+    private List<Production> productions;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        objectMapper = db.bean(ObjectMapper.class);
+        ProductionRepository repository = db.bean(ProductionRepository.class);
+        List<Long> ids = repository.findPageIds(null, null, null, null, null, PageRequest.of(0, runs));
+        productions = repository.findAllWithDetailsByIdIn(ids);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(productions);
+    }
+}
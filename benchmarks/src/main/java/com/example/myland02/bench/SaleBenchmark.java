@@ -0,0 +1,65 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.controller.MylandController;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /api/myland/sale: validation, totals, insert, rollup and product
+ * stock updates in one transaction. Run with -t N to see writer contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SaleBenchmark {
+
+    @State(Scope.Thread)
+    public static class Input {
+        MylandController controller;
+        SplittableRandom random = new SplittableRandom(7);
+
+        @Setup(Level.Trial)
+        public void setUp(SeededDatabase db) {
+            controller = db.bean(MylandController.class);
+        }
+
+        Sale next() {
+            Product product = new Product();
+            product.setId((long) (1 + random.nextInt(SeededDatabase.PRODUCTS)));
+            Shop shop = new Shop();
+            shop.setId((long) (1 + random.nextInt(SeededDatabase.SHOPS)));
+
+            Sale sale = new Sale();
+            sale.setSaleDate(LocalDate.now());
+            sale.setProduct(product);
+            sale.setShop(shop);
+            sale.setSellingPrice(100.0);
+            sale.setSoldUnits(1 + random.nextInt(20));
+            sale.setReturnedUnits(0);
+            return sale;
+        }
+    }
+
+    @Benchmark
+    public Object recordSale(Input input) {
+        return input.controller.recordSale(input.next(), null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.myland02.bench;
+
+import com.example.myland02.tools.DataGenerator;
+import com.example.myland02.tools.OfflineApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The application (without the web server) running against a generated
+ * SQLite file with {@link #sales} sales ({@link DataGenerator}, with
+ * effectively unlimited ingredient stock so no benchmark runs out).
+ *
+ * Each size is seeded once into {@code seed-<sales>.db} and copied to
+ * {@code run-<sales>.db} at the start of every trial, so write benchmarks
+ * always start from the same data. Files live in {@code -Dmyland.bench.dir}
+ * (default target/bench-data); pass it to the forks with
+ * {@code -jvmArgsAppend -Dmyland.bench.dir=...}.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    static final int SHOPS = 50;
+    static final int PRODUCTS = 40;
+    static final int INGREDIENTS = 60;
+
+    @Param("10000")
+    public int sales;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        Path dir = Paths.get(System.getProperty("myland.bench.dir", "target/bench-data")).toAbsolutePath();
+        Files.createDirectories(dir);
+        Path seed = dir.resolve("seed-" + sales + ".db");
+        Path seeded = dir.resolve("seed-" + sales + ".done");
+        if (!Files.exists(seeded)) {
+            OfflineApplication.deleteDatabase(seed);
+            seed(seed);
+            Files.createFile(seeded);
+        }
+        Path run = dir.resolve("run-" + sales + ".db");
+        OfflineApplication.deleteDatabase(run);
+        Files.copy(seed, run, StandardCopyOption.REPLACE_EXISTING);
+        context = OfflineApplication.start(run);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(Path file) {
+        System.out.println("Seeding " + file + " with " + sales + " sales...");
+        long started = System.nanoTime();
+        DataGenerator.Scale scale = new DataGenerator.Scale();
+        scale.shops = SHOPS;
+        scale.products = PRODUCTS;
+        scale.ingredients = INGREDIENTS;
+        scale.sales = sales;
+        scale.stock = 1.0e12;
+        OfflineApplication.generate(file, scale);
+        System.out.printf("Seeded in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.myland02.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name=value} arguments of the tools in this package.
+ */
+final class CommandLine {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    CommandLine(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long getLong(String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name).replace("_", "")) : defaultValue;
+    }
+
+    double getDouble(String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.myland02.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A room of LAN clients on the dashboard: {@code --clients} concurrent
+ * clients each load /dashboard/summary (7-day and 30-day chart, in turn)
+ * in a loop, waiting {@code --think} ms between loads. Reports throughput,
+ * latency percentiles and errors, plus what the server went through while
+ * it ran, sampled from /actuator/metrics: live platform threads and the
+ * requests waiting for a reader connection (permit queue and Hikari queue).
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.myland02.tools.DashboardClients \
+ *      [--url=http://localhost:8080 --clients=200 --warmup=10 --duration=30
+ *      --think=0 --timeout=30]
+ * </pre>
+ *
+ * The load is closed loop (a client sends its next request only after the
+ * last one answered), like people working the screens, so compare runs of
+ * the server with myland.threads.virtual=true and false at the same
+ * {@code --clients}. Read-only: safe against any database.
+ */
+public final class DashboardClients {
+
+    private static final String[] PATHS = {
+            "/api/myland/dashboard/summary?days=7",
+            "/api/myland/dashboard/summary?days=30",
+    };
+
+    /** Server gauges sampled during the run (name, tag or null). */
+    private static final String[][] GAUGES = {
+            {"jvm.threads.live", null},
+            {"myland.jdbc.connections.waiting", "pool:sqlite-reader"},
+            {"hikaricp.connections.pending", "pool:sqlite-reader"},
+    };
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String url;
+    private final Duration timeout;
+
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final Map<String, Double> peaks = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private DashboardClients(String url, Duration timeout) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.url = url.replaceAll("/+$", "");
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine cli = new CommandLine(args);
+        DashboardClients run = new DashboardClients(cli.get("url", "http://localhost:8080"),
+                Duration.ofSeconds(cli.getInt("timeout", 30)));
+        run.run(cli.getInt("clients", 200), cli.getInt("warmup", 10), cli.getInt("duration", 30),
+                cli.getInt("think", 0));
+    }
+
+    private void run(int clients, int warmupSeconds, int durationSeconds, int thinkMillis) throws Exception {
+        long start = System.nanoTime();
+        long recordFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = recordFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        System.out.printf("%s: %d clients, %d s warmup + %d s measured, %d ms think time%n",
+                url, clients, warmupSeconds, durationSeconds, thinkMillis);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread.ofVirtual().name("client-" + c).start(() -> {
+                try {
+                    client(client, recordFrom, end, thinkMillis);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        Thread sampler = Thread.ofVirtual().name("sampler").start(() -> sample(recordFrom, end));
+        done.await();
+        sampler.join();
+        report(durationSeconds);
+    }
+
+    private void client(int client, long recordFrom, long end, int thinkMillis) {
+        for (int i = client; System.nanoTime() < end; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + PATHS[i % PATHS.length]))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            if (sent >= recordFrom && sent < end) {
+                latencies.add(System.nanoTime() - sent);
+                if (status >= 200 && status < 300) {
+                    ok.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sample(long recordFrom, long end) {
+        while (System.nanoTime() < end) {
+            if (System.nanoTime() >= recordFrom) {
+                for (String[] gauge : GAUGES) {
+                    Double value = gauge(gauge[0], gauge[1]);
+                    if (value != null) {
+                        peaks.merge(label(gauge), value, Math::max);
+                    }
+                }
+            }
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Current value of an Actuator gauge, or null when the server does not publish it. */
+    private Double gauge(String name, String tag) {
+        String path = "/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : "");
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + path))
+                    .timeout(timeout).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode measurements = json.readTree(response.body()).path("measurements");
+            return measurements.size() > 0 ? measurements.get(0).path("value").asDouble() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void report(int durationSeconds) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        System.out.println();
+        if (sorted.isEmpty()) {
+            System.out.println("No requests completed in the measured period");
+            return;
+        }
+        System.out.printf(Locale.US, "%-28s %d (%d ok, %d errors: non-2xx, timeouts, connection failures)%n",
+                "requests", sorted.size(), ok.get(), errors.get());
+        System.out.printf(Locale.US, "%-28s %.1f%n", "throughput req/s", sorted.size() / (double) durationSeconds);
+        System.out.printf(Locale.US, "%-28s p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n", "latency ms",
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                millis(percentile(sorted, 0.99)), millis(sorted.get(sorted.size() - 1)));
+        for (String[] gauge : GAUGES) {
+            Double peak = peaks.get(label(gauge));
+            System.out.printf(Locale.US, "%-28s %s%n", "peak " + label(gauge),
+                    peak != null ? String.format(Locale.US, "%.0f", peak) : "n/a");
+        }
+    }
+
+    private static String label(String[] gauge) {
+        return gauge[1] != null ? gauge[0] + "{" + gauge[1].substring(gauge[1].indexOf(':') + 1) + "}" : gauge[0];
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.myland02.tools;
+
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.ProductIngredient;
+import com.example.myland02.model.Production;
+import com.example.myland02.model.ProductionIngredient;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import com.example.myland02.util.SaleTotals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Writes a repeatable (seeded) synthetic data set into an empty, migrated
+ * database: shops, ingredients, products with recipes, {@code years} of
+ * daily production and {@code sales} sales with returns.
+ *
+ * Rows are built as the model entities and written with batched JDBC,
+ * {@link #CHUNK} rows per transaction. Sales lean towards weekends and each
+ * day's production covers that day's sales, so product stock never goes
+ * negative. Ingredient stock ends at {@code stock} per ingredient; the
+ * journal gets an opening balance plus one consumption per production line.
+ * The sales rollup and product_stock tables are not written here; rebuild
+ * them afterwards (see {@link GenerateData}).
+ */
+public class DataGenerator {
+
+    private static final int CHUNK = 50_000;
+
+    private static final String[] INGREDIENT_NAMES = {
+            "Flour", "Sugar", "Butter", "Eggs", "Milk", "Yeast", "Salt", "Chicken", "Beef", "Fish",
+            "Potato", "Onion", "Tomato", "Cheese", "Oil", "Chili", "Pepper", "Garlic", "Ginger", "Curry Leaves",
+            "Coconut", "Rice Flour", "Cocoa", "Vanilla", "Baking Powder", "Cream", "Jam", "Sausage", "Carrot", "Leeks"};
+
+    private static final String[] PRODUCT_NAMES = {
+            "Fish Bun", "Chicken Roll", "Egg Roll", "Vegetable Roti", "Sausage Bun", "Tea Bun", "Butter Cake",
+            "Chocolate Cake", "Pizza Slice", "Cheese Toast", "Patty", "Cutlet", "Doughnut", "Jam Roll",
+            "Seeni Sambol Bun", "Chicken Pastry", "Kimbula Bun", "Sandwich Bread", "Cream Bun", "Samosa"};
+
+    /** Data set size and shape. */
+    public static class Scale {
+        public int shops = 30;
+        public int products = 40;
+        public int ingredients = 80;
+        public int years = 3;
+        public long sales = 100_000;
+        /** Share of sales with returned units. */
+        public double returnRate = 0.05;
+        /** Stock left on every ingredient at the end. */
+        public double stock = 1_000;
+        public long seed = 42;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Scale scale;
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+    private final int days;
+
+    private final List<Shop> shops = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+    private final List<Ingredient> ingredients = new ArrayList<>();
+    private final List<List<ProductIngredient>> recipes = new ArrayList<>();
+    /** Units sold per product (index) per day (days back from today). */
+    private final long[][] soldUnits;
+    private final double[] consumed;
+
+    public DataGenerator(JdbcTemplate jdbc, TransactionTemplate tx, Scale scale) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.scale = scale;
+        this.random = new Random(scale.seed);
+        this.days = Math.max(1, scale.years * 365);
+        this.soldUnits = new long[scale.products][days];
+        this.consumed = new double[scale.ingredients];
+    }
+
+    public void generate() {
+        tx.executeWithoutResult(status -> masterData());
+        sales();
+        productions();
+        tx.executeWithoutResult(status -> openingBalances());
+    }
+
+    private void masterData() {
+        for (int i = 1; i <= scale.shops; i++) {
+            shops.add(new Shop((long) i, "Shop " + i, i + " Main Street", "07" + (10_000_000 + i),
+                    "shop" + i + "@example.com", "City " + (1 + i % 9)));
+        }
+        jdbc.batchUpdate("INSERT INTO shops (id, name, address, contact_number, email, city) VALUES (?, ?, ?, ?, ?, ?)",
+                rows(shops, s -> new Object[]{s.getId(), s.getName(), s.getAddress(), s.getContactNumber(),
+                        s.getEmail(), s.getCity()}));
+
+        for (int i = 1; i <= scale.ingredients; i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId((long) i);
+            ingredient.setName(name(INGREDIENT_NAMES, i));
+            ingredient.setType(i % 4 == 0 ? "PIECES" : "KG");
+            ingredient.setPricePerUnit((double) (50 + random.nextInt(950)));
+            ingredient.setQuantity(scale.stock);
+            ingredients.add(ingredient);
+        }
+        // Quantities are written by openingBalances(), after consumption is known
+        jdbc.batchUpdate("INSERT INTO ingredients (id, name, ingredient_type, price_per_unit, quantity) VALUES (?, ?, ?, ?, 0)",
+                rows(ingredients, g -> new Object[]{g.getId(), g.getName(), g.getType(), g.getPricePerUnit()}));
+
+        List<ProductIngredient> lines = new ArrayList<>();
+        for (int i = 1; i <= scale.products; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName(name(PRODUCT_NAMES, i));
+            product.setDescription("Synthetic product " + i);
+            product.setBasePrice((double) (40 + 10 * random.nextInt(30)));
+            product.setProductCost((double) Math.round(product.getBasePrice() * (0.4 + random.nextDouble() * 0.3)));
+            products.add(product);
+
+            List<ProductIngredient> recipe = new ArrayList<>();
+            int size = Math.min(scale.ingredients, 3 + random.nextInt(6));
+            int first = random.nextInt(scale.ingredients);
+            for (int j = 0; j < size; j++) {
+                Ingredient ingredient = ingredients.get((first + j) % scale.ingredients);
+                recipe.add(new ProductIngredient(null, product, ingredient, 0.01 + random.nextInt(20) / 100.0));
+            }
+            recipes.add(recipe);
+            lines.addAll(recipe);
+        }
+        jdbc.batchUpdate("INSERT INTO products (id, name, description, price, product_cost, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows(products, p -> new Object[]{p.getId(), p.getName(), p.getDescription(), p.getBasePrice(),
+                        p.getProductCost(), Timestamp.valueOf(p.getCreatedAt()), Timestamp.valueOf(p.getUpdatedAt())}));
+        jdbc.batchUpdate("INSERT INTO product_ingredients (product_id, ingredient_id, amount_required) VALUES (?, ?, ?)",
+                rows(lines, l -> new Object[]{l.getProduct().getId(), l.getIngredient().getId(), l.getAmountRequired()}));
+    }
+
+    private void sales() {
+        for (long start = 0; start < scale.sales; start += CHUNK) {
+            int size = (int) Math.min(CHUNK, scale.sales - start);
+            tx.executeWithoutResult(status -> {
+                List<Sale> chunk = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int daysBack = saleDay();
+                    int productIndex = random.nextInt(products.size());
+                    Product product = products.get(productIndex);
+                    Sale sale = new Sale();
+                    sale.setSaleDate(today.minusDays(daysBack));
+                    sale.setProduct(product);
+                    sale.setShop(shops.get(random.nextInt(shops.size())));
+                    sale.setSellingPrice(product.getBasePrice());
+                    sale.setSoldUnits(1 + random.nextInt(40));
+                    sale.setReturnedUnits(random.nextDouble() < scale.returnRate
+                            ? 1 + random.nextInt(Math.max(1, sale.getSoldUnits() / 4)) : 0);
+                    SaleTotals.apply(sale, product);
+                    soldUnits[productIndex][daysBack] += sale.getSoldUnits();
+                    chunk.add(sale);
+                }
+                jdbc.batchUpdate("INSERT INTO sales (date, product_id, shop_id, selling_price, sold_units, returned_units, "
+                                + "income, profit) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        rows(chunk, s -> new Object[]{Date.valueOf(s.getSaleDate()), s.getProduct().getId(),
+                                s.getShop().getId(), s.getSellingPrice(), s.getSoldUnits(), s.getReturnedUnits(),
+                                s.getTotalIncome(), s.getTotalProfit()}));
+            });
+        }
+    }
+
+    /**
+     * One run per product per day, sized to that day's sales plus ~10%
+     * (products with no sales that day are still baked some days).
+     */
+    private void productions() {
+        List<Production> pending = new ArrayList<>();
+        long nextId = 1;
+        for (int daysBack = days - 1; daysBack >= 0; daysBack--) {
+            LocalDate date = today.minusDays(daysBack);
+            for (int p = 0; p < products.size(); p++) {
+                long sold = soldUnits[p][daysBack];
+                if (sold == 0 && random.nextInt(3) != 0) {
+                    continue;
+                }
+                Production production = new Production();
+                production.setId(nextId++);
+                production.setDate(date);
+                production.setProduct(products.get(p));
+                production.setProducedUnits((int) Math.max(5, Math.ceil(sold * (1.05 + random.nextDouble() * 0.1))));
+                for (ProductIngredient line : recipes.get(p)) {
+                    production.getUsedIngredients().add(new ProductionIngredient(null, production, line.getIngredient(),
+                            line.getAmountRequired() * production.getProducedUnits()));
+                }
+                pending.add(production);
+            }
+            if (pending.size() >= CHUNK / 10 || daysBack == 0) {
+                List<Production> chunk = new ArrayList<>(pending);
+                pending.clear();
+                tx.executeWithoutResult(status -> writeProductions(chunk));
+            }
+        }
+    }
+
+    private void writeProductions(List<Production> chunk) {
+        List<Object[]> runs = new ArrayList<>(chunk.size());
+        List<Object[]> lines = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        for (Production production : chunk) {
+            runs.add(new Object[]{production.getId(), Date.valueOf(production.getDate()),
+                    production.getProducedUnits(), production.getProduct().getId()});
+            Timestamp at = Timestamp.valueOf(production.getDate().atTime(6, 0));
+            for (ProductionIngredient line : production.getUsedIngredients()) {
+                Long ingredientId = line.getIngredient().getId();
+                lines.add(new Object[]{production.getId(), ingredientId, line.getQuantityUsed()});
+                movements.add(new Object[]{ingredientId, -line.getQuantityUsed(), production.getId(), at});
+                consumed[(int) (ingredientId - 1)] += line.getQuantityUsed();
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO production (id, date, produced_units, product_id) VALUES (?, ?, ?, ?)", runs);
+        jdbc.batchUpdate("INSERT INTO production_ingredients (production_id, ingredient_id, quantity_used) VALUES (?, ?, ?)", lines);
+        jdbc.batchUpdate("INSERT INTO inventory_movements (ingredient_id, movement_type, quantity, production_id, occurred_at) "
+                + "VALUES (?, 'CONSUMPTION', ?, ?, ?)", movements);
+    }
+
+    /**
+     * Opening balance = everything consumed plus the final stock, dated
+     * before the first production, so the journal sums to the stored quantity.
+     */
+    private void openingBalances() {
+        Timestamp opened = Timestamp.valueOf(today.minusDays(days).atStartOfDay());
+        List<Object[]> movements = new ArrayList<>();
+        List<Object[]> quantities = new ArrayList<>();
+        for (Ingredient ingredient : ingredients) {
+            int index = (int) (ingredient.getId() - 1);
+            movements.add(new Object[]{ingredient.getId(), consumed[index] + scale.stock, opened});
+            quantities.add(new Object[]{scale.stock, ingredient.getId()});
+        }
+        jdbc.batchUpdate("INSERT INTO inventory_movements (ingredient_id, movement_type, quantity, occurred_at, note) "
+                + "VALUES (?, 'ADJUSTMENT', ?, ?, 'Opening balance')", movements);
+        jdbc.batchUpdate("UPDATE ingredients SET quantity = ? WHERE id = ?", quantities);
+    }
+
+    /** Days back from today; Friday to Sunday sell about 1.5x a weekday. */
+    private int saleDay() {
+        while (true) {
+            int daysBack = random.nextInt(days);
+            DayOfWeek day = today.minusDays(daysBack).getDayOfWeek();
+            boolean busy = day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+            if (busy || random.nextInt(3) != 0) {
+                return daysBack;
+            }
+        }
+    }
+
+    private static String name(String[] names, int i) {
+        String base = names[(i - 1) % names.length];
+        int round = (i - 1) / names.length;
+        return round == 0 ? base : base + " " + (round + 1);
+    }
+
+    private static <T> List<Object[]> rows(List<T> items, Function<T, Object[]> mapper) {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (T item : items) {
+            rows.add(mapper.apply(item));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.myland02.tools;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Create a synthetic database file.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.myland02.tools.GenerateData \
+ *      --db=big.db --sales=5000000 [--shops=30 --products=40 --ingredients=80
+ *      --years=3 --return-rate=0.05 --stock=1000 --seed=42]
+ * </pre>
+ *
+ * Point the application at the result with {@code -Duser.data.dir=<dir>}
+ * (after renaming it to myland.db).
+ */
+public final class GenerateData {
+
+    private GenerateData() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine cli = new CommandLine(args);
+        if (!cli.has("db")) {
+            System.err.println("Usage: GenerateData --db=<file> [--sales=N --shops=N --products=N --ingredients=N "
+                    + "--years=N --return-rate=R --stock=Q --seed=S]");
+            System.exit(2);
+        }
+        Path db = Paths.get(cli.get("db", null));
+        if (Files.exists(db)) {
+            System.err.println(db + " already exists");
+            System.exit(1);
+        }
+
+        DataGenerator.Scale scale = new DataGenerator.Scale();
+        scale.sales = cli.getLong("sales", scale.sales);
+        scale.shops = cli.getInt("shops", scale.shops);
+        scale.products = cli.getInt("products", scale.products);
+        scale.ingredients = cli.getInt("ingredients", scale.ingredients);
+        scale.years = cli.getInt("years", scale.years);
+        scale.returnRate = cli.getDouble("return-rate", scale.returnRate);
+        scale.stock = cli.getDouble("stock", scale.stock);
+        scale.seed = cli.getLong("seed", scale.seed);
+
+        long started = System.nanoTime();
+        OfflineApplication.generate(db, scale);
+        System.out.printf("Wrote %,d sales over %d years to %s in %.1f s%n",
+                scale.sales, scale.years, db.toAbsolutePath(), (System.nanoTime() - started) / 1e9);
+    }
+}
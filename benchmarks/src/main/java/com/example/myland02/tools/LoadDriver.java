@@ -0,0 +1,283 @@
+package com.example.myland02.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Replays a mix of /api/myland reads and writes against a running server
+ * at a fixed request rate and reports count, p50/p99/max latency and error
+ * rate per operation.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.myland02.tools.LoadDriver \
+ *      [--url=http://localhost:8080 --rate=50 --duration=60 --warmup=10
+ *      --writes=0.2 --timeout=10 --seed=1]
+ * </pre>
+ *
+ * The load is open loop: requests start on schedule whether or not earlier
+ * ones have finished, and latency is measured from the scheduled start, so
+ * a stalled server shows up in the percentiles instead of quietly lowering
+ * the rate. Writes are real: run it against a generated database
+ * ({@link GenerateData}), not the shop's own.
+ */
+public final class LoadDriver {
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String api;
+    private final Duration timeout;
+    private final SplittableRandom random;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> shopIds = new ArrayList<>();
+    private final List<Long> ingredientIds = new ArrayList<>();
+
+    private final List<Operation> reads = new ArrayList<>();
+    private final List<Operation> writes = new ArrayList<>();
+
+    private LoadDriver(String url, Duration timeout, long seed) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.api = url.replaceAll("/+$", "") + "/api/myland";
+        this.timeout = timeout;
+        this.random = new SplittableRandom(seed);
+
+        String month = YearMonth.now().toString();
+        reads.add(new Operation("GET /products", 20, () -> get("/products")));
+        reads.add(new Operation("GET /shops", 10, () -> get("/shops")));
+        reads.add(new Operation("GET /ingredients", 10, () -> get("/ingredients")));
+        reads.add(new Operation("GET /sales?limit=100", 20, () -> get("/sales?limit=100")));
+        reads.add(new Operation("GET /production?limit=100", 10, () -> get("/production?limit=100")));
+        reads.add(new Operation("GET /dashboard/summary", 10, () -> get("/dashboard/summary")));
+        reads.add(new Operation("GET /reports/monthly", 10, () -> get("/reports/monthly?month=" + month)));
+        reads.add(new Operation("GET /inventory/products", 10, () -> get("/inventory/products")));
+        writes.add(new Operation("POST /sale", 70, this::sale));
+        writes.add(new Operation("POST /production", 30, this::production));
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine cli = new CommandLine(args);
+        LoadDriver driver = new LoadDriver(cli.get("url", "http://localhost:8080"),
+                Duration.ofSeconds(cli.getInt("timeout", 10)), cli.getLong("seed", 1));
+        driver.loadIds();
+        driver.run(cli.getDouble("rate", 50), cli.getInt("warmup", 10), cli.getInt("duration", 60),
+                cli.getDouble("writes", 0.2));
+    }
+
+    private void loadIds() throws Exception {
+        ids("/products", productIds);
+        ids("/shops", shopIds);
+        ids("/ingredients", ingredientIds);
+        if (productIds.isEmpty() || shopIds.isEmpty()) {
+            throw new IllegalStateException("The server has no products or shops; generate data first");
+        }
+        System.out.printf("Target %s: %d products, %d shops, %d ingredients%n",
+                api, productIds.size(), shopIds.size(), ingredientIds.size());
+    }
+
+    private void run(double rate, int warmupSeconds, int durationSeconds, double writeShare) throws Exception {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long recordFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = recordFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<CompletableFuture<?>> inFlight = Collections.synchronizedList(new ArrayList<>());
+
+        System.out.printf("Running %.0f req/s, %d s warmup + %d s measured, %.0f%% writes%n",
+                rate, warmupSeconds, durationSeconds, writeShare * 100);
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean record = scheduled >= recordFrom;
+            Operation operation = pick(random.nextDouble() < writeShare ? writes : reads);
+            CompletableFuture<HttpResponse<Void>> call;
+            try {
+                call = http.sendAsync(operation.request.get(), HttpResponse.BodyHandlers.discarding());
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<?> done = call.whenComplete((response, error) -> {
+                if (record) {
+                    operation.record(System.nanoTime() - scheduled, response != null ? response.statusCode() : -1);
+                }
+            });
+            inFlight.add(done);
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+
+        List<CompletableFuture<?>> remaining;
+        synchronized (inFlight) {
+            remaining = new ArrayList<>(inFlight);
+        }
+        try {
+            CompletableFuture.allOf(remaining.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Failures are already counted per operation; a timeout here leaves them unrecorded
+        }
+        report(durationSeconds);
+    }
+
+    private void report(int durationSeconds) {
+        System.out.println();
+        System.out.printf("%-28s %8s %8s %6s %7s %9s %9s %9s%n",
+                "operation", "count", "2xx/304", "4xx", "errors", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        long failed = 0;
+        List<Operation> all = new ArrayList<>(reads);
+        all.addAll(writes);
+        for (Operation operation : all) {
+            List<Long> latencies = operation.sorted();
+            if (latencies.isEmpty()) {
+                continue;
+            }
+            total += latencies.size();
+            failed += operation.errors.get();
+            System.out.printf(Locale.US, "%-28s %8d %8d %6d %7d %9.1f %9.1f %9.1f%n",
+                    operation.name, latencies.size(), operation.ok.get(), operation.rejected.get(),
+                    operation.errors.get(), millis(percentile(latencies, 0.50)),
+                    millis(percentile(latencies, 0.99)), millis(latencies.get(latencies.size() - 1)));
+        }
+        System.out.printf(Locale.US, "%nCompleted %.1f req/s, error rate %.2f%% (5xx, timeouts, connection errors)%n",
+                total / (double) durationSeconds, total > 0 ? failed * 100.0 / total : 0.0);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(api + path))
+                .timeout(timeout)
+                .header("Accept-Encoding", "identity")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest sale() {
+        String body = String.format(Locale.US,
+                "{\"saleDate\":\"%s\",\"product\":{\"id\":%d},\"shop\":{\"id\":%d},"
+                        + "\"sellingPrice\":%d,\"soldUnits\":%d,\"returnedUnits\":%d}",
+                LocalDate.now(), pickId(productIds), pickId(shopIds), 50 + random.nextInt(200),
+                1 + random.nextInt(30), random.nextInt(20) == 0 ? 1 : 0);
+        return post("/sale", body);
+    }
+
+    private HttpRequest production() {
+        StringBuilder lines = new StringBuilder();
+        int count = ingredientIds.isEmpty() ? 0 : 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                lines.append(',');
+            }
+            lines.append("{\"ingredientId\":").append(pickId(ingredientIds)).append(",\"quantityUsed\":0.01}");
+        }
+        String body = String.format(Locale.US,
+                "{\"product\":{\"id\":%d},\"date\":\"%s\",\"producedUnits\":%d,\"usedIngredients\":[%s]}",
+                pickId(productIds), LocalDate.now(), 5 + random.nextInt(50), lines);
+        return post("/production", body);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(api + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void ids(String path, List<Long> into) throws Exception {
+        HttpResponse<String> response = http.send(get(path), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        for (JsonNode row : json.readTree(response.body())) {
+            into.add(row.get("id").asLong());
+        }
+    }
+
+    private long pickId(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private Operation pick(List<Operation> operations) {
+        int total = 0;
+        for (Operation operation : operations) {
+            total += operation.weight;
+        }
+        int r = random.nextInt(total);
+        for (Operation operation : operations) {
+            r -= operation.weight;
+            if (r < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Operation {
+        final String name;
+        final int weight;
+        final Supplier<HttpRequest> request;
+        final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        Operation(String name, int weight, Supplier<HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        void record(long nanos, int status) {
+            latencies.add(nanos);
+            if (status >= 200 && status < 400) {
+                ok.incrementAndGet();
+            } else if (status >= 400 && status < 500) {
+                rejected.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        List<Long> sorted() {
+            List<Long> copy;
+            synchronized (latencies) {
+                copy = new ArrayList<>(latencies);
+            }
+            Collections.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.myland02.tools;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.service.ProductStockService;
+import com.example.myland02.service.SalesRollupService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The application without its web server, opened on a given SQLite file
+ * (Flyway migrates it on start). The server must not be running on the
+ * same file: the stock ledger assumes it is the only writer.
+ */
+public final class OfflineApplication {
+
+    private OfflineApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(Path database) {
+        return new SpringApplicationBuilder(Myland02Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:sqlite:" + database.toAbsolutePath().toString().replace("\\", "/"),
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.myland02=WARN")
+                .run();
+    }
+
+    /**
+     * Generate a data set into an empty database file and bring the derived
+     * tables (sales rollup, product stock) up to date.
+     */
+    public static void generate(Path database, DataGenerator.Scale scale) {
+        try (ConfigurableApplicationContext context = start(database)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            Long shops = jdbc.queryForObject("SELECT COUNT(*) FROM shops", Long.class);
+            if (shops != null && shops > 0) {
+                throw new IllegalStateException(database + " already has data; generate into a new file");
+            }
+            TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            new DataGenerator(jdbc, tx, scale).generate();
+            context.getBean(SalesRollupService.class).rebuild();
+            context.getBean(ProductStockService.class).check(true);
+            // Fold the WAL into the main file so the file can be copied on its own
+            jdbc.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+    }
+
+    public static void deleteDatabase(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Paths.get(file + "-wal"));
+        Files.deleteIfExists(Paths.get(file + "-shm"));
+    }
+}
@@ -7,9 +7,9 @@ echo Myland Desktop Application Build Script
 echo ========================================
 echo.
 
-REM Step 1: Build Backend JAR
+REM Step 1: Build Backend JAR (desktop layout: thin jar + lib\, see the desktop profile in pom.xml)
 echo [Step 1/5] Building backend JAR...
-call mvn clean package -DskipTests
+call mvn clean package -Pdesktop -DskipTests
 if %ERRORLEVEL% NEQ 0 (
     echo ERROR: Maven build failed!
     exit /b 1
@@ -23,21 +23,35 @@ if exist electron\resources\jre (
     echo Removing existing JRE...
     rmdir /s /q electron\resources\jre
 )
-call jlink --add-modules java.base,java.logging,java.naming,java.desktop,java.management,java.security.jgss,java.instrument,java.sql,java.xml,jdk.unsupported,java.rmi,java.net.http,jdk.crypto.ec,java.security.sasl,jdk.charsets,java.transaction.xa --output electron\resources\jre --strip-debug --no-header-files --no-man-pages --compress=2
+REM --generate-cds-archive adds the JDK's base class-data-sharing archive, which
+REM the backend's own archive (trained by main.js on first start) builds on
+call jlink --add-modules java.base,java.logging,java.naming,java.desktop,java.management,java.security.jgss,java.instrument,java.sql,java.xml,jdk.unsupported,java.rmi,java.net.http,jdk.crypto.ec,java.security.sasl,jdk.charsets,java.transaction.xa --output electron\resources\jre --strip-debug --no-header-files --no-man-pages --compress=2 --generate-cds-archive
 if %ERRORLEVEL% NEQ 0 (
-    echo ERROR: jlink failed! Make sure JDK 17 is installed and in PATH.
+    echo ERROR: jlink failed! Make sure JDK 21 is installed and in PATH.
     exit /b 1
 )
 echo JRE created successfully!
 echo.
 
-REM Step 3: Copy JAR to Electron resources
+REM Step 3: Copy JAR and its lib\ folder to Electron resources
 echo [Step 3/5] Copying backend JAR to Electron resources...
-copy /Y target\myland-system-1.0.0.jar electron\resources\backend.jar
+if exist electron\resources\backend (
+    rmdir /s /q electron\resources\backend
+)
+if exist electron\resources\backend.jar (
+    del /q electron\resources\backend.jar
+)
+mkdir electron\resources\backend
+copy /Y target\desktop\myland-system-1.0.0-desktop.jar electron\resources\backend\backend.jar
 if %ERRORLEVEL% NEQ 0 (
     echo ERROR: Failed to copy JAR file!
     exit /b 1
 )
+xcopy /E /I /Y /Q target\desktop\lib electron\resources\backend\lib
+if %ERRORLEVEL% NEQ 0 (
+    echo ERROR: Failed to copy backend libraries!
+    exit /b 1
+)
 echo JAR copied successfully!
 echo.
 
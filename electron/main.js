@@ -13,6 +13,7 @@ const HEALTH_CHECK_INTERVAL = 500; // Check every 500ms
 
 let mainWindow = null;
 let backendProcess = null;
+let trainingProcess = null;
 let isQuitting = false;
 
 /**
@@ -30,18 +31,54 @@ function getJrePath() {
 }
 
 /**
- * Get the path to the backend JAR file
+ * Get the path to the backend JAR file. The desktop layout (mvn -Pdesktop)
+ * is backend/backend.jar with its dependencies in backend/lib; older
+ * packages ship a single executable backend.jar.
  */
 function getJarPath() {
-    if (app.isPackaged) {
-        // Production: JAR is bundled in resources
-        return path.join(process.resourcesPath, 'backend.jar');
-    } else {
-        // Development: JAR is in electron/resources
-        return path.join(__dirname, 'resources', 'backend.jar');
+    const resources = app.isPackaged ? process.resourcesPath : path.join(__dirname, 'resources');
+    const desktopJar = path.join(resources, 'backend', 'backend.jar');
+    if (fs.existsSync(desktopJar)) {
+        return desktopJar;
+    }
+    return path.join(resources, 'backend.jar');
+}
+
+/**
+ * Class-data-sharing archive of the backend's classes, trained once per
+ * install (see trainCdsArchive) because an archive only matches the java
+ * and jar paths it was created with. The stamp file records those paths,
+ * so a moved install or an updated jar trains a new one.
+ */
+function getCdsPaths() {
+    const dir = path.join(app.getPath('userData'), 'cds');
+    return {
+        dir,
+        archive: path.join(dir, 'backend.jsa'),
+        stamp: path.join(dir, 'backend.jsa.json'),
+        trainingData: path.join(dir, 'training')
+    };
+}
+
+function getCdsStamp(javaPath, jarPath) {
+    const jar = fs.statSync(jarPath);
+    return JSON.stringify({ java: javaPath, jar: jarPath, size: jar.size, modified: jar.mtimeMs });
+}
+
+function isCdsArchiveUsable(javaPath, jarPath) {
+    const cds = getCdsPaths();
+    try {
+        return fs.existsSync(cds.archive)
+            && fs.readFileSync(cds.stamp, 'utf8') === getCdsStamp(javaPath, jarPath);
+    } catch (error) {
+        return false;
     }
 }
 
+function isDesktopLayout(jarPath) {
+    return fs.existsSync(path.join(path.dirname(jarPath), 'lib'));
+}
+
 /**
  * Start the Spring Boot backend process
  */
@@ -62,15 +99,21 @@ function startBackend() {
         // Get user data directory for database
         const userDataDir = app.getPath('userData');
 
-        // Spawn the backend process
-        backendProcess = spawn(javaPath, [
+        const args = [
             '-Xms128m',           // Minimum heap size
             '-Xmx512m',           // Maximum heap size
             `-Duser.data.dir=${userDataDir}`,  // Pass user data directory to backend
-            '-Dfile.encoding=UTF-8',
-            '-jar',
-            jarPath
-        ], {
+            '-Dfile.encoding=UTF-8'
+        ];
+        if (isCdsArchiveUsable(javaPath, jarPath)) {
+            console.log('CDS archive:', getCdsPaths().archive);
+            args.push(`-XX:SharedArchiveFile=${getCdsPaths().archive}`);
+        }
+        // Lazy bean initialization and deferred JPA bootstrap (application-desktop.properties)
+        args.push('-jar', jarPath, '--spring.profiles.active=desktop');
+
+        // Spawn the backend process
+        backendProcess = spawn(javaPath, args, {
             cwd: userDataDir, // Run from user data directory for database
             stdio: 'pipe',
             env: {
@@ -135,7 +178,8 @@ function waitForBackend(resolve, reject) {
 
             res.on('end', () => {
                 if (res.statusCode === 200) {
-                    console.log('Backend is ready!');
+                    const seconds = ((Date.now() - startTime) / 1000).toFixed(1);
+                    console.log(`Backend is ready after ${seconds}s (${attemptCount} attempts)`);
                     console.log('Health check response:', data);
                     resolve();
                 } else {
@@ -164,10 +208,72 @@ function waitForBackend(resolve, reject) {
     checkHealth();
 }
 
+/**
+ * Train the CDS archive used by the next start: run a second backend on a
+ * scratch data directory and a free port with -Dmyland.cds.training=true,
+ * which requests the first screen's pages and exits, and
+ * -XX:ArchiveClassesAtExit, which then writes the loaded classes. Runs in
+ * the background after the window is shown; a failed run only means the
+ * next start is not faster, and is retried then.
+ */
+function trainCdsArchive() {
+    const javaPath = getJrePath();
+    const jarPath = getJarPath();
+    if (!isDesktopLayout(jarPath) || isCdsArchiveUsable(javaPath, jarPath)) {
+        return;
+    }
+
+    const cds = getCdsPaths();
+    const pending = `${cds.archive}.tmp`;
+    fs.rmSync(cds.trainingData, { recursive: true, force: true });
+    fs.mkdirSync(cds.trainingData, { recursive: true });
+    fs.rmSync(pending, { force: true });
+
+    console.log('Training CDS archive...');
+    const trainingStart = Date.now();
+    trainingProcess = spawn(javaPath, [
+        '-Xmx512m',
+        `-XX:ArchiveClassesAtExit=${pending}`,
+        '-Dmyland.cds.training=true',
+        `-Duser.data.dir=${cds.trainingData}`,
+        '-Dfile.encoding=UTF-8',
+        '-jar',
+        jarPath,
+        '--spring.profiles.active=desktop',
+        '--server.port=0'
+    ], {
+        cwd: cds.trainingData,
+        stdio: 'ignore'
+    });
+
+    trainingProcess.on('error', (error) => {
+        console.error('CDS training failed to start:', error);
+        trainingProcess = null;
+    });
+
+    trainingProcess.on('exit', (code) => {
+        trainingProcess = null;
+        fs.rmSync(cds.trainingData, { recursive: true, force: true });
+        if (code === 0 && fs.existsSync(pending)) {
+            fs.renameSync(pending, cds.archive);
+            fs.writeFileSync(cds.stamp, getCdsStamp(javaPath, jarPath));
+            const seconds = ((Date.now() - trainingStart) / 1000).toFixed(1);
+            console.log(`CDS archive written in ${seconds}s, used from the next start`);
+        } else {
+            fs.rmSync(pending, { force: true });
+            console.log(`CDS training exited with code ${code}, will retry on the next start`);
+        }
+    });
+}
+
 /**
  * Stop the backend process
  */
 function stopBackend() {
+    if (trainingProcess) {
+        trainingProcess.kill();
+        trainingProcess = null;
+    }
     if (backendProcess && !backendProcess.killed) {
         console.log('Stopping backend...');
         isQuitting = true;
@@ -265,6 +371,8 @@ async function initialize() {
 
         // Create the window
         createWindow();
+
+        trainCdsArchive();
     } catch (error) {
         console.error('Initialization failed:', error);
         dialog.showErrorBox(
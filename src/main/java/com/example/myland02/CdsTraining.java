@@ -0,0 +1,56 @@
+package com.example.myland02;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Class-data-sharing training run ({@code -Dmyland.cds.training=true}, used by
+ * the desktop build and electron/main.js together with
+ * {@code -XX:ArchiveClassesAtExit}): once the application has started, request
+ * the pages and API calls of the first screen, so the classes they load are
+ * archived too, then exit so the JVM writes the archive.
+ */
+final class CdsTraining {
+
+    private static final Logger log = LoggerFactory.getLogger(CdsTraining.class);
+
+    private static final String[] PATHS = {
+            "/health",
+            "/",
+            "/api/myland/dashboard/summary?days=7",
+            "/api/myland/products",
+            "/api/myland/shops",
+            "/api/myland/ingredients",
+            "/api/myland/sales?limit=50",
+            "/api/myland/production?limit=50",
+            "/api/myland/inventory/products",
+    };
+
+    private CdsTraining() {
+    }
+
+    static void run(ConfigurableApplicationContext context) {
+        String port = context.getEnvironment().getProperty("local.server.port");
+        if (port != null) {
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            for (String path : PATHS) {
+                try {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    http.send(request, HttpResponse.BodyHandlers.discarding());
+                } catch (Exception e) {
+                    log.warn("CDS training request {} failed: {}", path, e.toString());
+                }
+            }
+        }
+        log.info("CDS training run finished, exiting");
+    }
+}
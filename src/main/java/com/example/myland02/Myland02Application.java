@@ -1,9 +1,12 @@
 package com.example.myland02;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.jdbc.core.JdbcTemplate;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Files;
@@ -12,23 +15,26 @@ import java.io.File;
 @SpringBootApplication
 public class Myland02Application {
 
+    private static final Logger log = LoggerFactory.getLogger(Myland02Application.class);
+
     public static void main(String[] args) {
+        Path dbPath;
+        String mode;
         try {
             // Determine database location based on environment
-            Path dbPath;
             String userDataDir = System.getProperty("user.data.dir");
             
             if (userDataDir != null && !userDataDir.isEmpty()) {
                 // Running from Electron - use the working directory set by Electron
                 dbPath = Paths.get(userDataDir, "myland.db").toAbsolutePath();
-                System.out.println("Running in Electron mode, using user data directory");
+                mode = "Electron";
             } else {
                 // Running standalone or in development
                 String userHome = System.getProperty("user.home");
                 Path dbDir = Paths.get(userHome, ".myland");
                 Files.createDirectories(dbDir);
                 dbPath = dbDir.resolve("myland.db").toAbsolutePath();
-                System.out.println("Running in standalone mode");
+                mode = "standalone";
             }
 
             // Ensure parent directory exists
@@ -37,35 +43,26 @@ public class Myland02Application {
             // Set the database URL with proper Windows path handling
             String jdbcUrl = "jdbc:sqlite:" + dbPath.toString().replace("\\", "/");
             System.setProperty("spring.datasource.url", jdbcUrl);
-
-            System.out.println("===========================================");
-            System.out.println("Myland Backend Starting");
-            System.out.println("===========================================");
-            System.out.println("Database location: " + dbPath);
-            System.out.println("JDBC URL: " + jdbcUrl);
-            System.out.println("Working directory: " + new File(".").getAbsolutePath());
-            System.out.println("Java version: " + System.getProperty("java.version"));
-            System.out.println("===========================================");
-            
         } catch (Exception e) {
-            System.err.println("===========================================");
-            System.err.println("FATAL: Startup initialization failed!");
-            System.err.println("===========================================");
-            System.err.println("Error: " + e.getMessage());
+            // Logging is not configured yet
+            System.err.println("FATAL: Startup initialization failed: " + e.getMessage());
             e.printStackTrace();
-            System.err.println("===========================================");
             System.exit(1);
+            return;
         }
-        
-        ConfigurableApplicationContext context = SpringApplication.run(Myland02Application.class, args);
-        
-        // Enable foreign keys for SQLite after application starts
-        try {
-            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
-            jdbcTemplate.execute("PRAGMA foreign_keys = ON");
-            System.out.println("✓ Foreign key constraints enabled");
-        } catch (Exception e) {
-            System.err.println("Warning: Could not enable foreign keys: " + e.getMessage());
+
+        // SQLite PRAGMAs (foreign keys, WAL, ...) are applied to every pooled
+        // connection by SqliteDataSourceConfig
+        SpringApplication application = new SpringApplication(Myland02Application.class);
+        // Added listeners run after Spring Boot's own, so logging is configured by then
+        application.addListeners((ApplicationListener<ApplicationEnvironmentPreparedEvent>) event ->
+                log.info("Myland backend starting in {} mode: database={} workingDirectory={} java={}", mode, dbPath,
+                        new File(".").getAbsolutePath(), System.getProperty("java.version")));
+        ConfigurableApplicationContext context = application.run(args);
+
+        if (Boolean.getBoolean("myland.cds.training")) {
+            CdsTraining.run(context);
+            System.exit(SpringApplication.exit(context));
         }
     }
 }
@@ -0,0 +1,58 @@
+package com.example.myland02.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * In-process cache for master data (products, shops, ingredients), which is
+ * read on every form open and every sale/production but changes only a few
+ * times a day.
+ *
+ * Entries are evicted by the service that writes them. The cache manager is
+ * transaction aware, so an eviction made inside a transaction happens after
+ * the commit; otherwise a concurrent read could put the old row back before
+ * the new one is visible.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_BY_ID = "productById";
+    public static final String SHOPS = "shops";
+    public static final String SHOP_BY_ID = "shopById";
+    public static final String INGREDIENTS = "ingredients";
+    /** Rendered HTML of printed reports for closed periods (see ReportRenderService). */
+    public static final String REPORTS = "reports";
+
+    /** Key of the cached "find all" lists, for evicting them in code. */
+    public static final String ALL_KEY = "all";
+    /** {@link #ALL_KEY} as a SpEL expression, for the cache annotations. */
+    public static final String ALL = "'" + ALL_KEY + "'";
+
+    @Value("${myland.cache.spec:maximumSize=1000,expireAfterWrite=10m}")
+    private String spec;
+
+    @Value("${myland.cache.report-spec:maximumSize=50,expireAfterAccess=1h}")
+    private String reportSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        // recordStats backs the hit/miss figures at /api/myland/cache/stats
+        caffeine.setCaffeine(Caffeine.from(spec).recordStats());
+        caffeine.setCacheNames(Arrays.asList(PRODUCTS, PRODUCT_BY_ID, SHOPS, SHOP_BY_ID, INGREDIENTS));
+        caffeine.setAllowNullValues(false);
+        // Few, large entries: sized separately from the master data
+        caffeine.registerCustomCache(REPORTS, Caffeine.from(reportSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
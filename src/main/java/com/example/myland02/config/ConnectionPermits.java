@@ -0,0 +1,127 @@
+package com.example.myland02.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of one SQLite pool: at most {@code size}
+ * connections are handed out at a time, and further callers wait in line on
+ * a fair semaphore until one is closed.
+ *
+ * Request threads are virtual ({@link VirtualThreadConfig}), so hundreds of
+ * them can ask for a connection at once. Waiting here is a cheap park in
+ * arrival order, while Hikari only ever sees as many borrowers as it has
+ * connections. It also caps how many virtual threads are inside the SQLite
+ * driver at the same time: its native calls are synchronized and pin the
+ * carrier thread while they run.
+ *
+ * Publishes {@code myland.jdbc.connections.waiting} and
+ * {@code myland.jdbc.connections.available}, tagged with the pool name.
+ */
+class ConnectionPermits implements MeterBinder {
+
+    private final String pool;
+    private final int size;
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    ConnectionPermits(String pool, int size, long timeoutMillis) {
+        this.pool = pool;
+        this.size = size;
+        this.permits = new Semaphore(size, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /** A data source that takes a permit before borrowing from {@code target}. */
+    DataSource limit(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                acquire();
+                try {
+                    return released(super.getConnection());
+                } catch (SQLException | RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                acquire();
+                try {
+                    return released(super.getConnection(username, password));
+                } catch (SQLException | RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("myland.jdbc.connections.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("myland.jdbc.connections.available", permits, Semaphore::availablePermits)
+                .description("Connection permits not in use")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(pool + " - no connection available after "
+                        + timeoutMillis + " ms (" + size + " in use, " + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(pool + " - interrupted while waiting for a connection", e);
+        }
+    }
+
+    /** Wraps the connection so that closing it (once) returns the permit. */
+    private Connection released(Connection target) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            if (!closed.compareAndSet(false, true)) {
+                                return null;
+                            }
+                            try {
+                                target.close();
+                            } finally {
+                                permits.release();
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
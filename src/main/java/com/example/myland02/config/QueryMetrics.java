@@ -0,0 +1,69 @@
+package com.example.myland02.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution time per JPQL/SQL query ({@code hibernate.query.time} and
+ * {@code hibernate.query.time.max}, tagged with the query), read from
+ * Hibernate's statistics.
+ *
+ * Micrometer's own HibernateQueryMetrics rescans every query on each entity
+ * load; here queries run since the last look are registered on a schedule
+ * instead, so nothing is added to the query path.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class QueryMetrics implements MeterBinder {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        registerNewQueries();
+    }
+
+    @Scheduled(initialDelayString = "${myland.metrics.query-scan-interval:PT1M}",
+            fixedDelayString = "${myland.metrics.query-scan-interval:PT1M}")
+    public void registerNewQueries() {
+        MeterRegistry target = registry;
+        if (target == null) {
+            return;
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String query : statistics.getQueries()) {
+            if (!registered.add(query)) {
+                continue;
+            }
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            FunctionTimer.builder("hibernate.query.time", stats, QueryStatistics::getExecutionCount,
+                            QueryStatistics::getExecutionTotalTime, TimeUnit.MILLISECONDS)
+                    .tag("query", query)
+                    .description("Executions and total execution time of the query")
+                    .register(target);
+            TimeGauge.builder("hibernate.query.time.max", stats, TimeUnit.MILLISECONDS, QueryStatistics::getExecutionMaxTime)
+                    .tag("query", query)
+                    .description("Slowest execution of the query since startup")
+                    .register(target);
+        }
+    }
+}
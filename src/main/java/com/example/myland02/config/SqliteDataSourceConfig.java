@@ -0,0 +1,146 @@
+package com.example.myland02.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * SQLite data source for the desktop build.
+ *
+ * The database runs in WAL mode so readers do not wait for the writer. Every
+ * connection is opened with the same PRAGMAs (passed to the sqlite-jdbc
+ * driver, which applies them when it opens the connection). Work inside
+ * {@code @Transactional(readOnly = true)} -- which includes Spring Data's
+ * own find/count methods -- goes to a pool of reader connections; everything
+ * else goes to a single writer connection, because SQLite allows only one
+ * writer at a time anyway.
+ *
+ * Both pools are beans, so they are closed with the context and Actuator
+ * publishes their metrics (hikaricp.connections.* per pool; the acquire time
+ * of sqlite-writer shows how long writes wait for the one connection). The
+ * "db" health check is replaced by {@link SqliteHealthIndicator}.
+ *
+ * Callers take a {@link ConnectionPermits} permit before borrowing from
+ * either pool, so a burst of requests waits in line there instead of in
+ * Hikari (and fails after myland.sqlite.connection-wait-timeout ms).
+ *
+ * Only active when the SQLite driver is configured; the h2/sqlserver
+ * profiles keep Spring Boot's default data source.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.driver-class-name", havingValue = "org.sqlite.JDBC")
+public class SqliteDataSourceConfig {
+
+    @Value("${myland.sqlite.reader-pool-size:4}")
+    private int readerPoolSize;
+
+    @Value("${myland.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${myland.sqlite.cache-size:-16000}")
+    private int cacheSize;
+
+    @Value("${myland.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${myland.sqlite.temp-store:MEMORY}")
+    private String tempStore;
+
+    @Value("${myland.sqlite.busy-timeout:5000}")
+    private int busyTimeout;
+
+    @Value("${myland.sqlite.connection-wait-timeout:30000}")
+    private long connectionWaitTimeout;
+
+    @Bean
+    public HikariDataSource sqliteWriter(DataSourceProperties properties) {
+        return pool(properties, "sqlite-writer", 1);
+    }
+
+    @Bean
+    public HikariDataSource sqliteReader(DataSourceProperties properties) {
+        return pool(properties, "sqlite-reader", readerPoolSize);
+    }
+
+    @Bean
+    public ConnectionPermits sqliteWriterPermits() {
+        return new ConnectionPermits("sqlite-writer", 1, connectionWaitTimeout);
+    }
+
+    @Bean
+    public ConnectionPermits sqliteReaderPermits() {
+        return new ConnectionPermits("sqlite-reader", readerPoolSize, connectionWaitTimeout);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriter") HikariDataSource writer,
+                                 @Qualifier("sqliteReader") HikariDataSource reader,
+                                 @Qualifier("sqliteWriterPermits") ConnectionPermits writerPermits,
+                                 @Qualifier("sqliteReaderPermits") ConnectionPermits readerPermits) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? "reader" : "writer";
+            }
+        };
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource boundedWriter = writerPermits.limit(writer);
+        targets.put("writer", boundedWriter);
+        targets.put("reader", readerPermits.limit(reader));
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(boundedWriter);
+        routing.afterPropertiesSet();
+
+        // The transaction manager asks for a connection before it marks the
+        // transaction read-only; the lazy proxy defers the lookup to first use.
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /** Named like Spring Boot's own indicator so it takes its place. */
+    @Bean
+    public HealthIndicator dbHealthIndicator(DataSourceProperties properties, JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager) {
+        return new SqliteHealthIndicator(properties.determineUrl(), jdbcTemplate, transactionManager);
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, String name, int size) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(properties.determineUrl());
+        config.setDriverClassName(properties.determineDriverClassName());
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(1);
+        config.setDataSourceProperties(pragmas());
+        return new HikariDataSource(config);
+    }
+
+    private Properties pragmas() {
+        Properties pragmas = new Properties();
+        pragmas.setProperty("journal_mode", "WAL");
+        pragmas.setProperty("synchronous", synchronous);
+        pragmas.setProperty("cache_size", String.valueOf(cacheSize));
+        pragmas.setProperty("mmap_size", String.valueOf(mmapSize));
+        pragmas.setProperty("temp_store", tempStore);
+        pragmas.setProperty("busy_timeout", String.valueOf(busyTimeout));
+        pragmas.setProperty("foreign_keys", "true");
+        return pragmas;
+    }
+}
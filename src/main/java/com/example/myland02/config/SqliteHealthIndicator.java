@@ -0,0 +1,77 @@
+package com.example.myland02.config;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Health of the SQLite database: the file and its directory are writable
+ * (SQLite creates the -wal and -shm files next to the database) and a query
+ * round-trips on a connection.
+ *
+ * The query runs read-only, so it uses a reader connection: a long write
+ * would otherwise hold up the health check. Writer contention shows in the
+ * sqlite-writer pool metrics instead.
+ */
+class SqliteHealthIndicator extends AbstractHealthIndicator {
+
+    /** Null for an in-memory database. */
+    private final Path file;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+
+    SqliteHealthIndicator(String url, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        super("SQLite health check failed");
+        this.file = databaseFile(url);
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout(5);
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.withDetail("database", "SQLite");
+        boolean writable = true;
+        if (file != null) {
+            Path directory = file.toAbsolutePath().getParent();
+            writable = Files.isWritable(file) && (directory == null || Files.isWritable(directory));
+            builder.withDetail("file", file.toString()).withDetail("writable", writable);
+        }
+
+        long started = System.nanoTime();
+        String journalMode = readOnly.execute(status -> jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class));
+        builder.withDetail("journalMode", journalMode)
+                .withDetail("roundTripMillis", (System.nanoTime() - started) / 1_000_000);
+
+        if (writable) {
+            builder.up();
+        } else {
+            builder.down();
+        }
+    }
+
+    private static Path databaseFile(String url) {
+        if (url == null || !url.startsWith("jdbc:sqlite:")) {
+            return null;
+        }
+        String path = url.substring("jdbc:sqlite:".length());
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        }
+        if (path.isEmpty() || path.equals(":memory:")) {
+            return null;
+        }
+        return Paths.get(path);
+    }
+}
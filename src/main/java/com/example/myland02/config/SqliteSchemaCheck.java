@@ -0,0 +1,101 @@
+package com.example.myland02.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.SelectableConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Startup check that the SQLite schema has every table and column the
+ * entities map, read with PRAGMA table_info. Hibernate's own validator
+ * cannot run on SQLite (see application.properties), and a database that
+ * was baselined at V1 was never checked against it, so without this a
+ * drifted file would only fail on the first query that touches the
+ * missing column.
+ *
+ * Runs once all beans exist (after the Flyway migrations) and before the
+ * web server starts; a mismatch stops the application. Columns the
+ * entities do not map are allowed.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.datasource.driver-class-name", havingValue = "org.sqlite.JDBC")
+public class SqliteSchemaCheck implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SqliteSchemaCheck.class);
+
+    private static final String COLUMNS_SQL = "SELECT name FROM pragma_table_info(?)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, Set<String>> mapped = mappedColumns();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<String> problems = readOnly.execute(status -> {
+            List<String> found = new ArrayList<>();
+            mapped.forEach((table, columns) -> {
+                Set<String> actual = new HashSet<>();
+                for (String column : jdbcTemplate.queryForList(COLUMNS_SQL, String.class, table)) {
+                    actual.add(column.toLowerCase(Locale.ROOT));
+                }
+                if (actual.isEmpty()) {
+                    found.add("missing table " + table);
+                    return;
+                }
+                for (String column : columns) {
+                    if (!actual.contains(column)) {
+                        found.add("missing column " + table + "." + column);
+                    }
+                }
+            });
+            return found;
+        });
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("SQLite schema does not match the entity mappings: "
+                    + String.join(", ", problems));
+        }
+        log.info("SQLite schema matches the entity mappings ({} tables)", mapped.size());
+    }
+
+    /** table -> columns, lower case, of every mapped entity and its collections */
+    private Map<String, Set<String>> mappedColumns() {
+        Map<String, Set<String>> mapped = new TreeMap<>();
+        SelectableConsumer collect = (index, selectable) -> {
+            if (!selectable.isFormula()) {
+                mapped.computeIfAbsent(selectable.getContainingTableExpression().toLowerCase(Locale.ROOT),
+                        table -> new TreeSet<>()).add(selectable.getSelectionExpression().toLowerCase(Locale.ROOT));
+            }
+        };
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(entity -> {
+                    entity.getIdentifierMapping().forEachSelectable(collect);
+                    entity.forEachSelectable(collect);
+                });
+        return mapped;
+    }
+}
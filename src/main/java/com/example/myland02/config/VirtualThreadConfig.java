@@ -0,0 +1,67 @@
+package com.example.myland02.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs HTTP requests and {@code @Async} methods on virtual threads
+ * (myland.threads.virtual=true, the default).
+ *
+ * Most requests spend their time waiting for one of the few SQLite
+ * connections. On a virtual thread that wait parks the thread instead of
+ * holding one of Tomcat's 200 platform threads, so a room full of tablets
+ * queues for the database (see {@link ConnectionPermits}) rather than for a
+ * request thread. Spring Boot 3.1 has no spring.threads.virtual.enabled
+ * switch yet, hence the executors are set here.
+ *
+ * The SQLite driver's native calls are synchronized, which pins the carrier
+ * thread for as long as a statement runs. The scheduler therefore gets at
+ * least one carrier per connection (readers and the writer) plus one for
+ * everything else, even on a machine with fewer cores; an explicit
+ * -Djdk.virtualThreadScheduler.parallelism is left alone.
+ *
+ * With myland.threads.virtual=false Tomcat's own thread pool
+ * (server.tomcat.threads.*) and Boot's task executor are used again.
+ */
+@Configuration
+@ConditionalOnProperty(name = "myland.threads.virtual", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadConfig {
+
+    private static final String PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    @Value("${myland.sqlite.reader-pool-size:4}")
+    private int readerPoolSize;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequests() {
+        ensureCarriers();
+        return handler -> handler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory()));
+    }
+
+    /** Used by {@code @Async} methods and Spring MVC's async request handling. */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        ensureCarriers();
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-", 0).factory()));
+    }
+
+    /** Read by the JDK when the first virtual thread starts; later changes have no effect. */
+    private void ensureCarriers() {
+        int carriers = Math.max(Runtime.getRuntime().availableProcessors(), readerPoolSize + 2);
+        if (System.getProperty(PARALLELISM) == null) {
+            System.setProperty(PARALLELISM, String.valueOf(carriers));
+        }
+    }
+}
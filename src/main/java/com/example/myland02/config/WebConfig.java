@@ -0,0 +1,20 @@
+package com.example.myland02.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // API responses may be stored but must be revalidated; the list
+        // endpoints answer with 304 when their ETag still matches
+        WebContentInterceptor apiCaching = new WebContentInterceptor();
+        apiCaching.addCacheMapping(CacheControl.noCache(), "/api/**");
+        registry.addInterceptor(apiCaching).addPathPatterns("/api/**");
+    }
+}
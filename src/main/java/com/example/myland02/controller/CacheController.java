@@ -0,0 +1,49 @@
+package com.example.myland02.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/myland/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Hit/miss counters per master data cache since startup.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator) {
+                cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+            }
+            if (!(cache instanceof CaffeineCache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            result.put(name, entry);
+        }
+        return ResponseEntity.ok(result);
+    }
+}
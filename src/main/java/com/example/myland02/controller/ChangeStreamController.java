@@ -0,0 +1,29 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.service.ChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent events for the list screens; see {@link ChangeStream}.
+ *
+ * EventSource resends the id of the last event it received as Last-Event-ID
+ * when it reconnects. A page that was just opened passes the last id seen
+ * by the previous page as {@code after} instead.
+ */
+@RestController
+@RequestMapping("/api/myland")
+@CrossOrigin(origins = "*")
+public class ChangeStreamController {
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                              @RequestParam(required = false) String after) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
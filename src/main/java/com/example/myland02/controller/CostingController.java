@@ -0,0 +1,85 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.dto.ProductCost;
+import com.example.myland02.dto.RecipeLine;
+import com.example.myland02.service.ProductCosting;
+import com.example.myland02.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Product recipes and the unit costs derived from them; see
+ * {@link ProductCosting}. Ingredient price lists are posted to
+ * PUT /ingredients/prices.
+ */
+@RestController
+@RequestMapping("/api/myland")
+@CrossOrigin(origins = "*")
+public class CostingController {
+
+    private static final Logger log = LoggerFactory.getLogger(CostingController.class);
+
+    @Autowired
+    private ProductCosting costing;
+
+    @Autowired
+    private ProductService productService;
+
+    /** Derived unit cost of every product that has a recipe. */
+    @GetMapping("/costing")
+    public ResponseEntity<?> getCosts() {
+        return ResponseEntity.ok(costing.costs());
+    }
+
+    @GetMapping("/costing/{productId}")
+    public ResponseEntity<?> getCost(@PathVariable Long productId) {
+        ProductCost cost = costing.cost(productId);
+        return cost != null ? ResponseEntity.ok(cost) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Reload recipes and prices from the database and recost every product,
+     * e.g. after editing them outside the application.
+     */
+    @PostMapping("/costing/recompute")
+    public ResponseEntity<?> recompute() {
+        try {
+            int updated = costing.recomputeAll();
+            return ResponseEntity.ok(java.util.Map.of("products", costing.costs().size(), "updated", updated));
+        } catch (Exception e) {
+            log.error("Error recomputing product costs", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error recomputing product costs: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/product/{id}/recipe")
+    public ResponseEntity<?> getRecipe(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getRecipe(id));
+    }
+
+    /**
+     * Replace the product's recipe; returns its new cost (204 when the recipe
+     * was removed). A product with a complete recipe is costed from it.
+     */
+    @PutMapping("/product/{id}/recipe")
+    public ResponseEntity<?> saveRecipe(@PathVariable Long id, @RequestBody List<RecipeLine> lines) {
+        try {
+            ProductCost cost = productService.saveRecipe(id, lines);
+            log.info("Recipe saved productId={} lines={}", id, lines.size());
+            return cost != null ? ResponseEntity.ok(cost) : ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error saving recipe for product {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error saving recipe: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/myland/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(@RequestParam(defaultValue = "7") int days,
+                                        @RequestParam(defaultValue = "5") int recent) {
+        try {
+            int chartDays = Math.max(1, Math.min(days, 366));
+            int recentCount = Math.max(1, Math.min(recent, 100));
+            return ResponseEntity.ok(dashboardService.getSummary(chartDays, recentCount));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error loading dashboard: " + e.getMessage()));
+        }
+    }
+}
@@ -1,18 +1,46 @@
 package com.example.myland02.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Startup probe polled by the Electron shell. Reports the Actuator health
+ * (database file writable, query round-trip, disk space); the details are
+ * at /actuator/health. The first healthy answer logs the time since JVM
+ * start, i.e. how long the launcher's splash screen was shown.
+ */
 @RestController
 public class HealthController {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(HealthController.class);
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    private final AtomicBoolean reportedStartup = new AtomicBoolean();
+
     @GetMapping("/health")
-    public Map<String, String> health() {
+    public ResponseEntity<Map<String, String>> health() {
+        HealthComponent health = healthEndpoint.health();
         Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", health.getStatus().getCode());
         response.put("application", "Myland Food Management");
-        return response;
+        HttpStatus status = Status.UP.equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        if (status == HttpStatus.OK && reportedStartup.compareAndSet(false, true)) {
+            log.info("Healthy {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+        return ResponseEntity.status(status).body(response);
     }
 }
@@ -1,72 +1,106 @@
 package com.example.myland02.controller;
 
 import com.example.myland02.model.Ingredient;
-import com.example.myland02.repository.IngredientRepository;
+import com.example.myland02.service.IngredientService;
+import com.example.myland02.service.TableVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/myland")
 @CrossOrigin(origins = "*")
 public class IngredientController {
 
+    private static final Logger log = LoggerFactory.getLogger(IngredientController.class);
+
+    @Autowired
+    private IngredientService ingredientService;
+
     @Autowired
-    private IngredientRepository ingredientRepo;
+    private TableVersions tableVersions;
 
     @PostMapping("/ingredient")
     @Transactional
     public ResponseEntity<?> addIngredient(@RequestBody Ingredient ingredient) {
         try {
-            System.out.println("DEBUG: IngredientController: Received request");
-            System.out.println("DEBUG: Name: " + ingredient.getName());
-            System.out.println("DEBUG: Type: " + ingredient.getType());
-            System.out.println("DEBUG: Quantity: " + ingredient.getQuantity());
-            System.out.println("DEBUG: Price: " + ingredient.getPricePerUnit());
+            log.debug("Saving ingredient name={} type={} quantity={} price={}", ingredient.getName(),
+                    ingredient.getType(), ingredient.getQuantity(), ingredient.getPricePerUnit());
 
             if (ingredient.getType() == null || ingredient.getType().isEmpty()) {
-                System.err.println("✗ Error: Ingredient type is missing");
+                log.warn("Rejected ingredient without a type: {}", ingredient.getName());
                 return ResponseEntity.badRequest().body("Ingredient type is required");
             }
 
-            Ingredient saved = ingredientRepo.save(ingredient);
-            System.out.println("✓ Ingredient saved with ID: " + saved.getId());
+            Ingredient saved = ingredientService.saveIngredient(ingredient);
+            log.info("Ingredient saved id={}", saved.getId());
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
-            System.err.println("✗ Error processing ingredient: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error saving ingredient {}", ingredient.getName(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error saving ingredient: " + e.getMessage());
         }
     }
 
     @GetMapping("/ingredients")
-    public ResponseEntity<?> getIngredients() {
+    public ResponseEntity<?> getIngredients(WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TableVersions.Table.INGREDIENTS))) {
+            return null;
+        }
         try {
-            System.out.println("DEBUG: Fetching all ingredients");
-            List<Ingredient> ingredients = ingredientRepo.findAll();
-            System.out.println("DEBUG: Found " + ingredients.size() + " ingredients");
+            List<Ingredient> ingredients = ingredientService.getAllIngredients();
+            log.debug("Found {} ingredients", ingredients.size());
             return ResponseEntity.ok(ingredients);
         } catch (Exception e) {
-            System.err.println("✗ Error fetching ingredients: " + e.getMessage());
+            log.error("Error fetching ingredients", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching ingredients: " + e.getMessage());
         }
     }
 
+    @GetMapping("/ingredient/{id}")
+    public ResponseEntity<?> getIngredient(@PathVariable Long id) {
+        return ingredientService.getIngredientById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Apply a price list ({"ingredientId": pricePerUnit, ...}) and recost the
+     * products whose recipes use those ingredients.
+     */
+    @PutMapping("/ingredients/prices")
+    public ResponseEntity<?> updatePrices(@RequestBody Map<Long, Double> prices) {
+        try {
+            int products = ingredientService.updatePrices(prices);
+            log.info("Price list applied: {} ingredients, {} product costs changed", prices.size(), products);
+            return ResponseEntity.ok(Map.of("ingredients", prices.size(), "productsRecosted", products));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error applying price list", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error applying price list: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/ingredient/{id}")
     @Transactional
     public ResponseEntity<?> deleteIngredient(@PathVariable Long id) {
         try {
-            System.out.println("DEBUG: Deleting ingredient " + id);
-            ingredientRepo.deleteById(id);
+            log.info("Deleting ingredient id={}", id);
+            ingredientService.deleteIngredient(id);
             return ResponseEntity.ok("Deleted");
         } catch (Exception e) {
-            System.err.println("✗ Error deleting ingredient: " + e.getMessage());
+            log.error("Error deleting ingredient id={}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error deleting ingredient: " + e.getMessage());
         }
@@ -0,0 +1,114 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.dto.IngredientUsage;
+import com.example.myland02.repository.ProductionIngredientRepository;
+import com.example.myland02.service.InventoryJournal;
+import com.example.myland02.service.ProductStockService;
+import com.example.myland02.service.TableVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/myland/inventory")
+@CrossOrigin(origins = "*")
+public class InventoryController {
+
+    @Autowired
+    private InventoryJournal journal;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private ProductionIngredientRepository productionIngredientRepo;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    /**
+     * Units produced, sold and in storage per product.
+     */
+    @GetMapping("/products")
+    public ResponseEntity<?> getProductStock(WebRequest webRequest) {
+        String etag = tableVersions.etag(TableVersions.Table.PRODUCTS, TableVersions.Table.PRODUCTION,
+                TableVersions.Table.SALES);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(productStockService.list());
+    }
+
+    /**
+     * Recompute product stock from the production and sales tables and list
+     * the products that differ; {@code repair=true} also fixes them.
+     */
+    @PostMapping("/products/check")
+    public ResponseEntity<?> checkProductStock(@RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("repaired", repair);
+            result.put("drift", productStockService.check(repair));
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error checking product stock: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Total quantity of each ingredient used by production.
+     */
+    @GetMapping("/ingredients/usage")
+    public ResponseEntity<?> getIngredientUsage(WebRequest webRequest) {
+        String etag = tableVersions.etag(TableVersions.Table.PRODUCTION, TableVersions.Table.INGREDIENTS);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<IngredientUsage> usage = productionIngredientRepo.usedByIngredient();
+        return ResponseEntity.ok(usage);
+    }
+
+    /**
+     * Journal entries, newest first, optionally for one ingredient or one production run.
+     */
+    @GetMapping("/movements")
+    public ResponseEntity<?> getMovements(@RequestParam(required = false) Long ingredientId,
+                                          @RequestParam(required = false) Long productionId,
+                                          @RequestParam(required = false) Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MylandController.MAX_PAGE_SIZE)) : 100;
+        return ResponseEntity.ok(journal.movements(ingredientId, productionId, pageSize));
+    }
+
+    /**
+     * Stock of one ingredient now, or at {@code at} (ISO date-time).
+     */
+    @GetMapping("/stock")
+    public ResponseEntity<?> getStock(@RequestParam Long ingredientId,
+                                      @RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ingredientId", ingredientId);
+        result.put("at", at != null ? at.toString() : null);
+        result.put("quantity", journal.stockAt(ingredientId, at));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/snapshot")
+    public ResponseEntity<?> snapshot() {
+        try {
+            return ResponseEntity.ok(java.util.Map.of("snapshots", journal.snapshot()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error taking snapshot: " + e.getMessage()));
+        }
+    }
+}
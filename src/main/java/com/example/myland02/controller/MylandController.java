@@ -4,18 +4,41 @@ import com.example.myland02.model.*;
 import com.example.myland02.repository.*;
 import com.example.myland02.dto.ProductionRequest;
 import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.SaleRow;
+import com.example.myland02.service.ProductService;
+import com.example.myland02.service.ProductStockService;
+import com.example.myland02.service.SaleImportService;
+import com.example.myland02.service.SaleService;
+import com.example.myland02.service.SalesRollupService;
+import com.example.myland02.service.ShopService;
+import com.example.myland02.service.TableVersions;
+import com.example.myland02.service.WriteQueue;
+import jakarta.servlet.http.HttpServletRequest;
+import com.example.myland02.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/myland") // Changed from "/api" to "/api/myland"
 public class MylandController {
-    @Autowired
-    private ProductRepository productRepo;
+
+    private static final Logger log = LoggerFactory.getLogger(MylandController.class);
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private IngredientRepository ingredientRepo;
     @Autowired
@@ -25,28 +48,45 @@ public class MylandController {
     @Autowired
     private ProductionIngredientRepository productionIngredientRepo;
     @Autowired
-    private ShopRepository shopRepo;
+    private SalesRollupService rollupService;
+    @Autowired
+    private SaleImportService saleImportService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ShopService shopService;
+    @Autowired
+    private TableVersions tableVersions;
+    @Autowired
+    private ProductStockService productStock;
+    @Autowired
+    private SaleService saleService;
+    @Autowired
+    private WriteQueue writeQueue;
 
     // Product endpoints
     @PostMapping("/product")
     @Transactional
     public ResponseEntity<?> addProduct(@RequestBody Product product) {
         try {
-            System.out.println("Saving product: " + product.getName());
-            Product saved = productRepo.save(product);
-            System.out.println("✓ Product saved with ID: " + saved.getId());
+            log.debug("Saving product name={}", product.getName());
+            Product saved = productService.saveProduct(product);
+            log.info("Product saved id={}", saved.getId());
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
-            System.err.println("✗ Error: " + e.getMessage());
+            log.error("Error saving product {}", product.getName(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of("error", "Error saving product: " + e.getMessage()));
         }
     }
 
     @GetMapping("/products")
-    public ResponseEntity<?> getProducts() {
+    public ResponseEntity<?> getProducts(WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TableVersions.Table.PRODUCTS))) {
+            return null;
+        }
         try {
-            return ResponseEntity.ok(productRepo.findAll());
+            return ResponseEntity.ok(productService.getAllProducts());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of("error", "Error loading products: " + e.getMessage()));
@@ -57,7 +97,7 @@ public class MylandController {
     @Transactional
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
-            productRepo.deleteById(id);
+            productService.deleteProduct(id);
             return ResponseEntity.ok("Deleted");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -74,29 +114,31 @@ public class MylandController {
     @Transactional
     public ResponseEntity<?> addShop(@RequestBody Shop shop) {
         try {
-            System.out.println("DEBUG: Received shop save request");
-            System.out.println("DEBUG: ID: " + shop.getId());
-            System.out.println("DEBUG: Name: " + shop.getName());
+            log.debug("Saving shop id={} name={}", shop.getId(), shop.getName());
 
-            Shop saved = shopRepo.save(shop);
-            System.out.println("✓ Shop saved with ID: " + saved.getId());
+            Shop saved = shopService.saveShop(shop);
+            log.info("Shop saved id={}", saved.getId());
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
+            log.error("Error saving shop {}", shop.getName(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of("error", "Error saving shop: " + e.getMessage()));
         }
     }
 
     @GetMapping("/shops")
-    public ResponseEntity<?> getShops() {
-        return ResponseEntity.ok(shopRepo.findAll());
+    public ResponseEntity<?> getShops(WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TableVersions.Table.SHOPS))) {
+            return null;
+        }
+        return ResponseEntity.ok(shopService.getAllShops());
     }
 
     @DeleteMapping("/shop/{id}")
     @Transactional
     public ResponseEntity<?> deleteShop(@PathVariable Long id) {
         try {
-            shopRepo.deleteById(id);
+            shopService.deleteShop(id);
             return ResponseEntity.ok("Deleted");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -109,59 +151,138 @@ public class MylandController {
 
     // Sale endpoints
     @PostMapping("/sale")
-    @Transactional
-    public ResponseEntity<?> recordSale(@RequestBody Sale sale) {
+    public ResponseEntity<?> recordSale(@RequestBody Sale sale,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String clientRef) {
         try {
             // Fetch validation and price data from Product
             if (sale.getProduct() == null || sale.getProduct().getId() == null) {
                 return ResponseEntity.badRequest().body(java.util.Map.of("error", "Product ID is required"));
             }
 
-            Product product = productRepo.findById(sale.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-
-            // Set the full product reference (good practice)
-            sale.setProduct(product);
-
-            // Calculate Income and Profit
-            // Net Units = Sold - Returned
-            int soldUnits = sale.getSoldUnits() != null ? sale.getSoldUnits() : 0;
-            int returnedUnits = sale.getReturnedUnits() != null ? sale.getReturnedUnits() : 0;
-            int netUnits = soldUnits - returnedUnits;
-
-            if (netUnits < 0)
-                netUnits = 0; // preventative
-
-            Double sellingPrice = sale.getSellingPrice() != null ? sale.getSellingPrice() : 0.0;
-            Double productCost = product.getProductCost() != null ? product.getProductCost() : 0.0;
-
-            double totalIncome = netUnits * sellingPrice;
-            double totalProfit = netUnits * (sellingPrice - productCost);
-
-            sale.setTotalIncome(totalIncome);
-            sale.setTotalProfit(totalProfit);
-
-            Sale saved = saleRepo.save(sale);
+            // A repeated Idempotency-Key is answered with the first sale (SaleService). The write runs again
+            // if its batch is rolled back, so every run starts from the id the client sent.
+            Long id = sale.getId();
+            Sale saved = writeQueue.execute(() -> {
+                sale.setId(id);
+                return saleService.record(sale, clientRef);
+            });
             return ResponseEntity.ok(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Sale refused, write queue full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(java.util.Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace(); // Log the error for debugging
+            log.error("Error recording sale", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of("error", "Error recording sale: " + e.getMessage()));
         }
     }
 
+    /**
+     * List sales. Without parameters the full table is returned as before.
+     * With any of limit/after/from/to/productId/shopId the result is ordered
+     * newest first and filtered; pass the X-Next-Cursor header back as
+     * {@code after} to fetch the next page. X-Total-Count is the number of
+     * rows matching the filters. {@code view=flat} returns {@link SaleRow}s
+     * instead of nested entities.
+     */
     @GetMapping("/sales")
-    public ResponseEntity<?> getSales() {
-        return ResponseEntity.ok(saleRepo.findAll());
+    public ResponseEntity<?> getSales(@RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) Long productId,
+                                      @RequestParam(required = false) Long shopId,
+                                      @RequestParam(required = false) String view,
+                                      WebRequest webRequest) {
+        // Rows embed product and shop details, so those tables are part of the version
+        String etag = tableVersions.etag(TableVersions.Table.SALES, TableVersions.Table.PRODUCTS, TableVersions.Table.SHOPS);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        boolean flat = "flat".equalsIgnoreCase(view);
+        if (!flat && limit == null && after == null && from == null && to == null && productId == null && shopId == null) {
+            List<Sale> all = saleRepo.findAllWithDetails();
+            return ResponseEntity.ok().header(TOTAL_COUNT_HEADER, String.valueOf(all.size())).body(all);
+        }
+        KeysetCursor cursor;
+        try {
+            cursor = KeysetCursor.parse(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : MAX_PAGE_SIZE;
+        LocalDate afterDate = cursor != null ? cursor.getDate() : null;
+        Long afterId = cursor != null ? cursor.getId() : null;
+        long total = saleRepo.countFiltered(from, to, productId, shopId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(TOTAL_COUNT_HEADER, String.valueOf(total));
+
+        if (flat) {
+            List<SaleRow> rows = saleRepo.findRows(from, to, productId, shopId, afterDate, afterId,
+                    PageRequest.of(0, pageSize));
+            if (rows.size() == pageSize) {
+                SaleRow last = rows.get(rows.size() - 1);
+                response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getSaleDate(), last.getId()).toString());
+            }
+            return response.body(rows);
+        }
+
+        List<Sale> page = saleRepo.findPage(from, to, productId, shopId, afterDate, afterId,
+                PageRequest.of(0, pageSize));
+        if (page.size() == pageSize) {
+            Sale last = page.get(page.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getSaleDate(), last.getId()).toString());
+        }
+        return response.body(page);
+    }
+
+    /** One sale, e.g. for a client patching its list after a change event. */
+    @GetMapping("/sale/{id}")
+    public ResponseEntity<?> getSale(@PathVariable Long id) {
+        return saleRepo.findById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Bulk-import sales from a CSV or JSON-lines upload (raw request body).
+     * The format comes from the {@code format} parameter (csv|jsonl) or the
+     * Content-Type; see {@link SaleImportService} for the accepted columns.
+     */
+    @PostMapping("/sales/import")
+    public ResponseEntity<?> importSales(HttpServletRequest request,
+                                         @RequestParam(required = false) String format) {
+        try {
+            String type = format != null ? format : String.valueOf(request.getContentType());
+            SaleImportService.Format importFormat = type.toLowerCase().contains("csv")
+                    ? SaleImportService.Format.CSV
+                    : SaleImportService.Format.JSONL;
+            return ResponseEntity.ok(saleImportService.importSales(request.getInputStream(), importFormat));
+        } catch (IllegalArgumentException e) {
+            // An unreadable CSV header; bad rows are reported in the result instead
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error importing sales", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error importing sales: " + e.getMessage()));
+        }
     }
 
     @DeleteMapping("/sale/{id}")
     @Transactional
     public ResponseEntity<?> deleteSale(@PathVariable Long id) {
         try {
-            saleRepo.deleteById(id);
+            saleRepo.findById(id).ifPresent(sale -> {
+                rollupService.subtract(sale);
+                productStock.saleRemoved(sale);
+                saleRepo.delete(sale);
+                tableVersions.changed(TableVersions.Table.SALES, TableVersions.Change.DELETE, id);
+            });
             return ResponseEntity.ok("Deleted");
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of("error", "Error deleting sale: " + e.getMessage()));
         }
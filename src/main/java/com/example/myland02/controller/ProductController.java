@@ -2,9 +2,11 @@ package com.example.myland02.controller;
 
 import com.example.myland02.model.Product;
 import com.example.myland02.service.ProductService;
+import com.example.myland02.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,8 +18,14 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     @GetMapping
-    public List<Product> getAllProducts() {
+    public List<Product> getAllProducts(WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TableVersions.Table.PRODUCTS))) {
+            return null;
+        }
         return productService.getAllProducts();
     }
 
@@ -35,13 +43,8 @@ public class ProductController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
-        return productService.getProductById(id)
-                .map(product -> {
-                    product.setName(productDetails.getName());
-                    product.setBasePrice(productDetails.getBasePrice());
-                    product.setProductCost(productDetails.getProductCost());
-                    return ResponseEntity.ok(productService.saveProduct(product));
-                })
+        return productService.updateProduct(id, productDetails)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
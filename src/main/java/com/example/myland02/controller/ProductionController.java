@@ -1,127 +1,221 @@
 package com.example.myland02.controller;
 
-import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionBatchItemResult;
 import com.example.myland02.dto.ProductionRequest;
-import com.example.myland02.model.Ingredient;
-import com.example.myland02.model.Product;
+import com.example.myland02.dto.ProductionRow;
 import com.example.myland02.model.Production;
-import com.example.myland02.model.ProductionIngredient;
-import com.example.myland02.repository.IngredientRepository;
-import com.example.myland02.repository.ProductRepository;
 import com.example.myland02.repository.ProductionRepository;
+import com.example.myland02.service.InventoryService;
+import com.example.myland02.service.ProductStockService;
+import com.example.myland02.service.ProductionBatchService;
+import com.example.myland02.service.ProductionPlanner;
+import com.example.myland02.service.ProductionService;
+import com.example.myland02.service.TableVersions;
+import com.example.myland02.service.WriteQueue;
+import com.example.myland02.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/myland")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {"X-Total-Count", "X-Next-Cursor"})
 public class ProductionController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductionController.class);
+
     @Autowired
     private ProductionRepository prodRepo;
 
     @Autowired
-    private ProductRepository productRepo;
+    private ProductionBatchService batchService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ProductionService productionService;
 
     @Autowired
-    private IngredientRepository ingredientRepo;
+    private WriteQueue writeQueue;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductStockService productStock;
+
+    @Autowired
+    private ProductionPlanner planner;
 
     @PostMapping("/production")
-    @Transactional
     public ResponseEntity<?> recordProduction(@RequestBody ProductionRequest request) {
         try {
-            System.out.println("DEBUG: Received production request");
-            System.out.println("DEBUG: Product ID: " + (request.getProduct() != null ? request.getProduct().getId() : "null"));
-            System.out.println("DEBUG: Date: " + request.getDate());
-            System.out.println("DEBUG: Produced Units: " + request.getProducedUnits());
-            System.out.println("DEBUG: Used Ingredients count: " + (request.getUsedIngredients() != null ? request.getUsedIngredients().size() : 0));
-
-            // Validate product
-            if (request.getProduct() == null || request.getProduct().getId() == null) {
-                System.err.println("ERROR: Product is null or has no ID");
-                return ResponseEntity.badRequest().body("Product is required");
+            if (log.isDebugEnabled()) {
+                log.debug("Recording production productId={} date={} units={} ingredients={}",
+                        request.getProduct() != null ? request.getProduct().getId() : null, request.getDate(),
+                        request.getProducedUnits(), request.getUsedIngredients() != null ? request.getUsedIngredients().size() : 0);
             }
+            // Committed together with other queued writes; a failure here rolled back only this run
+            return ResponseEntity.ok(writeQueue.execute(() -> productionService.record(request)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("Production refused, write queue full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording production", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error recording production: " + e.getMessage());
+        }
+    }
 
-            // Fetch the product from database to ensure it exists
-            Product product = productRepo.findById(request.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + request.getProduct().getId()));
-            
-            System.out.println("DEBUG: Found product: " + product.getName());
-
-            // Create Production entity
-            Production production = new Production();
-            production.setProduct(product);
-            production.setDate(request.getDate());
-            production.setProducedUnits(request.getProducedUnits());
-            production.setUsedIngredients(new ArrayList<>());
-
-            // Process ingredients
-            if (request.getUsedIngredients() != null) {
-                for (ProductionIngredientRequest ingReq : request.getUsedIngredients()) {
-                    System.out.println("DEBUG: Processing ingredient ID: " + ingReq.getIngredientId() + ", Quantity: " + ingReq.getQuantityUsed());
-                    
-                    Ingredient ingredient = ingredientRepo.findById(ingReq.getIngredientId())
-                            .orElseThrow(
-                                    () -> new RuntimeException("Ingredient not found: " + ingReq.getIngredientId()));
-
-                    // Check stock
-                    if (ingredient.getQuantity() < ingReq.getQuantityUsed()) {
-                        System.err.println("ERROR: Insufficient stock for " + ingredient.getName());
-                        return ResponseEntity.badRequest()
-                                .body("Insufficient stock for ingredient: " + ingredient.getName());
-                    }
-
-                    // Deduct stock
-                    ingredient.setQuantity(ingredient.getQuantity() - ingReq.getQuantityUsed());
-                    ingredientRepo.save(ingredient);
-                    System.out.println("DEBUG: Updated stock for " + ingredient.getName() + " to " + ingredient.getQuantity());
-
-                    // Create link
-                    ProductionIngredient pi = new ProductionIngredient();
-                    pi.setProduction(production);
-                    pi.setIngredient(ingredient);
-                    pi.setQuantityUsed(ingReq.getQuantityUsed());
-
-                    production.getUsedIngredients().add(pi);
-                }
+    /**
+     * Record several production runs in one transaction. Returns 200 with one
+     * result per entry, or 400 with the failing entries when any entry is
+     * invalid or the batch needs more stock than is available (nothing is saved).
+     */
+    @PostMapping("/production/batch")
+    public ResponseEntity<?> recordProductionBatch(@RequestBody List<ProductionRequest> requests) {
+        try {
+            if (requests == null || requests.isEmpty()) {
+                return ResponseEntity.badRequest().body("At least one production entry is required");
             }
+            List<ProductionBatchItemResult> results = batchService.recordBatch(requests);
+            boolean success = results.stream().allMatch(ProductionBatchItemResult::isSuccess);
+            return ResponseEntity.status(success ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                    .body(java.util.Map.of("success", success, "results", results));
+        } catch (Exception e) {
+            log.error("Error recording production batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error recording production batch: " + e.getMessage());
+        }
+    }
 
-            System.out.println("DEBUG: Saving production record...");
-            Production saved = prodRepo.save(production);
-            System.out.println("✓ Production saved with ID: " + saved.getId());
-            return ResponseEntity.ok(saved);
-
+    /**
+     * Ingredient demand of a production plan (product id and units per
+     * entry) against current stock: what is short and how many units of
+     * each product the stock allows. Nothing is reserved.
+     */
+    @PostMapping("/production/plan")
+    public ResponseEntity<?> planProduction(@RequestBody List<ProductUnits> targets) {
+        try {
+            return ResponseEntity.ok(planner.plan(targets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            System.err.println("✗ Error recording production: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error planning production", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error recording production: " + e.getMessage());
+                    .body("Error planning production: " + e.getMessage());
         }
     }
 
+    /**
+     * List production records. Paging, filter and view parameters behave like
+     * {@link MylandController#getSales}.
+     */
     @GetMapping("/production")
-    public ResponseEntity<?> getProduction() {
+    public ResponseEntity<?> getProduction(@RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Long productId,
+                                           @RequestParam(required = false) String view,
+                                           WebRequest webRequest) {
+        // Rows embed product and ingredient details, so those tables are part of the version
+        String etag = tableVersions.etag(TableVersions.Table.PRODUCTION, TableVersions.Table.PRODUCTS,
+                TableVersions.Table.INGREDIENTS);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            return ResponseEntity.ok(prodRepo.findAll());
+            boolean flat = "flat".equalsIgnoreCase(view);
+            if (!flat && limit == null && after == null && from == null && to == null && productId == null) {
+                List<Production> all = prodRepo.findAllWithDetails();
+                return ResponseEntity.ok()
+                        .header(MylandController.TOTAL_COUNT_HEADER, String.valueOf(all.size()))
+                        .body(all);
+            }
+            KeysetCursor cursor;
+            try {
+                cursor = KeysetCursor.parse(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+            int pageSize = limit != null
+                    ? Math.max(1, Math.min(limit, MylandController.MAX_PAGE_SIZE))
+                    : MylandController.MAX_PAGE_SIZE;
+            LocalDate afterDate = cursor != null ? cursor.getDate() : null;
+            Long afterId = cursor != null ? cursor.getId() : null;
+            long total = prodRepo.countFiltered(from, to, productId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .header(MylandController.TOTAL_COUNT_HEADER, String.valueOf(total));
+
+            if (flat) {
+                List<ProductionRow> rows = prodRepo.findRows(from, to, productId, afterDate, afterId,
+                        PageRequest.of(0, pageSize));
+                if (rows.size() == pageSize) {
+                    ProductionRow last = rows.get(rows.size() - 1);
+                    response.header(MylandController.NEXT_CURSOR_HEADER,
+                            new KeysetCursor(last.getDate(), last.getId()).toString());
+                }
+                return response.body(rows);
+            }
+
+            List<Long> ids = prodRepo.findPageIds(from, to, productId, afterDate, afterId,
+                    PageRequest.of(0, pageSize));
+            List<Production> page = ids.isEmpty() ? new ArrayList<>() : prodRepo.findAllWithDetailsByIdIn(ids);
+            if (ids.size() == pageSize) {
+                Production last = page.get(page.size() - 1);
+                response.header(MylandController.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(last.getDate(), last.getId()).toString());
+            }
+            return response.body(page);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + e.getMessage());
         }
     }
 
+    /** One production run with its ingredient lines. */
+    @GetMapping("/production/{id}")
+    public ResponseEntity<?> getProduction(@PathVariable Long id) {
+        List<Production> found = prodRepo.findAllWithDetailsByIdIn(Collections.singletonList(id));
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(found.get(0));
+    }
+
     @DeleteMapping("/production/{id}")
     @Transactional
     public ResponseEntity<?> deleteProduction(@PathVariable Long id) {
         try {
-            // Optional: Logic to restore ingredient stock could go here
-            prodRepo.deleteById(id);
+            Production production = prodRepo.findById(id).orElse(null);
+            if (production != null) {
+                // Give the ingredients back and journal the compensating entries
+                inventoryService.restoreIngredientQuantities(production);
+                productStock.productionRemoved(production);
+                prodRepo.delete(production);
+                tableVersions.changed(TableVersions.Table.PRODUCTION, TableVersions.Change.DELETE, id);
+            }
             return ResponseEntity.ok("Deleted");
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + e.getMessage());
         }
     }
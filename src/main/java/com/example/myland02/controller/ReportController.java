@@ -0,0 +1,155 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import com.example.myland02.repository.SaleRepository;
+import com.example.myland02.service.ReportRenderService;
+import com.example.myland02.service.SalesRollupService;
+import com.example.myland02.service.ShopService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/myland/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Autowired
+    private ReportRenderService renderService;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/monthly")
+    public ResponseEntity<?> getMonthlyReport(@RequestParam String month) {
+        try {
+            return ResponseEntity.ok(rollupService.monthlyReport(YearMonth.parse(month)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Month must be yyyy-MM"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error building monthly report: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<?> getDailyReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(rollupService.dailyReport(date));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error building daily report: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/shop-history")
+    public ResponseEntity<?> getShopHistory(@RequestParam Long shopId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusYears(1);
+            return ResponseEntity.ok(rollupService.shopHistoryReport(shopId, start, end));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error building shop history: " + e.getMessage()));
+        }
+    }
+
+    // Printable HTML versions of the reports above. Parameters are checked
+    // before anything is written; the page itself is streamed (the return type
+    // must name StreamingResponseBody for Spring MVC to stream it).
+
+    @GetMapping("/monthly/print")
+    public ResponseEntity<StreamingResponseBody> printMonthlyReport(@RequestParam String month) {
+        YearMonth reportMonth;
+        try {
+            reportMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return error(HttpStatus.BAD_REQUEST, "Month must be yyyy-MM");
+        }
+        return html(out -> renderService.monthly(reportMonth, out));
+    }
+
+    @GetMapping("/daily/print")
+    public ResponseEntity<StreamingResponseBody> printDailyReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return html(out -> renderService.daily(date, out));
+    }
+
+    @GetMapping("/shop-history/print")
+    public ResponseEntity<StreamingResponseBody> printShopHistory(@RequestParam Long shopId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Shop shop = shopService.getShopById(shopId).orElse(null);
+        if (shop == null) {
+            return error(HttpStatus.NOT_FOUND, "Shop not found");
+        }
+        return html(out -> renderService.shopHistory(shop, from, to, out));
+    }
+
+    @GetMapping("/sales/{id}/bill")
+    public ResponseEntity<StreamingResponseBody> printSaleBill(@PathVariable Long id) {
+        Sale sale = saleRepository.findById(id).orElse(null);
+        if (sale == null) {
+            return error(HttpStatus.NOT_FOUND, "Sale not found");
+        }
+        return html(out -> renderService.saleBill(sale, out));
+    }
+
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<?> rebuildRollup() {
+        try {
+            int rows = rollupService.rebuild();
+            return ResponseEntity.ok(java.util.Map.of("rows", rows));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error rebuilding rollup: " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> html(HtmlBody body) {
+        StreamingResponseBody stream = response -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(response, StandardCharsets.UTF_8));
+            body.writeTo(out);
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(stream);
+    }
+
+    // Same {"error": ...} body as the JSON endpoints
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response -> objectMapper.writeValue(response, java.util.Map.of("error", message)));
+    }
+
+    private interface HtmlBody {
+        void writeTo(Writer out) throws IOException;
+    }
+}
@@ -2,9 +2,11 @@ package com.example.myland02.controller;
 
 import com.example.myland02.model.Shop;
 import com.example.myland02.service.ShopService;
+import com.example.myland02.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,8 +18,14 @@ public class ShopController {
     @Autowired
     private ShopService shopService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     @GetMapping
-    public List<Shop> getAllShops() {
+    public List<Shop> getAllShops(WebRequest webRequest) {
+        if (webRequest.checkNotModified(tableVersions.etag(TableVersions.Table.SHOPS))) {
+            return null;
+        }
         return shopService.getAllShops();
     }
 
@@ -35,14 +43,8 @@ public class ShopController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Shop> updateShop(@PathVariable Long id, @RequestBody Shop shopDetails) {
-        return shopService.getShopById(id)
-                .map(shop -> {
-                    shop.setName(shopDetails.getName());
-                    shop.setAddress(shopDetails.getAddress());
-                    shop.setContactNumber(shopDetails.getContactNumber());
-                    shop.setEmail(shopDetails.getEmail());
-                    return ResponseEntity.ok(shopService.saveShop(shop));
-                })
+        return shopService.updateShop(id, shopDetails)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -0,0 +1,69 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.dto.SaleUpload;
+import com.example.myland02.service.SyncService;
+import com.example.myland02.service.TableVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Delta sync for offline-capable clients; see {@link SyncService}.
+ *
+ * GET /sync?since=&lt;version&gt;[&amp;tables=sales,production] returns what changed
+ * after that version (all tables by default). POST /sync/sales uploads sales
+ * recorded offline, each with a client reference.
+ */
+@RestController
+@RequestMapping("/api/myland/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncController.class);
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<?> changes(@RequestParam(defaultValue = "0") long since,
+                                     @RequestParam(required = false) List<String> tables) {
+        List<TableVersions.Table> selected = new ArrayList<>();
+        if (tables == null || tables.isEmpty()) {
+            selected.addAll(Arrays.asList(TableVersions.Table.values()));
+        } else {
+            for (String name : tables) {
+                try {
+                    selected.add(TableVersions.Table.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(java.util.Map.of("error", "Unknown table: " + name));
+                }
+            }
+        }
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since, selected));
+        } catch (Exception e) {
+            log.error("Error loading changes since {}", since, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error loading changes: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/sales")
+    public ResponseEntity<?> uploadSales(@RequestBody List<SaleUpload> uploads) {
+        try {
+            return ResponseEntity.ok(syncService.uploadSales(uploads));
+        } catch (Exception e) {
+            log.error("Error uploading {} offline sales", uploads.size(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(java.util.Map.of("error", "Error uploading sales: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed change as sent on the change stream (GET /api/myland/changes).
+ * {@code entity} is the list it belongs to (products, shops, ingredients,
+ * production, sales), {@code op} is create, update, delete or reload, and
+ * {@code version} is that list's version after the change (the number in its
+ * ETag). A reload has no id: several rows changed at once and the list has
+ * to be fetched again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    private String entity;
+    private Long id;
+    private String op;
+    private long version;
+}
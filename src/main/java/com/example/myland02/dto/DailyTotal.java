@@ -0,0 +1,16 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTotal {
+    private LocalDate date;
+    private Double income;
+    private Double profit;
+    private Long saleCount;
+}
@@ -0,0 +1,39 @@
+package com.example.myland02.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the dashboard renders, aggregated on the server so the page
+ * no longer downloads the full sales and production tables.
+ */
+@Data
+@NoArgsConstructor
+public class DashboardSummary {
+    private double totalRevenue;
+    private double totalProfit;
+
+    private long productCount;
+    private long ingredientCount;
+    private long productionCount;
+    private long saleCount;
+    private long shopCount;
+
+    private long productsInStorage;
+    private double inventoryValue;
+    private long todaySales;
+
+    private double currentMonthRevenue;
+    private double currentMonthProfit;
+    private double lastMonthRevenue;
+    private double lastMonthProfit;
+
+    // Jan..Dec income for the current year
+    private double[] monthlyIncome = new double[12];
+    // One entry per day for the requested chart period, oldest first
+    private List<DailyTotal> daily = new ArrayList<>();
+    private List<ShopTotal> shopTotals = new ArrayList<>();
+    private List<RecentSale> recentSales = new ArrayList<>();
+}
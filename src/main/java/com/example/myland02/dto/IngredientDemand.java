@@ -0,0 +1,21 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ingredient of a production plan: what the plan needs against what is
+ * in stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngredientDemand {
+    private Long ingredientId;
+    private String name;
+    private double required;
+    private double available;
+    /** How much is missing; 0 when the stock covers the plan. */
+    private double shortage;
+}
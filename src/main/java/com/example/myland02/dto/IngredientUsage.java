@@ -0,0 +1,13 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngredientUsage {
+    private Long ingredientId;
+    private Double used;
+}
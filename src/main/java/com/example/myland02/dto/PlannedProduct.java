@@ -0,0 +1,21 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product of a production plan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedProduct {
+    private Long productId;
+    private long units;
+    private boolean hasRecipe;
+    /** Units the current stock allows when only this product is made; null without a recipe. */
+    private Long maxUnits;
+    /** Ingredient that runs out first. */
+    private Long limitingIngredientId;
+}
@@ -0,0 +1,23 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Unit cost of a product derived from its recipe. Only a complete cost
+ * (every ingredient has a price) is applied to the product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCost {
+    private Long productId;
+    private double unitCost;
+    private int ingredientCount;
+    /** Recipe ingredients without a price (or no longer present). */
+    private List<Long> missingPrices;
+    private boolean complete;
+}
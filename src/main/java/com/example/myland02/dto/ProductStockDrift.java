@@ -0,0 +1,20 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product whose stored stock row differs from the base tables.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockDrift {
+    private Long productId;
+    private String productName;
+    private long storedProduced;
+    private long actualProduced;
+    private long storedSold;
+    private long actualSold;
+}
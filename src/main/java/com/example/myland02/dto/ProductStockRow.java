@@ -0,0 +1,16 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockRow {
+    private Long productId;
+    private String productName;
+    private long producedUnits;
+    private long soldUnits;
+    private long inStorage;
+}
@@ -0,0 +1,26 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a batch production request, by position in the request list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductionBatchItemResult {
+    private int index;
+    private boolean success;
+    private Long productionId;
+    private String error;
+
+    public static ProductionBatchItemResult ok(int index, Long productionId) {
+        return new ProductionBatchItemResult(index, true, productionId, null);
+    }
+
+    public static ProductionBatchItemResult failed(int index, String error) {
+        return new ProductionBatchItemResult(index, false, null, error);
+    }
+}
@@ -2,7 +2,7 @@ package com.example.myland02.dto;
 
 public class ProductionIngredientRequest {
     private Long ingredientId;
-    private double quantityUsed;
+    private Double quantityUsed;
 
     // Default constructor
     public ProductionIngredientRequest() {}
@@ -15,11 +15,11 @@ public class ProductionIngredientRequest {
         this.ingredientId = ingredientId;
     }
 
-    public double getQuantityUsed() {
+    public Double getQuantityUsed() {
         return quantityUsed;
     }
 
-    public void setQuantityUsed(double quantityUsed) {
+    public void setQuantityUsed(Double quantityUsed) {
         this.quantityUsed = quantityUsed;
     }
 }
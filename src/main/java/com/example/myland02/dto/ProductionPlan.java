@@ -0,0 +1,21 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ingredient demand of a list of production targets; nothing is reserved.
+ * Feasible when no ingredient has a shortage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductionPlan {
+    private boolean feasible;
+    private List<PlannedProduct> products;
+    /** Every ingredient the plan uses, by id. */
+    private List<IngredientDemand> ingredients;
+}
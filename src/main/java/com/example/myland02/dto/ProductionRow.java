@@ -0,0 +1,21 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of a production record for list endpoints ({@code view=flat}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductionRow {
+    private Long id;
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private Long productId;
+    private String productName;
+    private int producedUnits;
+}
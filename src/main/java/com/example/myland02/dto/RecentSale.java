@@ -0,0 +1,32 @@
+package com.example.myland02.dto;
+
+import com.example.myland02.model.Sale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentSale {
+    private Long id;
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate saleDate;
+    private String productName;
+    private String shopName;
+    private Integer soldUnits;
+    private Double totalIncome;
+    private Double totalProfit;
+
+    public static RecentSale from(Sale sale) {
+        return new RecentSale(
+                sale.getId(),
+                sale.getSaleDate(),
+                sale.getProduct() != null ? sale.getProduct().getName() : null,
+                sale.getShop() != null ? sale.getShop().getName() : null,
+                sale.getSoldUnits(),
+                sale.getTotalIncome(),
+                sale.getTotalProfit());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ingredient of a product recipe: how much of it goes into one unit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeLine {
+    private Long ingredientId;
+    private Double amountRequired;
+}
@@ -0,0 +1,25 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup totals grouped by one key (a shop or a product id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupTotal {
+    private Long key;
+    private String name;
+    private Long soldUnits;
+    private Long returnedUnits;
+    private Double income;
+    private Double profit;
+    private Long saleCount;
+
+    public RollupTotal(Long key, Long soldUnits, Long returnedUnits, Double income, Double profit, Long saleCount) {
+        this(key, null, soldUnits, returnedUnits, income, profit, saleCount);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk sale import: counts, throughput and row-level errors.
+ */
+@Data
+@NoArgsConstructor
+public class SaleImportReport {
+    private String format;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    // Only the first errors are kept; failed holds the full count
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String error;
+    }
+}
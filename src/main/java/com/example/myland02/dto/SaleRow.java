@@ -0,0 +1,27 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of a sale for list endpoints ({@code view=flat}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleRow {
+    private Long id;
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate saleDate;
+    private Long productId;
+    private String productName;
+    private Long shopId;
+    private String shopName;
+    private Double sellingPrice;
+    private Integer soldUnits;
+    private Integer returnedUnits;
+    private Double totalIncome;
+    private Double totalProfit;
+}
@@ -0,0 +1,17 @@
+package com.example.myland02.dto;
+
+import com.example.myland02.model.Sale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A sale recorded while offline, with the id the device gave it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleUpload {
+    private String clientRef;
+    private Sale sale;
+}
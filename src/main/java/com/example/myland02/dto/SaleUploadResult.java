@@ -0,0 +1,32 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one uploaded sale. {@code duplicate} means the sale had already
+ * been recorded (by an earlier upload) and {@code saleId} is that sale.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleUploadResult {
+    private String clientRef;
+    private boolean success;
+    private boolean duplicate;
+    private Long saleId;
+    private String error;
+
+    public static SaleUploadResult created(String clientRef, Long saleId) {
+        return new SaleUploadResult(clientRef, true, false, saleId, null);
+    }
+
+    public static SaleUploadResult duplicate(String clientRef, Long saleId) {
+        return new SaleUploadResult(clientRef, true, true, saleId, null);
+    }
+
+    public static SaleUploadResult failed(String clientRef, String error) {
+        return new SaleUploadResult(clientRef, false, false, null, error);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.myland02.dto;
+
+import com.example.myland02.model.SalesDailyRollup;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report over a date range read from the daily sales rollup.
+ * {@code groups} holds per-shop (or per-product) totals, {@code days} the
+ * per-day rows when the report asks for them.
+ */
+@Data
+@NoArgsConstructor
+public class SalesReport {
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    private long soldUnits;
+    private long returnedUnits;
+    private double income;
+    private double profit;
+    private long saleCount;
+
+    private List<RollupTotal> groups = new ArrayList<>();
+    private List<SalesDailyRollup> days = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopTotal {
+    private Long shopId;
+    private String shopName;
+    private Double income;
+}
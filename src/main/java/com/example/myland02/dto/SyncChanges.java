@@ -0,0 +1,24 @@
+package com.example.myland02.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answer to /api/myland/sync: rows created or updated and ids deleted since
+ * the client's version, by table name. Pass {@code version} as {@code since}
+ * on the next call. When {@code full} is set, {@code changed} holds every row
+ * and the client replaces its copy instead of merging.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChanges {
+    private long version;
+    private boolean full;
+    private Map<String, List<?>> changed;
+    private Map<String, List<Long>> deleted;
+}
@@ -0,0 +1,56 @@
+package com.example.myland02.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only stock journal. Quantity is signed: receipts
+ * and reversals are positive, consumption is negative, adjustments either.
+ * Rows are never updated or deleted; ingredients.quantity is the current
+ * total and must always equal the sum of an ingredient's movements.
+ */
+@Entity
+@Table(name = "inventory_movements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovement {
+
+    public enum Type { RECEIPT, CONSUMPTION, REVERSAL, ADJUSTMENT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ingredient_id", nullable = false)
+    private Long ingredientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private Type type;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    @Column(name = "production_id")
+    private Long productionId;
+
+    @Column(name = "occurred_at", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime occurredAt;
+
+    @Column
+    private String note;
+
+    public InventoryMovement(Long ingredientId, Type type, Double quantity, Long productionId, String note) {
+        this.ingredientId = ingredientId;
+        this.type = type;
+        this.quantity = quantity;
+        this.productionId = productionId;
+        this.note = note;
+        this.occurredAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.myland02.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Stock of one ingredient folded over its journal up to and including
+ * lastMovementId; asOf is when that movement happened. Point-in-time stock
+ * starts from the latest snapshot and adds only the movements after it.
+ */
+@Entity
+@Table(name = "inventory_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ingredient_id", nullable = false)
+    private Long ingredientId;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    @Column(name = "as_of", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime asOf;
+}
@@ -0,0 +1,29 @@
+package com.example.myland02.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units produced and sold for one product. Maintained by ProductStockService
+ * in the same transaction as every production and sale write, so the storage
+ * page reads one row per product instead of every production and sale.
+ */
+@Entity
+@Table(name = "product_stock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStock {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long producedUnits;
+
+    @Column(nullable = false)
+    private Long soldUnits;
+}
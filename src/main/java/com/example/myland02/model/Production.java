@@ -28,7 +28,7 @@ public class Production {
     @Column(nullable = false)
     private int producedUnits;
     
-    @OneToMany(mappedBy = "production", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "production", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<ProductionIngredient> usedIngredients = new ArrayList<>();
 }
@@ -0,0 +1,56 @@
+package com.example.myland02.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Per-day sales totals for one shop and product. Maintained by
+ * SalesRollupService in the same transaction as every sale write, so reports
+ * read a few rows per day instead of scanning the sales table.
+ */
+@Entity
+@Table(name = "sales_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"date", "shop_id", "product_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "date", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long soldUnits;
+
+    @Column(nullable = false)
+    private Long returnedUnits;
+
+    @Column(nullable = false)
+    private Double income;
+
+    @Column(nullable = false)
+    private Double profit;
+
+    @Column(nullable = false)
+    private Long saleCount;
+
+    // Used by the rebuild aggregate query
+    public SalesDailyRollup(LocalDate date, Long shopId, Long productId, Long soldUnits, Long returnedUnits,
+                            Double income, Double profit, Long saleCount) {
+        this(null, date, shopId, productId, soldUnits, returnedUnits, income, profit, saleCount);
+    }
+}
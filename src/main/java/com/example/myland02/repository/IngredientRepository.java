@@ -1,9 +1,25 @@
 package com.example.myland02.repository;
 
 import com.example.myland02.model.Ingredient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
-}
\ No newline at end of file
+
+    // Read-only: quantities are changed with SQL deltas, not by flushing these entities
+    @Query("SELECT i FROM Ingredient i WHERE i.id IN :ids")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Ingredient> findAllReadOnlyByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COALESCE(SUM(COALESCE(i.quantity, 0.0) * COALESCE(i.pricePerUnit, 0.0)), 0.0) FROM Ingredient i")
+    Double sumStockValue();
+}
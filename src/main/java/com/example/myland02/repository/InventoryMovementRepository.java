@@ -0,0 +1,42 @@
+package com.example.myland02.repository;
+
+import com.example.myland02.model.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    // Walks idx_inventory_movements_ingredient from afterId, so the cost is the movements since the snapshot
+    @Query("SELECT COALESCE(SUM(m.quantity), 0.0) FROM InventoryMovement m "
+            + "WHERE m.ingredientId = :ingredientId AND m.id > :afterId "
+            + "AND (:at IS NULL OR m.occurredAt <= :at)")
+    Double sumAfter(@Param("ingredientId") Long ingredientId, @Param("afterId") Long afterId,
+                    @Param("at") LocalDateTime at);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0.0) FROM InventoryMovement m "
+            + "WHERE m.ingredientId = :ingredientId AND m.id > :afterId AND m.id <= :lastId")
+    Double sumBetween(@Param("ingredientId") Long ingredientId, @Param("afterId") Long afterId,
+                      @Param("lastId") Long lastId);
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.ingredientId = :ingredientId AND m.id > :afterId "
+            + "ORDER BY m.id DESC")
+    List<InventoryMovement> findLatestAfter(@Param("ingredientId") Long ingredientId,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT m.ingredientId FROM InventoryMovement m")
+    List<Long> findIngredientIds();
+
+    @Query("SELECT m FROM InventoryMovement m "
+            + "WHERE (:ingredientId IS NULL OR m.ingredientId = :ingredientId) "
+            + "AND (:productionId IS NULL OR m.productionId = :productionId) "
+            + "ORDER BY m.id DESC")
+    List<InventoryMovement> findFiltered(@Param("ingredientId") Long ingredientId,
+                                         @Param("productionId") Long productionId, Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.example.myland02.repository;
+
+import com.example.myland02.model.InventorySnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    @Query("SELECT s FROM InventorySnapshot s WHERE s.ingredientId = :ingredientId "
+            + "AND (:at IS NULL OR s.asOf <= :at) ORDER BY s.lastMovementId DESC")
+    List<InventorySnapshot> findLatest(@Param("ingredientId") Long ingredientId,
+                                       @Param("at") LocalDateTime at, Pageable pageable);
+}
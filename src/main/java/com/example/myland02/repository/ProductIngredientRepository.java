@@ -1,5 +1,18 @@
 package com.example.myland02.repository;
 import com.example.myland02.model.ProductIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductIngredientRepository extends JpaRepository<ProductIngredient, Long> {}
+import java.util.List;
+
+public interface ProductIngredientRepository extends JpaRepository<ProductIngredient, Long> {
+
+    @Query("SELECT pi FROM ProductIngredient pi WHERE pi.product.id = :productId ORDER BY pi.id")
+    List<ProductIngredient> findByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductIngredient pi WHERE pi.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
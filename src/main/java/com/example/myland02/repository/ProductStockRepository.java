@@ -0,0 +1,25 @@
+package com.example.myland02.repository;
+
+import com.example.myland02.model.ProductStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+
+    /**
+     * Add deltas to an existing row. Returns 0 when the row does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.producedUnits = s.producedUnits + :produced, "
+            + "s.soldUnits = s.soldUnits + :sold WHERE s.productId = :productId")
+    int addDeltas(@Param("productId") Long productId, @Param("produced") long produced, @Param("sold") long sold);
+
+    // Products with more sold than produced count as zero, as on the storage page
+    @Query("SELECT COALESCE(SUM(CASE WHEN s.producedUnits > s.soldUnits "
+            + "THEN s.producedUnits - s.soldUnits ELSE 0 END), 0) FROM ProductStock s")
+    Long sumInStorage();
+}
@@ -1,11 +1,17 @@
 package com.example.myland02.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.example.myland02.model.ProductionIngredient;
 import com.example.myland02.model.Production;
+import com.example.myland02.dto.IngredientUsage;
 import java.util.List;
 
 @Repository
 public interface ProductionIngredientRepository extends JpaRepository<ProductionIngredient, Long> {
     List<ProductionIngredient> findByProduction(Production production);
+
+    @Query("SELECT new com.example.myland02.dto.IngredientUsage(pi.ingredient.id, SUM(pi.quantityUsed)) "
+            + "FROM ProductionIngredient pi WHERE pi.ingredient IS NOT NULL GROUP BY pi.ingredient.id")
+    List<IngredientUsage> usedByIngredient();
 }
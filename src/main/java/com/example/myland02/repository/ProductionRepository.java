@@ -1,5 +1,58 @@
 package com.example.myland02.repository;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionRow;
 import com.example.myland02.model.Production;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
 
-public interface ProductionRepository extends JpaRepository<Production, Long> {}
+public interface ProductionRepository extends JpaRepository<Production, Long> {
+
+    @Query("SELECT new com.example.myland02.dto.ProductUnits(p.product.id, SUM(p.producedUnits)) "
+            + "FROM Production p WHERE p.product IS NOT NULL GROUP BY p.product.id")
+    List<ProductUnits> producedUnitsByProduct();
+
+    // Production graphs (product, ingredient lines and their ingredients) in one statement
+
+    @Query("SELECT p FROM Production p LEFT JOIN FETCH p.product "
+            + "LEFT JOIN FETCH p.usedIngredients ui LEFT JOIN FETCH ui.ingredient")
+    List<Production> findAllWithDetails();
+
+    @Query("SELECT p FROM Production p LEFT JOIN FETCH p.product "
+            + "LEFT JOIN FETCH p.usedIngredients ui LEFT JOIN FETCH ui.ingredient "
+            + "WHERE p.id IN :ids ORDER BY p.date DESC, p.id DESC")
+    List<Production> findAllWithDetailsByIdIn(@Param("ids") List<Long> ids);
+
+    // Keyset-paginated list, newest first. A null filter or cursor argument is ignored.
+    // Only ids are paged here; limiting a collection fetch join would page in memory.
+
+    @Query("SELECT p.id FROM Production p "
+            + "WHERE (:from IS NULL OR p.date >= :from) AND (:to IS NULL OR p.date <= :to) "
+            + "AND (:productId IS NULL OR p.product.id = :productId) "
+            + "AND (:afterDate IS NULL OR p.date < :afterDate OR (p.date = :afterDate AND p.id < :afterId)) "
+            + "ORDER BY p.date DESC, p.id DESC")
+    List<Long> findPageIds(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                           @Param("productId") Long productId,
+                           @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                           Pageable pageable);
+
+    @Query("SELECT new com.example.myland02.dto.ProductionRow(p.id, p.date, pr.id, pr.name, p.producedUnits) "
+            + "FROM Production p LEFT JOIN p.product pr "
+            + "WHERE (:from IS NULL OR p.date >= :from) AND (:to IS NULL OR p.date <= :to) "
+            + "AND (:productId IS NULL OR pr.id = :productId) "
+            + "AND (:afterDate IS NULL OR p.date < :afterDate OR (p.date = :afterDate AND p.id < :afterId)) "
+            + "ORDER BY p.date DESC, p.id DESC")
+    List<ProductionRow> findRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                 @Param("productId") Long productId,
+                                 @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Production p "
+            + "WHERE (:from IS NULL OR p.date >= :from) AND (:to IS NULL OR p.date <= :to) "
+            + "AND (:productId IS NULL OR p.product.id = :productId)")
+    long countFiltered(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                       @Param("productId") Long productId);
+}
@@ -1,13 +1,105 @@
 package com.example.myland02.repository;
 
+import com.example.myland02.dto.DailyTotal;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.SaleRow;
+import com.example.myland02.dto.ShopTotal;
 import com.example.myland02.model.Sale;
+import com.example.myland02.model.SalesDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
     List<Sale> findBySaleDate(LocalDate date);
-}
\ No newline at end of file
+
+    // Whole table with product and shop in one statement (plain findAll issues one SELECT per reference)
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.product LEFT JOIN FETCH s.shop")
+    List<Sale> findAllWithDetails();
+
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.product LEFT JOIN FETCH s.shop WHERE s.id IN :ids")
+    List<Sale> findAllWithDetailsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("SELECT new com.example.myland02.dto.SaleRow(s.id, s.saleDate, p.id, p.name, sh.id, sh.name, "
+            + "s.sellingPrice, s.soldUnits, s.returnedUnits, s.totalIncome, s.totalProfit) "
+            + "FROM Sale s LEFT JOIN s.product p LEFT JOIN s.shop sh "
+            + "WHERE (:from IS NULL OR s.saleDate >= :from) AND (:to IS NULL OR s.saleDate <= :to) "
+            + "AND (:productId IS NULL OR p.id = :productId) AND (:shopId IS NULL OR sh.id = :shopId) "
+            + "AND (:afterDate IS NULL OR s.saleDate < :afterDate OR (s.saleDate = :afterDate AND s.id < :afterId)) "
+            + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<SaleRow> findRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                           @Param("productId") Long productId, @Param("shopId") Long shopId,
+                           @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                           Pageable pageable);
+
+    // Same rows as findRows without paging, read as the caller consumes them (printed reports).
+    // Call inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.myland02.dto.SaleRow(s.id, s.saleDate, p.id, p.name, sh.id, sh.name, "
+            + "s.sellingPrice, s.soldUnits, s.returnedUnits, s.totalIncome, s.totalProfit) "
+            + "FROM Sale s LEFT JOIN s.product p LEFT JOIN s.shop sh "
+            + "WHERE (:from IS NULL OR s.saleDate >= :from) AND (:to IS NULL OR s.saleDate <= :to) "
+            + "AND (:shopId IS NULL OR sh.id = :shopId) "
+            + "ORDER BY s.saleDate DESC, s.id DESC")
+    Stream<SaleRow> streamRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("shopId") Long shopId);
+
+    // Keyset-paginated list, newest first. A null filter or cursor argument is ignored.
+
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.product p LEFT JOIN FETCH s.shop sh "
+            + "WHERE (:from IS NULL OR s.saleDate >= :from) AND (:to IS NULL OR s.saleDate <= :to) "
+            + "AND (:productId IS NULL OR p.id = :productId) AND (:shopId IS NULL OR sh.id = :shopId) "
+            + "AND (:afterDate IS NULL OR s.saleDate < :afterDate OR (s.saleDate = :afterDate AND s.id < :afterId)) "
+            + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Sale> findPage(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                        @Param("productId") Long productId, @Param("shopId") Long shopId,
+                        @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+    @Query("SELECT COUNT(s) FROM Sale s "
+            + "WHERE (:from IS NULL OR s.saleDate >= :from) AND (:to IS NULL OR s.saleDate <= :to) "
+            + "AND (:productId IS NULL OR s.product.id = :productId) AND (:shopId IS NULL OR s.shop.id = :shopId)")
+    long countFiltered(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                       @Param("productId") Long productId, @Param("shopId") Long shopId);
+
+    // Dashboard aggregates
+
+    @Query("SELECT COALESCE(SUM(s.totalIncome), 0.0) FROM Sale s")
+    Double sumIncome();
+
+    @Query("SELECT COALESCE(SUM(s.totalProfit), 0.0) FROM Sale s")
+    Double sumProfit();
+
+    @Query("SELECT new com.example.myland02.dto.DailyTotal(s.saleDate, SUM(s.totalIncome), SUM(s.totalProfit), COUNT(s)) "
+            + "FROM Sale s WHERE s.saleDate >= :from GROUP BY s.saleDate ORDER BY s.saleDate")
+    List<DailyTotal> dailyTotalsSince(@Param("from") LocalDate from);
+
+    @Query("SELECT new com.example.myland02.dto.ShopTotal(sh.id, sh.name, SUM(s.totalIncome)) "
+            + "FROM Sale s LEFT JOIN s.shop sh GROUP BY sh.id, sh.name")
+    List<ShopTotal> incomeByShop();
+
+    @Query("SELECT new com.example.myland02.dto.ProductUnits(s.product.id, SUM(s.soldUnits)) "
+            + "FROM Sale s WHERE s.product IS NOT NULL GROUP BY s.product.id")
+    List<ProductUnits> soldUnitsByProduct();
+
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.product LEFT JOIN FETCH s.shop "
+            + "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Sale> findRecent(Pageable pageable);
+
+    // Source rows for rebuilding the daily sales rollup
+    @Query("SELECT new com.example.myland02.model.SalesDailyRollup(s.saleDate, sh.id, p.id, "
+            + "SUM(s.soldUnits), SUM(COALESCE(s.returnedUnits, 0)), SUM(COALESCE(s.totalIncome, 0.0)), "
+            + "SUM(COALESCE(s.totalProfit, 0.0)), COUNT(s)) "
+            + "FROM Sale s LEFT JOIN s.shop sh LEFT JOIN s.product p GROUP BY s.saleDate, sh.id, p.id")
+    List<SalesDailyRollup> aggregateDaily();
+}
@@ -0,0 +1,37 @@
+package com.example.myland02.repository;
+
+import com.example.myland02.dto.RollupTotal;
+import com.example.myland02.model.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+
+    @Query("SELECT new com.example.myland02.dto.RollupTotal(r.shopId, SUM(r.soldUnits), SUM(r.returnedUnits), "
+            + "SUM(r.income), SUM(r.profit), SUM(r.saleCount)) "
+            + "FROM SalesDailyRollup r WHERE r.date BETWEEN :from AND :to GROUP BY r.shopId")
+    List<RollupTotal> totalsByShop(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.myland02.dto.RollupTotal(r.productId, SUM(r.soldUnits), SUM(r.returnedUnits), "
+            + "SUM(r.income), SUM(r.profit), SUM(r.saleCount)) "
+            + "FROM SalesDailyRollup r WHERE r.date BETWEEN :from AND :to "
+            + "AND (:shopId IS NULL OR r.shopId = :shopId) GROUP BY r.productId")
+    List<RollupTotal> totalsByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("shopId") Long shopId);
+
+    // Open-ended range when from/to is null
+    @Query("SELECT new com.example.myland02.dto.RollupTotal(r.shopId, SUM(r.soldUnits), SUM(r.returnedUnits), "
+            + "SUM(r.income), SUM(r.profit), SUM(r.saleCount)) "
+            + "FROM SalesDailyRollup r WHERE r.shopId = :shopId "
+            + "AND (:from IS NULL OR r.date >= :from) AND (:to IS NULL OR r.date <= :to) GROUP BY r.shopId")
+    List<RollupTotal> totalsForShop(@Param("shopId") Long shopId, @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    List<SalesDailyRollup> findByShopIdAndDateBetweenOrderByDateDesc(Long shopId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,91 @@
+package com.example.myland02.service;
+
+import com.example.myland02.model.Production;
+import com.example.myland02.model.Sale;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Business counters published with the other metrics (/actuator/prometheus):
+ * sales recorded, units sold and produced, ingredient stock deductions and
+ * production refused for lack of stock.
+ *
+ * Called from the places every sale and production run already passes
+ * through (product stock, inventory journal, stock ledger). Counts are added
+ * after commit, so work that is rolled back is not counted.
+ */
+@Service
+public class BusinessMetrics {
+
+    private final Counter salesRecorded;
+    private final Counter unitsSold;
+    private final Counter productionRuns;
+    private final Counter unitsProduced;
+    private final Counter stockDeductions;
+    private final Counter stockRejections;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        salesRecorded = Counter.builder("myland.sales.recorded")
+                .description("Sales saved (single and imported)").register(registry);
+        unitsSold = Counter.builder("myland.sales.units")
+                .description("Units sold, before returns").register(registry);
+        productionRuns = Counter.builder("myland.production.runs")
+                .description("Production runs saved").register(registry);
+        unitsProduced = Counter.builder("myland.production.units")
+                .description("Units produced").register(registry);
+        stockDeductions = Counter.builder("myland.stock.deductions")
+                .description("Ingredient lines deducted from stock by production").register(registry);
+        stockRejections = Counter.builder("myland.stock.rejections")
+                .description("Production refused because an ingredient was short").register(registry);
+    }
+
+    public void salesRecorded(List<Sale> sales) {
+        long units = 0;
+        for (Sale sale : sales) {
+            units += sale.getSoldUnits() != null ? sale.getSoldUnits() : 0;
+        }
+        long total = units;
+        afterCommit(() -> {
+            salesRecorded.increment(sales.size());
+            unitsSold.increment(total);
+        });
+    }
+
+    public void produced(List<Production> productions) {
+        long units = 0;
+        for (Production production : productions) {
+            units += production.getProducedUnits();
+        }
+        long total = units;
+        afterCommit(() -> {
+            productionRuns.increment(productions.size());
+            unitsProduced.increment(total);
+        });
+    }
+
+    public void stockDeducted(int lines) {
+        afterCommit(() -> stockDeductions.increment(lines));
+    }
+
+    public void stockRejected() {
+        stockRejections.increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
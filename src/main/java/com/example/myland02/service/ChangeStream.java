@@ -0,0 +1,192 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent change events for open screens: after every committed write
+ * {@link TableVersions} publishes a {@link ChangeEvent}, and each connected
+ * client patches its copy of that list instead of downloading it again.
+ *
+ * Event ids are {@code <epoch>-<sequence>}. The last {@code replay-size}
+ * events are kept, so a client that reconnects (EventSource sends
+ * Last-Event-ID) or opens the next page ({@code ?after=}) first receives
+ * what it missed. When that is no longer possible (the id is older than the
+ * buffer or from before a restart) it gets a {@code reset} event and
+ * reloads its lists.
+ *
+ * Sending, replay and registration all run on one thread, in order, so a
+ * new client can neither miss nor duplicate an event, and a write never
+ * waits for a client. A client that stops reading holds up the stream (not
+ * the writes) until its socket write times out.
+ */
+@Service
+public class ChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStream.class);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final long timeoutMillis;
+
+    // Changed only on the sender thread
+    private final Deque<Entry> replay = new ArrayDeque<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChangeStream(@Value("${myland.changes.replay-size:1000}") int replaySize,
+                        @Value("${myland.changes.timeout:PT30M}") Duration timeout,
+                        MeterRegistry registry) {
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("myland.changes.clients", emitters, List::size)
+                .description("Clients connected to the change stream").register(registry);
+    }
+
+    /**
+     * Open a stream for one client.
+     *
+     * @param lastEventId id of the last event the client has applied, or null
+     *                    for a client that has just loaded its lists
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> sender.execute(() -> emitters.remove(emitter)));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> sender.execute(() -> emitters.remove(emitter)));
+        sender.execute(() -> {
+            if (catchUp(emitter, lastEventId)) {
+                emitters.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    /** Called by {@link TableVersions} once the change is committed. */
+    void publish(ChangeEvent event) {
+        sender.execute(() -> {
+            Entry entry = new Entry(++sequence, event);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (SseEmitter emitter : emitters) {
+                send(emitter, entry);
+            }
+        });
+    }
+
+    /** Keeps idle connections open through proxies and notices clients that went away. */
+    @Scheduled(fixedDelayString = "${myland.changes.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        sender.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        sender.execute(() -> {
+            emitters.forEach(SseEmitter::complete);
+            emitters.clear();
+        });
+        sender.shutdown();
+    }
+
+    /** Sends what the client missed, or a reset; false if the client is already gone. */
+    private boolean catchUp(SseEmitter emitter, String lastEventId) {
+        Long after = sequenceOf(lastEventId);
+        try {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                emitter.send(SseEmitter.event().name("ready").id(id(sequence)).data(Map.of()));
+                return true;
+            }
+            long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence;
+            if (after == null || after > sequence || after < oldest - 1) {
+                log.debug("Change stream reset for last event id {}", lastEventId);
+                emitter.send(SseEmitter.event().name("reset").id(id(sequence)).data(Map.of()));
+                return true;
+            }
+            for (Entry entry : replay) {
+                if (entry.sequence > after) {
+                    emitter.send(event(entry));
+                }
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void send(SseEmitter emitter, Entry entry) {
+        try {
+            emitter.send(event(entry));
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder event(Entry entry) {
+        return SseEmitter.event()
+                .name("change")
+                .id(id(entry.sequence))
+                .data(entry.event, MediaType.APPLICATION_JSON);
+    }
+
+    private String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /** Sequence number of an event id from this run, or null. */
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final long sequence;
+        final ChangeEvent event;
+
+        Entry(long sequence, ChangeEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.DailyTotal;
+import com.example.myland02.dto.DashboardSummary;
+import com.example.myland02.dto.RecentSale;
+import com.example.myland02.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class DashboardService {
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductionRepository productionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    /**
+     * Build the dashboard summary from aggregate queries only.
+     *
+     * @param days        number of days (ending today) for the revenue/profit chart
+     * @param recentCount number of latest sales to include
+     */
+    @Transactional(readOnly = true)
+    public DashboardSummary getSummary(int days, int recentCount) {
+        LocalDate today = LocalDate.now();
+        DashboardSummary summary = new DashboardSummary();
+
+        summary.setTotalRevenue(saleRepository.sumIncome());
+        summary.setTotalProfit(saleRepository.sumProfit());
+        summary.setProductCount(productRepository.count());
+        summary.setIngredientCount(ingredientRepository.count());
+        summary.setProductionCount(productionRepository.count());
+        summary.setSaleCount(saleRepository.count());
+        summary.setShopCount(shopRepository.count());
+        summary.setInventoryValue(ingredientRepository.sumStockValue());
+        summary.setProductsInStorage(productStockService.totalInStorage());
+
+        // One grouped-by-day query covers the chart window, this month, last month and the year chart
+        LocalDate chartStart = today.minusDays(days - 1);
+        LocalDate lastMonthStart = YearMonth.from(today).minusMonths(1).atDay(1);
+        LocalDate yearStart = today.withDayOfYear(1);
+        LocalDate from = min(chartStart, min(lastMonthStart, yearStart));
+
+        Map<LocalDate, DailyTotal> byDate = saleRepository.dailyTotalsSince(from).stream()
+                .collect(Collectors.toMap(DailyTotal::getDate, d -> d, (a, b) -> a));
+
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        for (DailyTotal day : byDate.values()) {
+            double income = nz(day.getIncome());
+            double profit = nz(day.getProfit());
+            YearMonth month = YearMonth.from(day.getDate());
+            if (month.equals(currentMonth)) {
+                summary.setCurrentMonthRevenue(summary.getCurrentMonthRevenue() + income);
+                summary.setCurrentMonthProfit(summary.getCurrentMonthProfit() + profit);
+            } else if (month.equals(lastMonth)) {
+                summary.setLastMonthRevenue(summary.getLastMonthRevenue() + income);
+                summary.setLastMonthProfit(summary.getLastMonthProfit() + profit);
+            }
+            if (day.getDate().getYear() == today.getYear()) {
+                summary.getMonthlyIncome()[day.getDate().getMonthValue() - 1] += income;
+            }
+        }
+
+        DailyTotal todayTotal = byDate.get(today);
+        summary.setTodaySales(todayTotal != null ? todayTotal.getSaleCount() : 0);
+
+        for (LocalDate d = chartStart; !d.isAfter(today); d = d.plusDays(1)) {
+            DailyTotal day = byDate.get(d);
+            summary.getDaily().add(day != null ? day : new DailyTotal(d, 0.0, 0.0, 0L));
+        }
+
+        summary.setShopTotals(saleRepository.incomeByShop());
+        summary.setRecentSales(saleRepository.findRecent(PageRequest.of(0, recentCount)).stream()
+                .map(RecentSale::from)
+                .collect(Collectors.toList()));
+        return summary;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static double nz(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
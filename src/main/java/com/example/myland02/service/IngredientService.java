@@ -0,0 +1,137 @@
+package com.example.myland02.service;
+
+import com.example.myland02.config.CacheConfig;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.repository.IngredientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ingredient list for forms and the ingredients page. Only the list is
+ * cached: stock checks go through {@link StockLedger}. Anything that changes
+ * stock must call {@link #stockChanged}.
+ */
+@Service
+public class IngredientService {
+
+    private static final String UPDATE_PRICE_SQL = "UPDATE ingredients SET price_per_unit = ? WHERE id = ?";
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryJournal journal;
+
+    @Autowired
+    private ProductCosting costing;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Cacheable(cacheNames = CacheConfig.INGREDIENTS, key = CacheConfig.ALL)
+    public List<Ingredient> getAllIngredients() {
+        return ingredientRepository.findAll();
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.INGREDIENTS, key = CacheConfig.ALL)
+    @Transactional
+    public Ingredient saveIngredient(Ingredient ingredient) {
+        Ingredient existing = ingredient.getId() == null ? null
+                : ingredientRepository.findById(ingredient.getId()).orElse(null);
+        Double before = existing != null ? quantityOf(existing) : null;
+        Double priceBefore = existing != null ? existing.getPricePerUnit() : null;
+        Ingredient saved = ingredientRepository.save(ingredient);
+        // A new ingredient is its first receipt; an edit sets the quantity outright
+        if (before == null) {
+            journal.received(saved.getId(), quantityOf(saved), "New ingredient");
+            stockLedger.created(saved.getId(), saved.getQuantity());
+        } else {
+            double delta = quantityOf(saved) - before;
+            journal.adjusted(saved.getId(), delta, "Quantity edited");
+            stockLedger.adjusted(saved.getId(), delta);
+        }
+        if (!Objects.equals(priceBefore, saved.getPricePerUnit())) {
+            costing.pricesChanged(Collections.singletonMap(saved.getId(), saved.getPricePerUnit()));
+        }
+        tableVersions.changed(TableVersions.Table.INGREDIENTS,
+                before == null ? TableVersions.Change.CREATE : TableVersions.Change.UPDATE, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Apply a price list (ingredient id -> price per unit) in one transaction
+     * and recost the products that use those ingredients.
+     *
+     * @return number of products whose cost changed
+     * @throws IllegalArgumentException if an ingredient does not exist or a price is negative
+     */
+    @CacheEvict(cacheNames = CacheConfig.INGREDIENTS, key = CacheConfig.ALL)
+    @Transactional
+    public int updatePrices(Map<Long, Double> priceList) {
+        Set<Long> known = ingredientRepository.findAllById(priceList.keySet()).stream()
+                .map(Ingredient::getId).collect(Collectors.toCollection(HashSet::new));
+        priceList.forEach((id, price) -> {
+            if (!known.contains(id)) {
+                throw new IllegalArgumentException("Ingredient not found: " + id);
+            }
+            if (price != null && price < 0) {
+                throw new IllegalArgumentException("Price cannot be negative: " + id);
+            }
+        });
+        jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, priceList.entrySet(), priceList.size(), (ps, entry) -> {
+            if (entry.getValue() != null) {
+                ps.setDouble(1, entry.getValue());
+            } else {
+                ps.setNull(1, Types.DOUBLE);
+            }
+            ps.setLong(2, entry.getKey());
+        });
+        tableVersions.changed(TableVersions.Table.INGREDIENTS, TableVersions.Change.UPDATE, priceList.keySet());
+        return costing.pricesChanged(priceList);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.INGREDIENTS, key = CacheConfig.ALL)
+    @Transactional
+    public void deleteIngredient(Long id) {
+        ingredientRepository.findById(id)
+                .ifPresent(ingredient -> journal.adjusted(id, -quantityOf(ingredient), "Ingredient deleted"));
+        ingredientRepository.deleteById(id);
+        stockLedger.remove(id);
+        // Recipes that still list it can no longer be costed
+        costing.pricesChanged(Collections.singletonMap(id, null));
+        tableVersions.changed(TableVersions.Table.INGREDIENTS, TableVersions.Change.DELETE, id);
+    }
+
+    public Optional<Ingredient> getIngredientById(Long id) {
+        return ingredientRepository.findById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.INGREDIENTS, key = CacheConfig.ALL)
+    public void stockChanged(Collection<Long> ingredientIds) {
+        tableVersions.changed(TableVersions.Table.INGREDIENTS, TableVersions.Change.UPDATE, ingredientIds);
+    }
+
+    private double quantityOf(Ingredient ingredient) {
+        return ingredient.getQuantity() != null ? ingredient.getQuantity() : 0.0;
+    }
+}
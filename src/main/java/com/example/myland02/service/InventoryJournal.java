@@ -0,0 +1,161 @@
+package com.example.myland02.service;
+
+import com.example.myland02.model.InventoryMovement;
+import com.example.myland02.model.InventorySnapshot;
+import com.example.myland02.model.Production;
+import com.example.myland02.model.ProductionIngredient;
+import com.example.myland02.repository.InventoryMovementRepository;
+import com.example.myland02.repository.InventorySnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only inventory journal. Every stock change is written here in the
+ * same transaction as the change to ingredients.quantity, so the current
+ * quantity is always the sum of an ingredient's movements.
+ *
+ * Snapshots are taken periodically ({@code myland.inventory.snapshot-interval})
+ * so stock at a point in time costs one snapshot lookup plus the movements
+ * recorded after it.
+ */
+@Service
+public class InventoryJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryJournal.class);
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BusinessMetrics metrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void received(Long ingredientId, double quantity, String note) {
+        append(ingredientId, InventoryMovement.Type.RECEIPT, quantity, null, note);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjusted(Long ingredientId, double delta, String note) {
+        append(ingredientId, InventoryMovement.Type.ADJUSTMENT, delta, null, note);
+    }
+
+    /**
+     * Ingredients used by saved production runs (one negative movement per line).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void consumed(List<Production> productions) {
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (Production production : productions) {
+            for (ProductionIngredient line : lines(production)) {
+                movements.add(new InventoryMovement(line.getIngredient().getId(), InventoryMovement.Type.CONSUMPTION,
+                        -line.getQuantityUsed(), production.getId(), null));
+            }
+        }
+        movementRepository.saveAll(movements);
+        metrics.stockDeducted(movements.size());
+    }
+
+    /**
+     * Compensating entries for a production run that is being deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reversed(Production production) {
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (ProductionIngredient line : lines(production)) {
+            movements.add(new InventoryMovement(line.getIngredient().getId(), InventoryMovement.Type.REVERSAL,
+                    line.getQuantityUsed(), production.getId(), "Production deleted"));
+        }
+        movementRepository.saveAll(movements);
+    }
+
+    /**
+     * Stock of one ingredient at the given time (null = now).
+     */
+    @Transactional(readOnly = true)
+    public double stockAt(Long ingredientId, LocalDateTime at) {
+        List<InventorySnapshot> latest = snapshotRepository.findLatest(ingredientId, at, PageRequest.of(0, 1));
+        double base = latest.isEmpty() ? 0.0 : latest.get(0).getQuantity();
+        long afterId = latest.isEmpty() ? 0L : latest.get(0).getLastMovementId();
+        return base + movementRepository.sumAfter(ingredientId, afterId, at);
+    }
+
+    @Transactional(readOnly = true)
+    public List<InventoryMovement> movements(Long ingredientId, Long productionId, int limit) {
+        return movementRepository.findFiltered(ingredientId, productionId, PageRequest.of(0, limit));
+    }
+
+    @Scheduled(initialDelayString = "${myland.inventory.snapshot-interval:PT1H}",
+            fixedDelayString = "${myland.inventory.snapshot-interval:PT1H}")
+    public void scheduledSnapshot() {
+        try {
+            // Called on this bean, so @Transactional on snapshot() would not apply
+            new TransactionTemplate(transactionManager).execute(status -> snapshot());
+        } catch (Exception e) {
+            log.warn("Inventory snapshot failed", e);
+        }
+    }
+
+    /**
+     * Fold the movements since each ingredient's last snapshot into a new one.
+     *
+     * @return number of snapshots written
+     */
+    @Transactional
+    public int snapshot() {
+        List<InventorySnapshot> snapshots = new ArrayList<>();
+        for (Long ingredientId : movementRepository.findIngredientIds()) {
+            List<InventorySnapshot> previous = snapshotRepository.findLatest(ingredientId, null, PageRequest.of(0, 1));
+            double base = previous.isEmpty() ? 0.0 : previous.get(0).getQuantity();
+            long afterId = previous.isEmpty() ? 0L : previous.get(0).getLastMovementId();
+
+            List<InventoryMovement> last = movementRepository.findLatestAfter(ingredientId, afterId, PageRequest.of(0, 1));
+            if (last.isEmpty()) {
+                continue;
+            }
+            InventoryMovement lastMovement = last.get(0);
+            // Only up to the movement the snapshot names: later ones are added by stockAt
+            double quantity = base + movementRepository.sumBetween(ingredientId, afterId, lastMovement.getId());
+            snapshots.add(new InventorySnapshot(null, ingredientId, lastMovement.getId(), quantity,
+                    lastMovement.getOccurredAt()));
+        }
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private void append(Long ingredientId, InventoryMovement.Type type, double quantity, Long productionId, String note) {
+        if (ingredientId == null || quantity == 0) {
+            return;
+        }
+        movementRepository.save(new InventoryMovement(ingredientId, type, quantity, productionId, note));
+    }
+
+    private static List<ProductionIngredient> lines(Production production) {
+        List<ProductionIngredient> lines = new ArrayList<>();
+        if (production.getUsedIngredients() != null) {
+            for (ProductionIngredient line : production.getUsedIngredients()) {
+                if (line.getIngredient() != null && line.getQuantityUsed() != 0) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -1,64 +1,66 @@
 package com.example.myland02.service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import com.example.myland02.model.Ingredient;
 import com.example.myland02.model.Production;
 import com.example.myland02.model.ProductionIngredient;
-import com.example.myland02.repository.IngredientRepository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
     
     @Autowired
-    private IngredientRepository ingredientRepository;
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private InventoryJournal journal;
     
     public void reduceIngredientQuantities(Production production) {
-        if (production.getUsedIngredients() != null && !production.getUsedIngredients().isEmpty()) {
-            for (ProductionIngredient productionIngredient : production.getUsedIngredients()) {
-                if (productionIngredient.getIngredient() != null) {
-                    Ingredient ingredient = productionIngredient.getIngredient();
-                    double quantityUsed = productionIngredient.getQuantityUsed();
-                    
-                    // Get current quantity from database
-                    Ingredient currentIngredient = ingredientRepository.findById(ingredient.getId()).orElse(null);
-                    if (currentIngredient != null) {
-                        double currentQuantity = currentIngredient.getQuantity();
-                        double newQuantity = Math.max(0, currentQuantity - quantityUsed);
-                        
-                        // Update the ingredient quantity
-                        currentIngredient.setQuantity(newQuantity);
-                        ingredientRepository.save(currentIngredient);
-                        
-                        System.out.println("Reduced " + ingredient.getName() + " by " + quantityUsed + 
-                                         " units. New quantity: " + newQuantity);
-                    }
-                }
-            }
+        Map<Long, Double> used = usedQuantities(production);
+        if (used.isEmpty()) {
+            return;
+        }
+        // Check and take all ingredients at once; never clamp to zero
+        StockLedger.Reservation reservation = stockLedger.reserve(used);
+        if (!reservation.isGranted()) {
+            throw new IllegalStateException("Insufficient stock for ingredient: " + reservation.getShortIngredientId());
         }
+        reservation.commit();
+        journal.consumed(Collections.singletonList(production));
+        ingredientService.stockChanged(used.keySet());
+        log.debug("Reduced stock for {} ingredients", used.size());
     }
     
     public void restoreIngredientQuantities(Production production) {
-        if (production.getUsedIngredients() != null && !production.getUsedIngredients().isEmpty()) {
+        Map<Long, Double> used = usedQuantities(production);
+        if (used.isEmpty()) {
+            return;
+        }
+        stockLedger.restock(used);
+        journal.reversed(production);
+        ingredientService.stockChanged(used.keySet());
+        log.debug("Restored stock for {} ingredients", used.size());
+    }
+
+    private static Map<Long, Double> usedQuantities(Production production) {
+        Map<Long, Double> used = new LinkedHashMap<>();
+        if (production.getUsedIngredients() != null) {
             for (ProductionIngredient productionIngredient : production.getUsedIngredients()) {
                 if (productionIngredient.getIngredient() != null) {
-                    Ingredient ingredient = productionIngredient.getIngredient();
-                    double quantityUsed = productionIngredient.getQuantityUsed();
-                    
-                    // Get current quantity from database
-                    Ingredient currentIngredient = ingredientRepository.findById(ingredient.getId()).orElse(null);
-                    if (currentIngredient != null) {
-                        double currentQuantity = currentIngredient.getQuantity();
-                        double newQuantity = currentQuantity + quantityUsed;
-                        
-                        // Restore the ingredient quantity
-                        currentIngredient.setQuantity(newQuantity);
-                        ingredientRepository.save(currentIngredient);
-                        
-                        System.out.println("Restored " + ingredient.getName() + " by " + quantityUsed + 
-                                         " units. New quantity: " + newQuantity);
-                    }
+                    used.merge(productionIngredient.getIngredient().getId(),
+                            productionIngredient.getQuantityUsed(), Double::sum);
                 }
             }
         }
+        return used;
     }
 }
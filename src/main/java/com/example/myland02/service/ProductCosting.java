@@ -0,0 +1,321 @@
+package com.example.myland02.service;
+
+import com.example.myland02.config.CacheConfig;
+import com.example.myland02.dto.ProductCost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Derives each product's unit cost from its recipe (product_ingredients) and
+ * the ingredients' pricePerUnit, and keeps products.product_cost -- which
+ * sale profit is computed from -- equal to it. Products without a recipe, or
+ * with an ingredient that has no price, keep the cost typed in by hand.
+ *
+ * Recipes, prices and the computed costs are held in memory, together with
+ * a reverse index ingredient -> products using it, so a price change
+ * recomputes only the products that use that ingredient. A price list
+ * update touching many products is recomputed in parallel.
+ *
+ * The change methods run inside the writing transaction: they update the
+ * stored product costs there and the in-memory state after commit. Like
+ * {@link StockLedger} this assumes the process is the only writer of
+ * recipes and prices.
+ *
+ * The recipes are also kept as a {@link RecipeMatrix} for production
+ * planning, rebuilt after each committed recipe change.
+ */
+@Service
+public class ProductCosting {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCosting.class);
+
+    // Below this many products the parallel stream costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 256;
+    private static final double EPSILON = 1e-9;
+
+    private static final String RECIPES_SQL = "SELECT product_id, ingredient_id, amount_required FROM product_ingredients "
+            + "WHERE product_id IS NOT NULL AND ingredient_id IS NOT NULL";
+    private static final String PRICES_SQL = "SELECT id, price_per_unit FROM ingredients";
+    private static final String APPLY_SQL = "UPDATE products SET product_cost = ? "
+            + "WHERE id = ? AND (product_cost IS NULL OR ABS(product_cost - ?) > " + EPSILON + ")";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** product id -> (ingredient id -> amount per unit) */
+    private final Map<Long, Map<Long, Double>> recipes = new ConcurrentHashMap<>();
+    /** ingredient id -> products whose recipe uses it */
+    private final Map<Long, Set<Long>> usedBy = new ConcurrentHashMap<>();
+    /** ingredient id -> price per unit; ingredients without a price are absent */
+    private final Map<Long, Double> prices = new ConcurrentHashMap<>();
+    private final Map<Long, ProductCost> costs = new ConcurrentHashMap<>();
+    private volatile RecipeMatrix matrix = RecipeMatrix.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        try {
+            int applied = new TransactionTemplate(transactionManager).execute(status -> recompute());
+            log.info("Product costing loaded: {} recipes, {} product costs updated", recipes.size(), applied);
+        } catch (Exception e) {
+            log.warn("Could not load product costing", e);
+        }
+    }
+
+    /** Cost of one product, or null if it has no recipe. */
+    public ProductCost cost(Long productId) {
+        return productId != null ? costs.get(productId) : null;
+    }
+
+    /** Costs of all products with a recipe, by product id. */
+    public List<ProductCost> costs() {
+        List<ProductCost> all = new ArrayList<>(costs.values());
+        all.sort(Comparator.comparing(ProductCost::getProductId));
+        return all;
+    }
+
+    /** The derived unit cost if the product has a complete recipe, else null. */
+    public Double derivedCost(Long productId) {
+        ProductCost cost = cost(productId);
+        return cost != null && cost.isComplete() ? cost.getUnitCost() : null;
+    }
+
+    /** All current recipes, for planning. */
+    public RecipeMatrix recipeMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Ingredient prices changed (ingredient id -> new price, null when the
+     * price was removed or the ingredient deleted). Recomputes the products
+     * using them.
+     *
+     * @return number of products whose stored cost changed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int pricesChanged(Map<Long, Double> changed) {
+        Set<Long> affected = new HashSet<>();
+        changed.forEach((ingredientId, price) -> {
+            if (!Objects.equals(prices.get(ingredientId), price)) {
+                affected.addAll(usedBy.getOrDefault(ingredientId, Set.of()));
+            }
+        });
+        Function<Long, Double> priceOf = id -> changed.containsKey(id) ? changed.get(id) : prices.get(id);
+        Map<Long, ProductCost> updated = compute(affected, recipes, priceOf);
+        int applied = apply(updated.values());
+        afterCommit(() -> {
+            changed.forEach((id, price) -> {
+                if (price == null) {
+                    prices.remove(id);
+                } else {
+                    prices.put(id, price);
+                }
+            });
+            costs.putAll(updated);
+        });
+        if (affected.size() > 0) {
+            log.info("Repriced {} ingredients: {} products recomputed, {} costs changed",
+                    changed.size(), affected.size(), applied);
+        }
+        return applied;
+    }
+
+    /**
+     * A product's recipe was replaced (ingredient id -> amount per unit;
+     * empty when it was removed).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProductCost recipeChanged(Long productId, Map<Long, Double> recipe) {
+        Map<Long, Double> copy = Map.copyOf(recipe);
+        ProductCost cost = copy.isEmpty() ? null : costOf(productId, copy, prices::get);
+        if (cost != null) {
+            apply(List.of(cost));
+        }
+        afterCommit(() -> {
+            unlink(productId);
+            if (cost == null) {
+                costs.remove(productId);
+            } else {
+                recipes.put(productId, copy);
+                copy.keySet().forEach(id -> usedBy.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(productId));
+                costs.put(productId, cost);
+            }
+            rebuildMatrix();
+        });
+        return cost;
+    }
+
+    /** The product was deleted together with its recipe. */
+    public void productRemoved(Long productId) {
+        afterCommit(() -> {
+            unlink(productId);
+            costs.remove(productId);
+            rebuildMatrix();
+        });
+    }
+
+    /**
+     * Reload all recipes and prices and recompute every product, e.g. after
+     * they were changed outside the application.
+     *
+     * @return number of products whose stored cost changed
+     */
+    @Transactional
+    public int recomputeAll() {
+        return recompute();
+    }
+
+    private int recompute() {
+        Map<Long, Map<Long, Double>> loadedRecipes = new HashMap<>();
+        jdbcTemplate.query(RECIPES_SQL, rs -> {
+            loadedRecipes.computeIfAbsent(rs.getLong(1), id -> new HashMap<>())
+                    .merge(rs.getLong(2), rs.getDouble(3), Double::sum);
+        });
+        Map<Long, Double> loadedPrices = new HashMap<>();
+        jdbcTemplate.query(PRICES_SQL, rs -> {
+            double price = rs.getDouble(2);
+            if (!rs.wasNull()) {
+                loadedPrices.put(rs.getLong(1), price);
+            }
+        });
+        Map<Long, ProductCost> computed = compute(loadedRecipes.keySet(), loadedRecipes, loadedPrices::get);
+        int applied = apply(computed.values());
+        afterCommit(() -> {
+            recipes.clear();
+            usedBy.clear();
+            loadedRecipes.forEach((productId, recipe) -> {
+                recipes.put(productId, Map.copyOf(recipe));
+                recipe.keySet().forEach(id -> usedBy.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(productId));
+            });
+            prices.clear();
+            prices.putAll(loadedPrices);
+            costs.clear();
+            costs.putAll(computed);
+            rebuildMatrix();
+        });
+        return applied;
+    }
+
+    private Map<Long, ProductCost> compute(Collection<Long> productIds, Map<Long, Map<Long, Double>> recipeOf,
+                                           Function<Long, Double> priceOf) {
+        Stream<Long> ids = productIds.size() >= PARALLEL_THRESHOLD ? productIds.parallelStream() : productIds.stream();
+        return ids.map(id -> {
+                    Map<Long, Double> recipe = recipeOf.get(id);
+                    return recipe != null && !recipe.isEmpty() ? costOf(id, recipe, priceOf) : null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(ProductCost::getProductId, Function.identity()));
+    }
+
+    private static ProductCost costOf(Long productId, Map<Long, Double> recipe, Function<Long, Double> priceOf) {
+        double total = 0.0;
+        List<Long> missing = new ArrayList<>();
+        for (Map.Entry<Long, Double> line : recipe.entrySet()) {
+            Double price = priceOf.apply(line.getKey());
+            if (price == null) {
+                missing.add(line.getKey());
+            } else {
+                total += line.getValue() * price;
+            }
+        }
+        return new ProductCost(productId, total, recipe.size(), missing, missing.isEmpty());
+    }
+
+    /** Store complete costs on their products; returns how many products changed. */
+    private int apply(Collection<ProductCost> computed) {
+        List<ProductCost> complete = computed.stream().filter(ProductCost::isComplete).collect(Collectors.toList());
+        if (complete.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(APPLY_SQL, complete, complete.size(), (ps, cost) -> {
+            ps.setDouble(1, cost.getUnitCost());
+            ps.setLong(2, cost.getProductId());
+            ps.setDouble(3, cost.getUnitCost());
+        });
+        List<Long> changed = new ArrayList<>();
+        for (int i = 0; i < complete.size(); i++) {
+            if (counts[0][i] != 0) {
+                changed.add(complete.get(i).getProductId());
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // The cache manager is transaction aware: these evictions happen after commit
+        Cache byId = cacheManager.getCache(CacheConfig.PRODUCT_BY_ID);
+        if (byId != null) {
+            changed.forEach(byId::evict);
+        }
+        Cache all = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (all != null) {
+            all.evict(CacheConfig.ALL_KEY);
+        }
+        tableVersions.changed(TableVersions.Table.PRODUCTS, TableVersions.Change.UPDATE, changed);
+        return changed.size();
+    }
+
+    private void unlink(Long productId) {
+        Map<Long, Double> old = recipes.remove(productId);
+        if (old != null) {
+            old.keySet().forEach(id -> {
+                Set<Long> products = usedBy.get(id);
+                if (products != null) {
+                    products.remove(productId);
+                }
+            });
+        }
+    }
+
+    // Synchronized so a rebuild from an older state cannot replace a newer one
+    private synchronized void rebuildMatrix() {
+        matrix = RecipeMatrix.of(new HashMap<>(recipes));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package com.example.myland02.service;
 
+import com.example.myland02.config.CacheConfig;
+import com.example.myland02.dto.ProductCost;
+import com.example.myland02.dto.RecipeLine;
+import com.example.myland02.model.Ingredient;
 import com.example.myland02.model.Product;
+import com.example.myland02.model.ProductIngredient;
+import com.example.myland02.repository.IngredientRepository;
+import com.example.myland02.repository.ProductIngredientRepository;
 import com.example.myland02.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
@@ -13,23 +29,125 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductIngredientRepository recipeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ProductCosting costing;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.ALL)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#result.id")
+    })
+    @Transactional
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        // A product with a complete recipe is costed from it, not by hand
+        Double derivedCost = costing.derivedCost(product.getId());
+        if (derivedCost != null) {
+            product.setProductCost(derivedCost);
+        }
+        TableVersions.Change change = product.getId() == null ? TableVersions.Change.CREATE : TableVersions.Change.UPDATE;
+        Product saved = productRepository.save(product);
+        tableVersions.changed(TableVersions.Table.PRODUCTS, change, saved.getId());
+        return saved;
     }
 
+    /**
+     * Change a product's name, price and cost. Works on a row loaded here,
+     * never on the instance in the product cache, which concurrent sales
+     * read while this runs.
+     *
+     * @return the saved product, or empty if it does not exist
+     */
+    @Caching(evict = {
+            // Also evicted up front, so a failed update leaves no entry behind
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#id")
+    })
+    @Transactional
+    public Optional<Product> updateProduct(Long id, Product details) {
+        return productRepository.findById(id).map(product -> {
+            product.setName(details.getName());
+            product.setBasePrice(details.getBasePrice());
+            product.setProductCost(details.getProductCost());
+            return saveProduct(product);
+        });
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_BY_ID, key = "#id")
+    })
+    @Transactional
     public void deleteProduct(Long id) {
+        recipeRepository.deleteByProductId(id);
+        costing.productRemoved(id);
         productRepository.deleteById(id);
+        tableVersions.changed(TableVersions.Table.PRODUCTS, TableVersions.Change.DELETE, id);
+    }
+
+    public List<RecipeLine> getRecipe(Long productId) {
+        return recipeRepository.findByProductId(productId).stream()
+                .map(line -> new RecipeLine(line.getIngredient().getId(), line.getAmountRequired()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replace a product's recipe (amounts per unit; an ingredient listed
+     * twice is added up) and recost the product. An empty list removes the
+     * recipe.
+     *
+     * @return the new cost, or null without a recipe
+     * @throws IllegalArgumentException if the product or an ingredient does not exist, or an amount is not positive
+     */
+    @Transactional
+    public ProductCost saveRecipe(Long productId, List<RecipeLine> lines) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        Map<Long, Double> amounts = new LinkedHashMap<>();
+        for (RecipeLine line : lines) {
+            if (line.getIngredientId() == null) {
+                throw new IllegalArgumentException("Ingredient ID is required");
+            }
+            if (line.getAmountRequired() == null || line.getAmountRequired() <= 0) {
+                throw new IllegalArgumentException("Amount required must be greater than 0: " + line.getIngredientId());
+            }
+            amounts.merge(line.getIngredientId(), line.getAmountRequired(), Double::sum);
+        }
+        Map<Long, Ingredient> ingredients = ingredientRepository.findAllById(amounts.keySet()).stream()
+                .collect(Collectors.toMap(Ingredient::getId, Function.identity()));
+        for (Long ingredientId : amounts.keySet()) {
+            if (!ingredients.containsKey(ingredientId)) {
+                throw new IllegalArgumentException("Ingredient not found: " + ingredientId);
+            }
+        }
+
+        recipeRepository.deleteByProductId(productId);
+        List<ProductIngredient> rows = new ArrayList<>();
+        amounts.forEach((ingredientId, amount) ->
+                rows.add(new ProductIngredient(null, product, ingredients.get(ingredientId), amount)));
+        recipeRepository.saveAll(rows);
+        return costing.recipeChanged(productId, amounts);
     }
 
     public List<Product> searchProducts(String name) {
         return productRepository.findByNameContainingIgnoreCase(name);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ProductStockDrift;
+import com.example.myland02.dto.ProductStockRow;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.ProductStock;
+import com.example.myland02.model.Production;
+import com.example.myland02.model.Sale;
+import com.example.myland02.repository.ProductStockRepository;
+import com.example.myland02.repository.ProductionRepository;
+import com.example.myland02.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the product_stock projection (units produced and sold per product).
+ *
+ * The write methods must run in the same transaction as the production or
+ * sale change they describe. {@link #check} recomputes the projection from
+ * the production and sales tables and reports (optionally repairs) any drift;
+ * it also runs on a schedule ({@code myland.inventory.stock-check-interval}).
+ */
+@Service
+public class ProductStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStockService.class);
+
+    @Autowired
+    private ProductStockRepository stockRepository;
+
+    @Autowired
+    private ProductionRepository productionRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private BusinessMetrics metrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void produced(List<Production> productions) {
+        Map<Long, Long> units = new HashMap<>();
+        for (Production production : productions) {
+            if (production.getProduct() != null) {
+                units.merge(production.getProduct().getId(), (long) production.getProducedUnits(), Long::sum);
+            }
+        }
+        units.forEach((productId, produced) -> apply(productId, produced, 0));
+        metrics.produced(productions);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productionRemoved(Production production) {
+        if (production.getProduct() != null) {
+            apply(production.getProduct().getId(), -production.getProducedUnits(), 0);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saleAdded(Sale sale) {
+        salesAdded(Collections.singletonList(sale));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void salesAdded(List<Sale> sales) {
+        Map<Long, Long> units = new HashMap<>();
+        for (Sale sale : sales) {
+            if (sale.getProduct() != null) {
+                units.merge(sale.getProduct().getId(), soldUnits(sale), Long::sum);
+            }
+        }
+        units.forEach((productId, sold) -> apply(productId, 0, sold));
+        metrics.salesRecorded(sales);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saleRemoved(Sale sale) {
+        if (sale.getProduct() != null) {
+            apply(sale.getProduct().getId(), 0, -soldUnits(sale));
+        }
+    }
+
+    /**
+     * One row per product, in product list order.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductStockRow> list() {
+        Map<Long, ProductStock> stock = stockRepository.findAll().stream()
+                .collect(Collectors.toMap(ProductStock::getProductId, Function.identity()));
+        List<ProductStockRow> rows = new ArrayList<>();
+        for (Product product : productService.getAllProducts()) {
+            ProductStock row = stock.get(product.getId());
+            long produced = row != null ? row.getProducedUnits() : 0;
+            long sold = row != null ? row.getSoldUnits() : 0;
+            rows.add(new ProductStockRow(product.getId(), product.getName(), produced, sold, produced - sold));
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long totalInStorage() {
+        Long total = stockRepository.sumInStorage();
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Compare the projection with the base tables.
+     *
+     * @param repair overwrite drifted rows with the recomputed values
+     * @return the products that differed
+     */
+    @Transactional
+    public List<ProductStockDrift> check(boolean repair) {
+        Map<Long, Long> produced = toMap(productionRepository.producedUnitsByProduct());
+        Map<Long, Long> sold = toMap(saleRepository.soldUnitsByProduct());
+        Map<Long, ProductStock> stored = stockRepository.findAll().stream()
+                .collect(Collectors.toMap(ProductStock::getProductId, Function.identity()));
+
+        List<ProductStockDrift> drift = new ArrayList<>();
+        for (Product product : productService.getAllProducts()) {
+            Long id = product.getId();
+            ProductStock row = stored.get(id);
+            long storedProduced = row != null ? row.getProducedUnits() : 0;
+            long storedSold = row != null ? row.getSoldUnits() : 0;
+            long actualProduced = produced.getOrDefault(id, 0L);
+            long actualSold = sold.getOrDefault(id, 0L);
+            if (storedProduced != actualProduced || storedSold != actualSold) {
+                drift.add(new ProductStockDrift(id, product.getName(), storedProduced, actualProduced,
+                        storedSold, actualSold));
+                if (repair) {
+                    stockRepository.save(new ProductStock(id, actualProduced, actualSold));
+                }
+            }
+        }
+        return drift;
+    }
+
+    @Scheduled(initialDelayString = "${myland.inventory.stock-check-interval:PT6H}",
+            fixedDelayString = "${myland.inventory.stock-check-interval:PT6H}")
+    public void scheduledCheck() {
+        try {
+            // Called on this bean, so check()'s @Transactional would not apply; the
+            // three totals must come from one snapshot or concurrent writes look like drift
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            List<ProductStockDrift> drift = readOnly.execute(status -> check(false));
+            if (!drift.isEmpty()) {
+                log.warn("product_stock differs from production/sales for {} products: {}", drift.size(), drift);
+            }
+        } catch (Exception e) {
+            log.warn("Product stock check failed", e);
+        }
+    }
+
+    private void apply(Long productId, long produced, long sold) {
+        if (productId == null || (produced == 0 && sold == 0)) {
+            return;
+        }
+        if (stockRepository.addDeltas(productId, produced, sold) == 0) {
+            stockRepository.save(new ProductStock(productId, produced, sold));
+        }
+    }
+
+    private static long soldUnits(Sale sale) {
+        return sale.getSoldUnits() != null ? sale.getSoldUnits() : 0;
+    }
+
+    private static Map<Long, Long> toMap(List<ProductUnits> units) {
+        Map<Long, Long> map = new HashMap<>();
+        for (ProductUnits row : units) {
+            map.merge(row.getProductId(), row.getUnits() != null ? row.getUnits() : 0L, Long::sum);
+        }
+        return map;
+    }
+}
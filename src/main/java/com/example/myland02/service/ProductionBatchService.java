@@ -0,0 +1,208 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ProductionBatchItemResult;
+import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductionRequest;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Production;
+import com.example.myland02.model.ProductionIngredient;
+import com.example.myland02.repository.IngredientRepository;
+import com.example.myland02.repository.ProductRepository;
+import com.example.myland02.repository.ProductionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records many production runs at once. The batch is all-or-nothing: every
+ * entry is validated and stock demand is summed per ingredient across the
+ * whole batch before anything is written.
+ */
+@Service
+public class ProductionBatchService {
+
+    static final String NOT_SAVED = "Not saved: another entry in the batch failed";
+
+    @Autowired
+    private ProductionRepository productionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private InventoryJournal journal;
+
+    @Autowired
+    private ProductStockService productStock;
+
+    /**
+     * @return one result per request entry; if any entry failed nothing was
+     *         saved, and the entries that were valid say so in their error
+     */
+    @Transactional
+    public List<ProductionBatchItemResult> recordBatch(List<ProductionRequest> requests) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> ingredientIds = new HashSet<>();
+        for (ProductionRequest request : requests) {
+            if (request.getProduct() != null && request.getProduct().getId() != null) {
+                productIds.add(request.getProduct().getId());
+            }
+            if (request.getUsedIngredients() != null) {
+                for (ProductionIngredientRequest line : request.getUsedIngredients()) {
+                    if (line != null && line.getIngredientId() != null) {
+                        ingredientIds.add(line.getIngredientId());
+                    }
+                }
+            }
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Ingredient> ingredients = ingredientIds.isEmpty() ? new HashMap<>()
+                : ingredientRepository.findAllReadOnlyByIdIn(ingredientIds).stream()
+                .collect(Collectors.toMap(Ingredient::getId, Function.identity()));
+
+        // Validate entries and sum stock demand per ingredient
+        String[] errors = new String[requests.size()];
+        Map<Long, Double> demand = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ProductionRequest request = requests.get(i);
+            if (request.getProduct() == null || request.getProduct().getId() == null) {
+                errors[i] = "Product is required";
+                continue;
+            }
+            if (!products.containsKey(request.getProduct().getId())) {
+                errors[i] = "Product not found: " + request.getProduct().getId();
+                continue;
+            }
+            if (request.getDate() == null) {
+                errors[i] = "Date is required";
+                continue;
+            }
+            if (request.getProducedUnits() < 0) {
+                errors[i] = "Produced units cannot be negative";
+                continue;
+            }
+            if (request.getUsedIngredients() != null) {
+                // Check every line before any of them is added to the demand
+                for (ProductionIngredientRequest line : request.getUsedIngredients()) {
+                    errors[i] = ProductionService.invalidLine(line);
+                    if (errors[i] == null && !ingredients.containsKey(line.getIngredientId())) {
+                        errors[i] = "Ingredient not found: " + line.getIngredientId();
+                    }
+                    if (errors[i] != null) {
+                        break;
+                    }
+                }
+                if (errors[i] != null) {
+                    continue;
+                }
+                for (ProductionIngredientRequest line : request.getUsedIngredients()) {
+                    demand.merge(line.getIngredientId(), line.getQuantityUsed(), Double::sum);
+                }
+            }
+        }
+
+        // Report every ingredient the batch needs more of than is available
+        for (Map.Entry<Long, Double> entry : demand.entrySet()) {
+            double available = stockLedger.available(entry.getKey());
+            if (available < entry.getValue()) {
+                markShort(requests, errors, entry.getKey(), "Insufficient stock for ingredient: "
+                        + ingredients.get(entry.getKey()).getName()
+                        + " (batch needs " + entry.getValue() + ", available " + available + ")");
+            }
+        }
+
+        List<ProductionBatchItemResult> results = failures(errors);
+        if (!results.isEmpty()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return results;
+        }
+
+        // Take the stock atomically; this only fails if another request took it since the check
+        StockLedger.Reservation reservation = stockLedger.reserve(demand);
+        if (!reservation.isGranted()) {
+            Long shortId = reservation.getShortIngredientId();
+            markShort(requests, errors, shortId, "Insufficient stock for ingredient: "
+                    + ingredients.get(shortId).getName());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return failures(errors);
+        }
+        // One JDBC batch of relative updates, undone with the transaction
+        reservation.commit();
+        ingredientService.stockChanged(demand.keySet());
+
+        List<Production> productions = new ArrayList<>();
+        for (ProductionRequest request : requests) {
+            Production production = new Production();
+            production.setProduct(products.get(request.getProduct().getId()));
+            production.setDate(request.getDate());
+            production.setProducedUnits(request.getProducedUnits());
+            production.setUsedIngredients(new ArrayList<>());
+            if (request.getUsedIngredients() != null) {
+                for (ProductionIngredientRequest line : request.getUsedIngredients()) {
+                    ProductionIngredient pi = new ProductionIngredient();
+                    pi.setProduction(production);
+                    pi.setIngredient(ingredients.get(line.getIngredientId()));
+                    pi.setQuantityUsed(line.getQuantityUsed());
+                    production.getUsedIngredients().add(pi);
+                }
+            }
+            productions.add(production);
+        }
+        productionRepository.saveAll(productions);
+        journal.consumed(productions);
+        productStock.produced(productions);
+        tableVersions.changed(TableVersions.Table.PRODUCTION, TableVersions.Change.CREATE,
+                productions.stream().map(Production::getId).collect(Collectors.toList()));
+
+        for (int i = 0; i < productions.size(); i++) {
+            results.add(ProductionBatchItemResult.ok(i, productions.get(i).getId()));
+        }
+        return results;
+    }
+
+    private static void markShort(List<ProductionRequest> requests, String[] errors, Long ingredientId,
+                                  String message) {
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] == null && usesIngredient(requests.get(i), ingredientId)) {
+                errors[i] = message;
+            }
+        }
+    }
+
+    /** Empty if no entry failed, otherwise a failed result for every entry. */
+    private static List<ProductionBatchItemResult> failures(String[] errors) {
+        List<ProductionBatchItemResult> results = new ArrayList<>();
+        if (Arrays.stream(errors).allMatch(Objects::isNull)) {
+            return results;
+        }
+        for (int i = 0; i < errors.length; i++) {
+            results.add(ProductionBatchItemResult.failed(i, errors[i] != null ? errors[i] : NOT_SAVED));
+        }
+        return results;
+    }
+
+    private static boolean usesIngredient(ProductionRequest request, Long ingredientId) {
+        return request.getUsedIngredients() != null && request.getUsedIngredients().stream()
+                .anyMatch(line -> ingredientId.equals(line.getIngredientId()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionPlan;
+import com.example.myland02.model.Ingredient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Material requirements of a production plan: the recipes of the planned
+ * products ({@link ProductCosting#recipeMatrix()}) against the current
+ * ingredient stock ({@link StockLedger}). Read only and without database
+ * queries once the ledger and the ingredient cache are loaded.
+ */
+@Service
+public class ProductionPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionPlanner.class);
+
+    @Autowired
+    private ProductCosting costing;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    /**
+     * @throws IllegalArgumentException if a target has no product or negative units
+     */
+    public ProductionPlan plan(List<ProductUnits> targets) {
+        Map<Long, String> names = new HashMap<>();
+        for (Ingredient ingredient : ingredientService.getAllIngredients()) {
+            names.put(ingredient.getId(), ingredient.getName());
+        }
+        long started = System.nanoTime();
+        ProductionPlan plan = costing.recipeMatrix().plan(targets, stockLedger::available, names::get);
+        if (log.isDebugEnabled()) {
+            log.debug("Planned {} products, {} ingredients, feasible={} in {} us", plan.getProducts().size(),
+                    plan.getIngredients().size(), plan.isFeasible(), (System.nanoTime() - started) / 1000);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductionRequest;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Production;
+import com.example.myland02.model.ProductionIngredient;
+import com.example.myland02.repository.IngredientRepository;
+import com.example.myland02.repository.ProductionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records one production run: takes its ingredients from stock, saves it and
+ * updates product stock, the inventory journal and the table version. Many
+ * runs at once go through {@link ProductionBatchService}.
+ */
+@Service
+public class ProductionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionService.class);
+
+    @Autowired
+    private ProductionRepository prodRepo;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private IngredientRepository ingredientRepo;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryJournal journal;
+
+    @Autowired
+    private ProductStockService productStock;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    /**
+     * Nothing is written when this throws. The refusals below are thrown
+     * before anything is written, so they leave the caller's transaction
+     * usable (other writes of a {@link WriteQueue} batch still commit).
+     *
+     * @throws IllegalArgumentException if the product is missing or does not exist, the units are negative,
+     *         or an ingredient line has no ingredient, no quantity, a negative quantity or an unknown ingredient
+     * @throws IllegalStateException if an ingredient does not have enough stock
+     */
+    @Transactional(noRollbackFor = {IllegalArgumentException.class, IllegalStateException.class})
+    public Production record(ProductionRequest request) {
+        // Validate product
+        if (request.getProduct() == null || request.getProduct().getId() == null) {
+            log.warn("Rejected production without a product");
+            throw new IllegalArgumentException("Product is required");
+        }
+        if (request.getProducedUnits() < 0) {
+            throw new IllegalArgumentException("Produced units cannot be negative");
+        }
+        if (request.getUsedIngredients() != null) {
+            for (ProductionIngredientRequest ingReq : request.getUsedIngredients()) {
+                String invalid = invalidLine(ingReq);
+                if (invalid != null) {
+                    log.warn("Rejected production line: {}", invalid);
+                    throw new IllegalArgumentException(invalid);
+                }
+            }
+        }
+
+        // Fetch the product from database to ensure it exists
+        Product product = productService.getProductById(request.getProduct().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + request.getProduct().getId()));
+
+        // Create Production entity
+        Production production = new Production();
+        production.setProduct(product);
+        production.setDate(request.getDate());
+        production.setProducedUnits(request.getProducedUnits());
+        production.setUsedIngredients(new ArrayList<>());
+
+        // Process ingredients
+        Map<Long, Double> demand = new LinkedHashMap<>();
+        if (request.getUsedIngredients() != null) {
+            for (ProductionIngredientRequest ingReq : request.getUsedIngredients()) {
+                log.debug("Ingredient line id={} quantity={}", ingReq.getIngredientId(), ingReq.getQuantityUsed());
+
+                Ingredient ingredient = ingredientRepo.findById(ingReq.getIngredientId())
+                        .orElseThrow(() -> new IllegalArgumentException("Ingredient not found: " + ingReq.getIngredientId()));
+                demand.merge(ingredient.getId(), ingReq.getQuantityUsed(), Double::sum);
+
+                // Create link
+                ProductionIngredient pi = new ProductionIngredient();
+                pi.setProduction(production);
+                pi.setIngredient(ingredient);
+                pi.setQuantityUsed(ingReq.getQuantityUsed());
+
+                production.getUsedIngredients().add(pi);
+            }
+        }
+
+        // Check and take stock atomically in the ledger; the deduction is written
+        // as a relative update in this transaction and undone if it rolls back
+        StockLedger.Reservation reservation = stockLedger.reserve(demand);
+        if (!reservation.isGranted()) {
+            String name = ingredientRepo.findById(reservation.getShortIngredientId())
+                    .map(Ingredient::getName).orElse(String.valueOf(reservation.getShortIngredientId()));
+            log.info("Production refused, insufficient stock for {}", name);
+            throw new IllegalStateException("Insufficient stock for ingredient: " + name);
+        }
+        reservation.commit();
+
+        Production saved = prodRepo.save(production);
+        journal.consumed(Collections.singletonList(saved));
+        productStock.produced(Collections.singletonList(saved));
+        ingredientService.stockChanged(demand.keySet());
+        tableVersions.changed(TableVersions.Table.PRODUCTION, TableVersions.Change.CREATE, saved.getId());
+        log.info("Production saved id={} productId={} units={}", saved.getId(), product.getId(), saved.getProducedUnits());
+        return saved;
+    }
+
+    /**
+     * @return why an ingredient line cannot be recorded, or null if it can;
+     *         checked before its quantity is added to any demand
+     */
+    static String invalidLine(ProductionIngredientRequest line) {
+        if (line == null || line.getIngredientId() == null) {
+            return "Ingredient is required";
+        }
+        if (line.getQuantityUsed() == null) {
+            return "Quantity used is required: " + line.getIngredientId();
+        }
+        if (!(line.getQuantityUsed() >= 0)) {
+            return "Quantity used cannot be negative: " + line.getIngredientId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.IngredientDemand;
+import com.example.myland02.dto.PlannedProduct;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionPlan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * All recipes as one immutable sparse matrix (product rows, ingredient
+ * columns, amount per unit): each product's lines sit next to each other in
+ * flat arrays, so expanding a production plan is a single pass over the
+ * planned rows with demand summed into an array indexed by column.
+ *
+ * Built by {@link ProductCosting} from its in-memory recipes and replaced
+ * whenever a recipe changes.
+ */
+public final class RecipeMatrix {
+
+    // Rounding slack: 0.3 / 0.1 is 2.9999999999999996 but makes 3 units
+    private static final double EPSILON = 1e-9;
+
+    public static final RecipeMatrix EMPTY = of(Map.of());
+
+    /** product id -> row */
+    private final Map<Long, Integer> rows;
+    /** column -> ingredient id */
+    private final long[] ingredientIds;
+    /** lines of row r are rowStart[r] .. rowStart[r + 1] - 1 */
+    private final int[] rowStart;
+    private final int[] columns;
+    private final double[] amounts;
+
+    private RecipeMatrix(Map<Long, Integer> rows, long[] ingredientIds, int[] rowStart, int[] columns, double[] amounts) {
+        this.rows = rows;
+        this.ingredientIds = ingredientIds;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.amounts = amounts;
+    }
+
+    /** Build from product id -> (ingredient id -> amount per unit). */
+    public static RecipeMatrix of(Map<Long, Map<Long, Double>> recipes) {
+        Map<Long, Integer> rows = new HashMap<>();
+        Map<Long, Integer> columnOf = new HashMap<>();
+        int lines = 0;
+        for (Map<Long, Double> recipe : recipes.values()) {
+            lines += recipe.size();
+        }
+        int[] rowStart = new int[recipes.size() + 1];
+        int[] columns = new int[lines];
+        double[] amounts = new double[lines];
+        int row = 0;
+        int line = 0;
+        for (Map.Entry<Long, Map<Long, Double>> recipe : recipes.entrySet()) {
+            rows.put(recipe.getKey(), row);
+            rowStart[row] = line;
+            for (Map.Entry<Long, Double> entry : recipe.getValue().entrySet()) {
+                Integer column = columnOf.putIfAbsent(entry.getKey(), columnOf.size());
+                columns[line] = column != null ? column : columnOf.size() - 1;
+                amounts[line] = entry.getValue() != null ? entry.getValue() : 0.0;
+                line++;
+            }
+            row++;
+        }
+        rowStart[row] = line;
+        long[] ingredientIds = new long[columnOf.size()];
+        columnOf.forEach((id, column) -> ingredientIds[column] = id);
+        return new RecipeMatrix(Map.copyOf(rows), ingredientIds, rowStart, columns, amounts);
+    }
+
+    /** Number of products with a recipe. */
+    public int products() {
+        return rowStart.length - 1;
+    }
+
+    public int lines() {
+        return columns.length;
+    }
+
+    /**
+     * Expand the targets through the recipes and compare the summed demand
+     * with the stock. Targets for the same product are added up; products
+     * without a recipe are reported with no demand and no maximum.
+     *
+     * @param stockOf current quantity of an ingredient
+     * @param nameOf  ingredient name for the report (may return null)
+     * @throws IllegalArgumentException if a target has no product or negative units
+     */
+    public ProductionPlan plan(List<ProductUnits> targets, LongToDoubleFunction stockOf, LongFunction<String> nameOf) {
+        Map<Long, Long> units = new LinkedHashMap<>();
+        for (ProductUnits target : targets) {
+            if (target == null || target.getProductId() == null) {
+                throw new IllegalArgumentException("Product is required");
+            }
+            long count = target.getUnits() != null ? target.getUnits() : 0L;
+            if (count < 0) {
+                throw new IllegalArgumentException("Units cannot be negative: " + target.getProductId());
+            }
+            units.merge(target.getProductId(), count, Long::sum);
+        }
+
+        double[] demand = new double[ingredientIds.length];
+        boolean[] used = new boolean[ingredientIds.length];
+        int[] order = new int[ingredientIds.length];
+        int usedCount = 0;
+        for (Map.Entry<Long, Long> target : units.entrySet()) {
+            Integer row = rows.get(target.getKey());
+            if (row == null) {
+                continue;
+            }
+            long count = target.getValue();
+            for (int line = rowStart[row]; line < rowStart[row + 1]; line++) {
+                int column = columns[line];
+                if (!used[column]) {
+                    used[column] = true;
+                    order[usedCount++] = column;
+                }
+                demand[column] += count * amounts[line];
+            }
+        }
+
+        // Only the ingredients of planned products are looked up in the stock
+        double[] available = new double[ingredientIds.length];
+        List<IngredientDemand> ingredients = new ArrayList<>(usedCount);
+        boolean feasible = true;
+        for (int i = 0; i < usedCount; i++) {
+            int column = order[i];
+            long id = ingredientIds[column];
+            available[column] = stockOf.applyAsDouble(id);
+            double shortage = demand[column] - available[column];
+            boolean isShort = shortage > EPSILON;
+            feasible &= !isShort;
+            ingredients.add(new IngredientDemand(id, nameOf.apply(id), demand[column], available[column],
+                    isShort ? shortage : 0.0));
+        }
+        ingredients.sort(Comparator.comparing(IngredientDemand::getIngredientId));
+
+        List<PlannedProduct> products = new ArrayList<>(units.size());
+        for (Map.Entry<Long, Long> target : units.entrySet()) {
+            Integer row = rows.get(target.getKey());
+            if (row == null) {
+                products.add(new PlannedProduct(target.getKey(), target.getValue(), false, null, null));
+                continue;
+            }
+            long max = Long.MAX_VALUE;
+            Long limitedBy = null;
+            for (int line = rowStart[row]; line < rowStart[row + 1]; line++) {
+                if (amounts[line] <= 0) {
+                    continue;
+                }
+                double fits = Math.floor(available[columns[line]] / amounts[line] + EPSILON);
+                long whole = fits <= 0 ? 0L : (long) fits;
+                if (whole < max) {
+                    max = whole;
+                    limitedBy = ingredientIds[columns[line]];
+                }
+            }
+            products.add(new PlannedProduct(target.getKey(), target.getValue(), true,
+                    max == Long.MAX_VALUE ? null : max, limitedBy));
+        }
+        return new ProductionPlan(feasible, products, ingredients);
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.myland02.service;
+
+import com.example.myland02.config.CacheConfig;
+import com.example.myland02.dto.RollupTotal;
+import com.example.myland02.dto.SaleRow;
+import com.example.myland02.dto.SalesReport;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import com.example.myland02.repository.SaleRepository;
+import com.example.myland02.repository.SalesDailyRollupRepository;
+import com.example.myland02.util.HtmlWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static com.example.myland02.util.HtmlWriter.money;
+import static com.example.myland02.util.HtmlWriter.nz;
+
+/**
+ * Printable HTML for the sales reports and sale bills, with the same layout
+ * the browser used to build from the full sales list.
+ *
+ * Totals come from the daily rollup; sale rows are streamed from the
+ * database and written as they are read, so a long shop history is never
+ * held in memory. Reports for closed periods (before today / this month)
+ * are cached as rendered HTML, keyed by the sales, product and shop
+ * versions, so reprinting last month's report does no database work.
+ */
+@Service
+public class ReportRenderService {
+
+    private static final String TITLE = "🍕 Myland Food Management System";
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.US);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final String REPORT_CSS =
+            "body { font-family: Arial, sans-serif; margin: 20px; }\n"
+            + "h1 { text-align: center; color: #333; }\n"
+            + ".header { text-align: center; margin-bottom: 20px; }\n"
+            + ".date { text-align: right; margin-bottom: 10px; color: #666; }\n"
+            + ".shop-info { background: #f8f9fa; padding: 15px; border-radius: 8px; margin: 20px 0; }\n"
+            + ".shop-info h3 { margin: 0 0 10px 0; color: #333; }\n"
+            + ".shop-info p { margin: 5px 0; color: #666; }\n"
+            + ".summary { display: flex; justify-content: space-around; margin: 20px 0; padding: 20px; background: #f8f9fa; border-radius: 8px; }\n"
+            + ".summary-item { text-align: center; }\n"
+            + ".summary-item h3 { margin: 0; color: #666; font-size: 14px; }\n"
+            + ".summary-item p { margin: 10px 0 0 0; font-size: 24px; font-weight: bold; color: #333; }\n"
+            + "table { width: 100%; border-collapse: collapse; margin-top: 20px; }\n"
+            + "th, td { border: 1px solid #ddd; padding: 10px; text-align: left; }\n"
+            + "tr:nth-child(even) { background-color: #f2f2f2; }\n"
+            + ".footer { margin-top: 30px; text-align: center; color: #666; font-size: 12px; }\n"
+            + "@media print { body { margin: 0; } button { display: none; } }\n";
+
+    private static final String BILL_CSS =
+            "@page { margin: 0; }\n"
+            + "body { font-family: 'Courier New', monospace; margin: 0; padding: 20px; max-width: 300px; }\n"
+            + ".bill-container { border: 2px solid #000; padding: 15px; }\n"
+            + ".header { text-align: center; border-bottom: 2px dashed #000; padding-bottom: 10px; margin-bottom: 10px; }\n"
+            + ".header h1 { margin: 0; font-size: 20px; }\n"
+            + ".header p { margin: 5px 0; font-size: 12px; }\n"
+            + ".bill-info { margin: 15px 0; font-size: 12px; }\n"
+            + ".bill-info .row, .totals .row { display: flex; justify-content: space-between; margin: 5px 0; }\n"
+            + ".bill-info .label { font-weight: bold; }\n"
+            + ".items { border-top: 2px dashed #000; border-bottom: 2px dashed #000; padding: 10px 0; margin: 15px 0; }\n"
+            + ".item-row { display: flex; justify-content: space-between; margin: 8px 0; font-size: 12px; }\n"
+            + ".item-name { font-weight: bold; }\n"
+            + ".totals { margin: 15px 0; font-size: 13px; }\n"
+            + ".totals .total-row { font-weight: bold; font-size: 16px; border-top: 2px solid #000; padding-top: 8px; margin-top: 8px; }\n"
+            + ".footer { text-align: center; margin-top: 20px; padding-top: 10px; border-top: 2px dashed #000; font-size: 11px; }\n"
+            + "@media print { body { margin: 0; padding: 10px; } }\n";
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Per-shop totals for one month.
+     */
+    @Transactional(readOnly = true)
+    public void monthly(YearMonth month, Writer out) throws IOException {
+        render("monthly:" + month, month.isBefore(YearMonth.now()), out, html -> {
+            SalesReport report = rollupService.monthlyReport(month);
+            String monthName = month.format(MONTH_NAME);
+
+            start(html, "Monthly Sales Report - " + monthName, "#ffc107");
+            header(html, "Monthly Sales Report", monthName);
+            html.raw("<div class=\"summary\">");
+            summaryItem(html, "Total Sales", money(report.getIncome()));
+            summaryItem(html, "Total Returns", report.getReturnedUnits() + " units");
+            summaryItem(html, "Net Profit", money(report.getProfit()));
+            html.raw("</div>\n");
+
+            tableStart(html, "Shop Name", "Total Sold Units", "Total Returned Units", "Total Income",
+                    "Total Profit", "Return Rate (%)");
+            if (report.getGroups().isEmpty()) {
+                emptyRow(html, 6, "No data available for this month");
+            }
+            for (RollupTotal shop : report.getGroups()) {
+                long sold = nz(shop.getSoldUnits());
+                long returned = nz(shop.getReturnedUnits());
+                double returnRate = sold > 0 ? returned * 100.0 / sold : 0.0;
+                html.raw("<tr>").cell(shop.getName()).cell(sold).cell(returned)
+                        .moneyCell(nz(shop.getIncome())).moneyCell(nz(shop.getProfit()))
+                        .cell(String.format(Locale.US, "%.1f%%", returnRate)).raw("</tr>\n");
+            }
+            tableEnd(html);
+            footer(html, "Monthly Sales Report for " + monthName);
+        });
+    }
+
+    /**
+     * Every sale on one day.
+     */
+    @Transactional(readOnly = true)
+    public void daily(LocalDate date, Writer out) throws IOException {
+        render("daily:" + date, date.isBefore(LocalDate.now()), out, html -> {
+            SalesReport report = rollupService.dailyReport(date);
+            long activeShops = rollupRepository.totalsByShop(date, date).stream()
+                    .filter(shop -> nz(shop.getSaleCount()) > 0)
+                    .count();
+
+            start(html, "Daily Sales Report - " + date, "#007bff");
+            header(html, "Daily Sales Report", date.toString());
+            html.raw("<div class=\"summary\">");
+            summaryItem(html, "Daily Sales", money(report.getIncome()));
+            summaryItem(html, "Daily Returns", report.getReturnedUnits() + " units");
+            summaryItem(html, "Net Profit", money(report.getProfit()));
+            summaryItem(html, "Active Shops", Long.toString(activeShops));
+            html.raw("</div>\n");
+
+            tableStart(html, "Shop", "Product", "Sold Units", "Returned Units", "Income", "Profit");
+            try (Stream<SaleRow> rows = saleRepository.streamRows(date, date, null)) {
+                int written = 0;
+                for (Iterator<SaleRow> it = rows.iterator(); it.hasNext(); written++) {
+                    SaleRow sale = it.next();
+                    html.raw("<tr>").cell(sale.getShopName()).cell(sale.getProductName());
+                    saleCells(html, sale);
+                }
+                if (written == 0) {
+                    emptyRow(html, 6, "No sales data for the selected date");
+                }
+            }
+            tableEnd(html);
+            footer(html, "Daily Sales Report for " + date);
+        });
+    }
+
+    /**
+     * Totals and every sale of one shop; null bounds leave the range open.
+     */
+    @Transactional(readOnly = true)
+    public void shopHistory(Shop shop, LocalDate from, LocalDate to, Writer out) throws IOException {
+        boolean closed = to != null && to.isBefore(LocalDate.now());
+        render("shop:" + shop.getId() + ":" + from + ":" + to, closed, out, html -> {
+            List<RollupTotal> totals = rollupRepository.totalsForShop(shop.getId(), from, to);
+            RollupTotal total = totals.isEmpty() ? new RollupTotal(shop.getId(), 0L, 0L, 0.0, 0.0, 0L) : totals.get(0);
+
+            start(html, "Shop Sales History - " + shop.getName(), "#17a2b8");
+            header(html, "Shop Sales History Report", null);
+            html.raw("<div class=\"shop-info\"><h3>📍 ").text(shop.getName()).raw("</h3>")
+                    .raw("<p><strong>Address:</strong> ").text(shop.getAddress()).raw("</p>")
+                    .raw("<p><strong>Contact:</strong> ").text(shop.getContactNumber()).raw("</p>")
+                    .raw("<p><strong>Email:</strong> ").text(shop.getEmail()).raw("</p></div>\n");
+            html.raw("<div class=\"summary\">");
+            summaryItem(html, "Total Sales", money(nz(total.getIncome())));
+            summaryItem(html, "Total Units Sold", Long.toString(nz(total.getSoldUnits())));
+            summaryItem(html, "Total Returns", Long.toString(nz(total.getReturnedUnits())));
+            summaryItem(html, "Total Transactions", Long.toString(nz(total.getSaleCount())));
+            html.raw("</div>\n");
+
+            tableStart(html, "Date", "Product", "Sold Units", "Returned Units", "Income", "Profit");
+            try (Stream<SaleRow> rows = saleRepository.streamRows(from, to, shop.getId())) {
+                int written = 0;
+                for (Iterator<SaleRow> it = rows.iterator(); it.hasNext(); written++) {
+                    SaleRow sale = it.next();
+                    html.raw("<tr>").cell(sale.getSaleDate()).cell(sale.getProductName());
+                    saleCells(html, sale);
+                }
+                if (written == 0) {
+                    emptyRow(html, 6, "No sales history found for this shop");
+                }
+            }
+            tableEnd(html);
+            footer(html, "Shop Sales History Report for " + shop.getName());
+        });
+    }
+
+    /**
+     * Receipt for one sale.
+     */
+    public void saleBill(Sale sale, Writer out) throws IOException {
+        HtmlWriter html = new HtmlWriter(out);
+        int soldUnits = nz(sale.getSoldUnits());
+        int returnedUnits = nz(sale.getReturnedUnits());
+        double unitPrice = sale.getSellingPrice() != null ? sale.getSellingPrice()
+                : sale.getProduct() != null ? nz(sale.getProduct().getBasePrice()) : 0.0;
+        double subtotal = soldUnits * unitPrice;
+        double returnAmount = returnedUnits * unitPrice;
+
+        html.raw("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Sale Bill - ")
+                .text(sale.getId()).raw("</title>\n<style>\n").raw(BILL_CSS).raw("</style>\n</head>\n<body>\n")
+                .raw("<div class=\"bill-container\">\n")
+                .raw("<div class=\"header\"><h1>🍕 MYLAND FOOD</h1><p>Food Management System</p><p>Sale Receipt</p></div>\n")
+                .raw("<div class=\"bill-info\">");
+        billRow(html, "Bill No:", "#" + sale.getId());
+        billRow(html, "Date:", sale.getSaleDate() != null ? sale.getSaleDate().toString() : LocalDate.now().toString());
+        billRow(html, "Time:", LocalTime.now().format(TIME));
+        billRow(html, "Shop:", sale.getShop() != null ? sale.getShop().getName() : null);
+        html.raw("</div>\n<div class=\"items\">")
+                .raw("<div class=\"item-row\"><span class=\"item-name\">")
+                .text(sale.getProduct() != null ? sale.getProduct().getName() : "Product").raw("</span></div>")
+                .raw("<div class=\"item-row\"><span>").text(soldUnits + " units × " + money(unitPrice))
+                .raw("</span><span>").raw(money(subtotal)).raw("</span></div>");
+        if (returnedUnits > 0) {
+            html.raw("<div class=\"item-row\" style=\"color: #dc3545;\"><span>Returns: ").text(returnedUnits)
+                    .raw(" units</span><span>").raw(money(-returnAmount)).raw("</span></div>");
+        }
+        html.raw("</div>\n<div class=\"totals\">");
+        totalsRow(html, "", "Subtotal:", money(subtotal));
+        if (returnedUnits > 0) {
+            totalsRow(html, " style=\"color: #dc3545;\"", "Returns:", money(-returnAmount));
+        }
+        totalsRow(html, "", "Net Units:", (soldUnits - returnedUnits) + " units");
+        html.raw("<div class=\"row total-row\"><span>TOTAL:</span><span>").raw(money(subtotal - returnAmount))
+                .raw("</span></div></div>\n")
+                .raw("<div class=\"footer\"><p>Thank you for your business!</p><p>Generated: ")
+                .text(LocalDate.now() + " " + LocalTime.now().format(TIME)).raw("</p></div>\n")
+                .raw("</div>\n</body>\n</html>\n");
+        html.flush();
+    }
+
+    /**
+     * Write a report, through the report cache when its period is closed.
+     * Any sale, product or shop change produces a new key; today's date is
+     * part of the key so the "Generated" line stays correct.
+     */
+    private void render(String key, boolean closed, Writer out, Renderer renderer) throws IOException {
+        Cache cache = closed ? cacheManager.getCache(CacheConfig.REPORTS) : null;
+        if (cache == null) {
+            HtmlWriter html = new HtmlWriter(out);
+            renderer.render(html);
+            html.flush();
+            return;
+        }
+        // Version read before the rows, as for the list ETags
+        String versionedKey = key + ":" + LocalDate.now() + ":"
+                + tableVersions.etag(TableVersions.Table.SALES, TableVersions.Table.PRODUCTS, TableVersions.Table.SHOPS);
+        String cached = cache.get(versionedKey, String.class);
+        if (cached == null) {
+            StringWriter buffer = new StringWriter();
+            renderer.render(new HtmlWriter(buffer));
+            cached = buffer.toString();
+            cache.put(versionedKey, cached);
+        }
+        out.write(cached);
+        out.flush();
+    }
+
+    private static void start(HtmlWriter html, String title, String headerColor) throws IOException {
+        html.raw("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>").text(title)
+                .raw("</title>\n<style>\n").raw(REPORT_CSS)
+                .raw("th { background-color: ").raw(headerColor).raw("; color: white; }\n")
+                .raw("</style>\n</head>\n<body>\n");
+    }
+
+    private static void header(HtmlWriter html, String report, String period) throws IOException {
+        html.raw("<div class=\"header\"><h1>").raw(TITLE).raw("</h1><h2>").text(report).raw("</h2>");
+        if (period != null) {
+            html.raw("<h3>").text(period).raw("</h3>");
+        }
+        html.raw("</div>\n<div class=\"date\">Generated: ").text(LocalDate.now()).raw("</div>\n");
+    }
+
+    private static void summaryItem(HtmlWriter html, String label, String value) throws IOException {
+        html.raw("<div class=\"summary-item\"><h3>").text(label).raw("</h3><p>").text(value).raw("</p></div>");
+    }
+
+    private static void tableStart(HtmlWriter html, String... columns) throws IOException {
+        html.raw("<table>\n<thead><tr>");
+        for (String column : columns) {
+            html.raw("<th>").text(column).raw("</th>");
+        }
+        html.raw("</tr></thead>\n<tbody>\n");
+    }
+
+    private static void saleCells(HtmlWriter html, SaleRow sale) throws IOException {
+        double profit = nz(sale.getTotalProfit());
+        String profitColor = profit > 0 ? "#28a745" : profit < 0 ? "#dc3545" : "#6c757d";
+        html.cell(nz(sale.getSoldUnits())).cell(nz(sale.getReturnedUnits())).moneyCell(nz(sale.getTotalIncome()))
+                .raw("<td style=\"color: ").raw(profitColor).raw("; font-weight: bold;\">").raw(money(profit))
+                .raw("</td></tr>\n");
+    }
+
+    private static void emptyRow(HtmlWriter html, int columns, String message) throws IOException {
+        html.raw("<tr><td colspan=\"").raw(Integer.toString(columns)).raw("\" style=\"text-align: center;\">")
+                .text(message).raw("</td></tr>\n");
+    }
+
+    private static void tableEnd(HtmlWriter html) throws IOException {
+        html.raw("</tbody>\n</table>\n");
+    }
+
+    private static void footer(HtmlWriter html, String title) throws IOException {
+        html.raw("<div class=\"footer\"><p>").text(title).raw("</p><p>Generated on ").text(LocalDate.now())
+                .raw("</p></div>\n</body>\n</html>\n");
+    }
+
+    private static void billRow(HtmlWriter html, String label, String value) throws IOException {
+        html.raw("<div class=\"row\"><span class=\"label\">").text(label).raw("</span><span>").text(value)
+                .raw("</span></div>");
+    }
+
+    private static void totalsRow(HtmlWriter html, String style, String label, String value) throws IOException {
+        html.raw("<div class=\"row\"").raw(style).raw("><span>").text(label).raw("</span><span>").text(value)
+                .raw("</span></div>");
+    }
+
+    private interface Renderer {
+        void render(HtmlWriter html) throws IOException;
+    }
+}
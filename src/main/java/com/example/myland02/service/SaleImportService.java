@@ -0,0 +1,343 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.SaleImportReport;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import com.example.myland02.util.SaleTotals;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams sales from CSV or JSON lines into the sales table.
+ *
+ * The input is read one line at a time. Valid rows are inserted with JDBC
+ * batches; every chunk of {@code myland.import.batch-size} rows is its own
+ * transaction, which also updates the daily sales rollup. A chunk that fails
+ * to insert is rolled back and its rows are reported as failed.
+ *
+ * CSV needs a header naming the columns date, productId, shopId,
+ * sellingPrice, soldUnits and returnedUnits (any order). Fields may be
+ * quoted as in RFC 4180 (commas and doubled quotes inside quotes), but a
+ * record must fit on one line. JSON lines accept
+ * the same names, or saleDate and nested product/shop objects as sent to
+ * POST /sale.
+ */
+@Service
+public class SaleImportService {
+
+    public enum Format { CSV, JSONL }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO sales "
+            + "(date, product_id, shop_id, selling_price, sold_units, returned_units, income, profit, change_version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ProductStockService productStock;
+
+    @Autowired
+    private SyncLog syncLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${myland.import.batch-size:500}")
+    private int batchSize;
+
+    public SaleImportReport importSales(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        Map<Long, Product> products = productService.getAllProducts().stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Shop> shops = shopService.getAllShops().stream()
+                .collect(Collectors.toMap(Shop::getId, Function.identity()));
+
+        SaleImportReport report = new SaleImportReport();
+        report.setFormat(format.name());
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        List<Sale> chunk = new ArrayList<>(batchSize);
+        List<Long> chunkLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    Sale sale = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+                    resolve(sale, products, shops);
+                    chunk.add(sale);
+                    chunkLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    addError(report, lineNumber, e.getMessage());
+                }
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, chunkLines, chunkTransaction, report);
+                }
+            }
+            flush(chunk, chunkLines, chunkTransaction, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos > 0 ? report.getImported() * 1e9 / elapsedNanos : 0);
+        return report;
+    }
+
+    private void flush(List<Sale> chunk, List<Long> lines, TransactionTemplate transaction, SaleImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                long changeVersion = syncLog.next();
+                jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, sale) -> {
+                    ps.setDate(1, java.sql.Date.valueOf(sale.getSaleDate()));
+                    ps.setLong(2, sale.getProduct().getId());
+                    ps.setObject(3, sale.getShop() != null ? sale.getShop().getId() : null);
+                    ps.setDouble(4, sale.getSellingPrice());
+                    ps.setInt(5, sale.getSoldUnits());
+                    ps.setObject(6, sale.getReturnedUnits());
+                    ps.setDouble(7, sale.getTotalIncome());
+                    ps.setDouble(8, sale.getTotalProfit());
+                    ps.setLong(9, changeVersion);
+                });
+                rollupService.addAll(chunk);
+                productStock.salesAdded(chunk);
+                tableVersions.bump(TableVersions.Table.SALES);
+            });
+            report.setImported(report.getImported() + chunk.size());
+        } catch (Exception e) {
+            for (Long line : lines) {
+                addError(report, line, "Batch insert failed: " + e.getMessage());
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private void resolve(Sale sale, Map<Long, Product> products, Map<Long, Shop> shops) {
+        if (sale.getSaleDate() == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        if (sale.getProduct() == null || sale.getProduct().getId() == null) {
+            throw new IllegalArgumentException("Product ID is required");
+        }
+        Product product = products.get(sale.getProduct().getId());
+        if (product == null) {
+            throw new IllegalArgumentException("Product not found: " + sale.getProduct().getId());
+        }
+        sale.setProduct(product);
+        if (sale.getShop() != null && sale.getShop().getId() != null) {
+            Shop shop = shops.get(sale.getShop().getId());
+            if (shop == null) {
+                throw new IllegalArgumentException("Shop not found: " + sale.getShop().getId());
+            }
+            sale.setShop(shop);
+        }
+        if (sale.getSellingPrice() == null) {
+            throw new IllegalArgumentException("Selling price is required");
+        }
+        if (sale.getSoldUnits() == null) {
+            throw new IllegalArgumentException("Sold units are required");
+        }
+        SaleTotals.apply(sale, product);
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = splitCsv(line);
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("date") && columns.containsKey("saledate")) {
+            columns.put("date", columns.get("saledate"));
+        }
+        return columns;
+    }
+
+    private Sale parseCsv(String line, Map<String, Integer> columns) {
+        String[] fields = splitCsv(line);
+        Sale sale = new Sale();
+        try {
+            String date = field(fields, columns, "date");
+            sale.setSaleDate(date != null ? LocalDate.parse(date) : null);
+            String productId = field(fields, columns, "productid");
+            if (productId != null) {
+                sale.setProduct(productRef(Long.parseLong(productId)));
+            }
+            String shopId = field(fields, columns, "shopid");
+            if (shopId != null) {
+                sale.setShop(shopRef(Long.parseLong(shopId)));
+            }
+            String price = field(fields, columns, "sellingprice");
+            sale.setSellingPrice(price != null ? Double.parseDouble(price) : null);
+            String sold = field(fields, columns, "soldunits");
+            sale.setSoldUnits(sold != null ? Integer.parseInt(sold) : null);
+            String returned = field(fields, columns, "returnedunits");
+            sale.setReturnedUnits(returned != null ? Integer.parseInt(returned) : 0);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+        }
+        return sale;
+    }
+
+    private Sale parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        Sale sale = new Sale();
+        try {
+            JsonNode date = node.hasNonNull("saleDate") ? node.get("saleDate") : node.get("date");
+            sale.setSaleDate(date != null && !date.isNull() ? LocalDate.parse(date.asText()) : null);
+            Long productId = idOf(node, "productId", "product");
+            if (productId != null) {
+                sale.setProduct(productRef(productId));
+            }
+            Long shopId = idOf(node, "shopId", "shop");
+            if (shopId != null) {
+                sale.setShop(shopRef(shopId));
+            }
+            sale.setSellingPrice(node.hasNonNull("sellingPrice") ? node.get("sellingPrice").asDouble() : null);
+            sale.setSoldUnits(node.hasNonNull("soldUnits") ? node.get("soldUnits").asInt() : null);
+            sale.setReturnedUnits(node.hasNonNull("returnedUnits") ? node.get("returnedUnits").asInt() : 0);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+        }
+        return sale;
+    }
+
+    private static Long idOf(JsonNode node, String flatName, String objectName) {
+        if (node.hasNonNull(flatName)) {
+            return node.get(flatName).asLong();
+        }
+        JsonNode nested = node.get(objectName);
+        return nested != null && nested.hasNonNull("id") ? nested.get("id").asLong() : null;
+    }
+
+    private static String field(String[] fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.length) {
+            return null;
+        }
+        String value = fields[index];
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Split one CSV record into trimmed fields. A field starting with a quote
+     * runs to the matching closing quote, so it may hold commas; a doubled
+     * quote inside it is one quote character.
+     *
+     * @throws IllegalArgumentException if a quoted field is not closed on this line
+     */
+    static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected text after quoted field");
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString().trim());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields.toArray(new String[0]);
+            }
+            i++; // the comma
+        }
+    }
+
+    private static Product productRef(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static Shop shopRef(Long id) {
+        Shop shop = new Shop();
+        shop.setId(id);
+        return shop;
+    }
+
+    private static void addError(SaleImportReport report, long line, String error) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new SaleImportReport.RowError(line, error));
+        }
+    }
+}
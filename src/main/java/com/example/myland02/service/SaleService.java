@@ -0,0 +1,99 @@
+package com.example.myland02.service;
+
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import com.example.myland02.repository.SaleRepository;
+import com.example.myland02.util.SaleTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records a sale together with everything derived from it: income and
+ * profit, the daily rollup, product stock and the table version.
+ *
+ * A sale can carry a client reference, the id the recording device gave it
+ * (see {@link SyncService#uploadSales}). It is stored in sales.client_ref,
+ * which is unique, so a sale sent twice (a retried upload, or a response that
+ * was lost on the way back) is only recorded once.
+ */
+@Service
+public class SaleService {
+
+    private static final String FIND_BY_CLIENT_REF_SQL = "SELECT id FROM sales WHERE client_ref = ?";
+    private static final String SET_CLIENT_REF_SQL = "UPDATE sales SET client_ref = ? WHERE id = ?";
+
+    @Autowired
+    private SaleRepository saleRepo;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Autowired
+    private ProductStockService productStock;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Save a new sale, or an edited one (id set). A new sale whose client
+     * reference is already recorded is not saved again; the recorded sale is
+     * returned instead.
+     *
+     * @param clientRef the device's id for a new sale, or null
+     * @throws IllegalArgumentException if the product does not exist; thrown before anything is
+     *                                  written, so it leaves a {@link WriteQueue} batch usable
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public Sale record(Sale sale, String clientRef) {
+        if (sale.getId() == null && clientRef != null) {
+            Optional<Sale> existing = findIdByClientRef(clientRef).flatMap(saleRepo::findById);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
+        Product product = productService.getProductById(sale.getProduct().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + sale.getProduct().getId()));
+
+        // Set the full product reference (good practice)
+        sale.setProduct(product);
+
+        // Editing an existing sale: take its old figures out of the rollup and product stock first
+        if (sale.getId() != null) {
+            saleRepo.findById(sale.getId()).ifPresent(old -> {
+                rollupService.subtract(old);
+                productStock.saleRemoved(old);
+            });
+        }
+
+        // Calculate Income and Profit
+        SaleTotals.apply(sale, product);
+
+        TableVersions.Change change = sale.getId() == null ? TableVersions.Change.CREATE : TableVersions.Change.UPDATE;
+        Sale saved = saleRepo.save(sale);
+        if (clientRef != null && change == TableVersions.Change.CREATE) {
+            jdbcTemplate.update(SET_CLIENT_REF_SQL, clientRef, saved.getId());
+        }
+        rollupService.add(saved);
+        productStock.saleAdded(saved);
+        tableVersions.changed(TableVersions.Table.SALES, change, saved.getId());
+        return saved;
+    }
+
+    /** Id of the sale recorded under this client reference, if any. */
+    public Optional<Long> findIdByClientRef(String clientRef) {
+        List<Long> ids = jdbcTemplate.queryForList(FIND_BY_CLIENT_REF_SQL, Long.class, clientRef);
+        return ids.stream().findFirst();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.myland02.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the daily sales rollup on startup when it is empty but sales exist
+ * (first start after upgrading), or always when started with --rebuild-rollup.
+ */
+@Component
+public class SalesRollupInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupInitializer.class);
+
+    @Autowired
+    private SalesRollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (args.containsOption("rebuild-rollup") || rollupService.needsRebuild()) {
+                int rows = rollupService.rebuild();
+                log.info("Sales rollup rebuilt: {} rows", rows);
+            }
+        } catch (Exception e) {
+            log.warn("Could not rebuild sales rollup", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.RollupTotal;
+import com.example.myland02.dto.SalesReport;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.SalesDailyRollup;
+import com.example.myland02.model.Shop;
+import com.example.myland02.repository.SaleRepository;
+import com.example.myland02.repository.SalesDailyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the sales_daily_rollup table and serves the sales reports from it.
+ * The add/subtract methods must run inside the transaction that writes the sale.
+ */
+@Service
+public class SalesRollupService {
+
+    // Plain SQL: Hibernate renders the double deltas of the equivalent JPQL
+    // update as cast(? as float($p)), which H2 rejects
+    private static final String ADD_DELTAS_SQL = "UPDATE sales_daily_rollup SET sold_units = sold_units + ?, "
+            + "returned_units = returned_units + ?, income = income + ?, profit = profit + ?, "
+            + "sale_count = sale_count + ? WHERE date = ?";
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Sale sale) {
+        apply(sale, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(Sale sale) {
+        apply(sale, -1);
+    }
+
+    /**
+     * Add many sales at once; deltas are combined per (date, shop, product) first.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Collection<Sale> sales) {
+        Map<List<Object>, SalesDailyRollup> deltas = new LinkedHashMap<>();
+        for (Sale sale : sales) {
+            if (sale.getSaleDate() == null) {
+                continue;
+            }
+            Long shopId = sale.getShop() != null ? sale.getShop().getId() : null;
+            Long productId = sale.getProduct() != null ? sale.getProduct().getId() : null;
+            SalesDailyRollup delta = deltas.computeIfAbsent(Arrays.asList(sale.getSaleDate(), shopId, productId),
+                    k -> new SalesDailyRollup(sale.getSaleDate(), shopId, productId, 0L, 0L, 0.0, 0.0, 0L));
+            delta.setSoldUnits(delta.getSoldUnits() + (sale.getSoldUnits() != null ? sale.getSoldUnits() : 0));
+            delta.setReturnedUnits(delta.getReturnedUnits() + (sale.getReturnedUnits() != null ? sale.getReturnedUnits() : 0));
+            delta.setIncome(delta.getIncome() + (sale.getTotalIncome() != null ? sale.getTotalIncome() : 0.0));
+            delta.setProfit(delta.getProfit() + (sale.getTotalProfit() != null ? sale.getTotalProfit() : 0.0));
+            delta.setSaleCount(delta.getSaleCount() + 1);
+        }
+        deltas.values().forEach(this::applyDelta);
+    }
+
+    private void apply(Sale sale, int sign) {
+        if (sale.getSaleDate() == null) {
+            return;
+        }
+        Long shopId = sale.getShop() != null ? sale.getShop().getId() : null;
+        Long productId = sale.getProduct() != null ? sale.getProduct().getId() : null;
+        long sold = sign * (long) (sale.getSoldUnits() != null ? sale.getSoldUnits() : 0);
+        long returned = sign * (long) (sale.getReturnedUnits() != null ? sale.getReturnedUnits() : 0);
+        double income = sign * (sale.getTotalIncome() != null ? sale.getTotalIncome() : 0.0);
+        double profit = sign * (sale.getTotalProfit() != null ? sale.getTotalProfit() : 0.0);
+
+        applyDelta(new SalesDailyRollup(sale.getSaleDate(), shopId, productId,
+                sold, returned, income, profit, (long) sign));
+    }
+
+    /** Add the delta to its rollup row, creating the row if it does not exist yet. */
+    private void applyDelta(SalesDailyRollup delta) {
+        StringBuilder sql = new StringBuilder(ADD_DELTAS_SQL);
+        List<Object> args = new ArrayList<>(List.of(delta.getSoldUnits(), delta.getReturnedUnits(),
+                delta.getIncome(), delta.getProfit(), delta.getSaleCount(), java.sql.Date.valueOf(delta.getDate())));
+        sql.append(delta.getShopId() != null ? " AND shop_id = ?" : " AND shop_id IS NULL");
+        if (delta.getShopId() != null) {
+            args.add(delta.getShopId());
+        }
+        sql.append(delta.getProductId() != null ? " AND product_id = ?" : " AND product_id IS NULL");
+        if (delta.getProductId() != null) {
+            args.add(delta.getProductId());
+        }
+        int updated = jdbcTemplate.update(sql.toString(), args.toArray());
+        if (updated == 0 && delta.getSaleCount() > 0) {
+            rollupRepository.save(delta);
+        }
+    }
+
+    /**
+     * Recompute the whole rollup from the sales table.
+     *
+     * @return number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllInBatch();
+        List<SalesDailyRollup> rows = saleRepository.aggregateDaily();
+        rollupRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean needsRebuild() {
+        return rollupRepository.count() == 0 && saleRepository.count() > 0;
+    }
+
+    /**
+     * Per-shop totals for one month.
+     */
+    @Transactional(readOnly = true)
+    public SalesReport monthlyReport(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+        Map<Long, String> shopNames = shopService.getAllShops().stream()
+                .collect(Collectors.toMap(Shop::getId, Shop::getName));
+
+        List<RollupTotal> groups = rollupRepository.totalsByShop(from, to);
+        groups.forEach(g -> g.setName(shopNames.getOrDefault(g.getKey(), "Unknown Shop")));
+        return buildReport(from, to, groups);
+    }
+
+    /**
+     * Per-product totals for one day.
+     */
+    @Transactional(readOnly = true)
+    public SalesReport dailyReport(LocalDate date) {
+        return productReport(date, date, null);
+    }
+
+    /**
+     * Per-product totals and per-day rows for one shop.
+     */
+    @Transactional(readOnly = true)
+    public SalesReport shopHistoryReport(Long shopId, LocalDate from, LocalDate to) {
+        SalesReport report = productReport(from, to, shopId);
+        report.setDays(rollupRepository.findByShopIdAndDateBetweenOrderByDateDesc(shopId, from, to));
+        return report;
+    }
+
+    private SalesReport productReport(LocalDate from, LocalDate to, Long shopId) {
+        Map<Long, String> productNames = productService.getAllProducts().stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        List<RollupTotal> groups = rollupRepository.totalsByProduct(from, to, shopId);
+        groups.forEach(g -> g.setName(productNames.getOrDefault(g.getKey(), "Unknown Product")));
+        return buildReport(from, to, groups);
+    }
+
+    private SalesReport buildReport(LocalDate from, LocalDate to, List<RollupTotal> groups) {
+        SalesReport report = new SalesReport();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setGroups(groups);
+        for (RollupTotal g : groups) {
+            report.setSoldUnits(report.getSoldUnits() + g.getSoldUnits());
+            report.setReturnedUnits(report.getReturnedUnits() + g.getReturnedUnits());
+            report.setIncome(report.getIncome() + g.getIncome());
+            report.setProfit(report.getProfit() + g.getProfit());
+            report.setSaleCount(report.getSaleCount() + g.getSaleCount());
+        }
+        return report;
+    }
+}
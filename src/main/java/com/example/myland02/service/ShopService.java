@@ -1,9 +1,14 @@
 package com.example.myland02.service;
 
+import com.example.myland02.config.CacheConfig;
 import com.example.myland02.model.Shop;
 import com.example.myland02.repository.ShopRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,19 +18,61 @@ public class ShopService {
     @Autowired
     private ShopRepository shopRepository;
 
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Cacheable(cacheNames = CacheConfig.SHOPS, key = CacheConfig.ALL)
     public List<Shop> getAllShops() {
         return shopRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.SHOP_BY_ID, key = "#id", unless = "#result == null")
     public Optional<Shop> getShopById(Long id) {
         return shopRepository.findById(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SHOPS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.SHOP_BY_ID, key = "#result.id")
+    })
+    @Transactional
     public Shop saveShop(Shop shop) {
-        return shopRepository.save(shop);
+        TableVersions.Change change = shop.getId() == null ? TableVersions.Change.CREATE : TableVersions.Change.UPDATE;
+        Shop saved = shopRepository.save(shop);
+        tableVersions.changed(TableVersions.Table.SHOPS, change, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Change a shop's details on a row loaded here, never on the instance in
+     * the shop cache.
+     *
+     * @return the saved shop, or empty if it does not exist
+     */
+    @Caching(evict = {
+            // Also evicted up front, so a failed update leaves no entry behind
+            @CacheEvict(cacheNames = CacheConfig.SHOP_BY_ID, key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.SHOPS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.SHOP_BY_ID, key = "#id")
+    })
+    @Transactional
+    public Optional<Shop> updateShop(Long id, Shop details) {
+        return shopRepository.findById(id).map(shop -> {
+            shop.setName(details.getName());
+            shop.setAddress(details.getAddress());
+            shop.setContactNumber(details.getContactNumber());
+            shop.setEmail(details.getEmail());
+            return saveShop(shop);
+        });
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SHOPS, key = CacheConfig.ALL),
+            @CacheEvict(cacheNames = CacheConfig.SHOP_BY_ID, key = "#id")
+    })
+    @Transactional
     public void deleteShop(Long id) {
         shopRepository.deleteById(id);
+        tableVersions.changed(TableVersions.Table.SHOPS, TableVersions.Change.DELETE, id);
     }
-}
\ No newline at end of file
+}
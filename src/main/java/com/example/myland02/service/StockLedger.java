@@ -0,0 +1,280 @@
+package com.example.myland02.service;
+
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.repository.IngredientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory ingredient stock, keyed by ingredient id, used for all stock
+ * checks. Quantities are stored as the bits of a double in an AtomicLong and
+ * taken with compare-and-set, so two tablets recording production at the
+ * same time can never both pass the check for the last units, and checking
+ * never waits for the SQLite writer connection.
+ *
+ * Usage: {@link #reserve} takes the stock, {@link Reservation#commit} writes
+ * the matching {@code quantity = quantity - ?} deltas in the caller's
+ * transaction (and gives the stock back if that transaction rolls back),
+ * {@link Reservation#release} gives it back directly.
+ *
+ * Loaded from the ingredients table at startup; ingredients not seen yet are
+ * loaded on first use. Assumes this process is the only writer of
+ * ingredients.quantity.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String DEDUCT_SQL = "UPDATE ingredients SET quantity = quantity - ? WHERE id = ?";
+    private static final String RESTOCK_SQL = "UPDATE ingredients SET quantity = quantity + ? WHERE id = ?";
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BusinessMetrics metrics;
+
+    private final Map<Long, AtomicLong> stock = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        try {
+            List<Ingredient> ingredients = ingredientRepository.findAll();
+            for (Ingredient ingredient : ingredients) {
+                // putIfAbsent: a request may already have loaded and reserved from this cell
+                stock.putIfAbsent(ingredient.getId(), new AtomicLong(bits(quantityOf(ingredient))));
+            }
+            log.info("Stock ledger loaded: {} ingredients", ingredients.size());
+        } catch (Exception e) {
+            log.warn("Could not load stock ledger", e);
+        }
+    }
+
+    /**
+     * Current unreserved quantity; 0 for unknown ingredients.
+     */
+    public double available(Long ingredientId) {
+        AtomicLong cell = cell(ingredientId);
+        return cell != null ? Double.longBitsToDouble(cell.get()) : 0.0;
+    }
+
+    /**
+     * Take the given quantities (ingredient id -> quantity) all or nothing.
+     * Check {@link Reservation#isGranted()} on the result.
+     *
+     * @throws IllegalArgumentException if a quantity is negative; nothing is taken then
+     */
+    public Reservation reserve(Map<Long, Double> quantities) {
+        // Checked up front: throwing halfway would keep what was already taken
+        quantities.forEach((id, quantity) -> {
+            if (quantity != null && quantity < 0) {
+                throw new IllegalArgumentException("Quantity used cannot be negative: " + id);
+            }
+        });
+        Map<Long, Double> taken = new LinkedHashMap<>();
+        for (Map.Entry<Long, Double> entry : quantities.entrySet()) {
+            double quantity = entry.getValue() != null ? entry.getValue() : 0.0;
+            if (!tryTake(entry.getKey(), quantity)) {
+                taken.forEach(this::add);
+                metrics.stockRejected();
+                return new Reservation(Collections.emptyMap(), entry.getKey());
+            }
+            taken.put(entry.getKey(), quantity);
+        }
+        return new Reservation(taken, null);
+    }
+
+    /**
+     * Put stock back (ingredient id -> quantity), e.g. when a production run
+     * is deleted. The SQL deltas run now; the in-memory stock follows after
+     * commit.
+     */
+    public void restock(Map<Long, Double> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RESTOCK_SQL, deltas(quantities));
+        afterCommit(() -> quantities.forEach(this::add));
+    }
+
+    /**
+     * A new ingredient was stored with this quantity.
+     */
+    public void created(Long ingredientId, Double quantity) {
+        // A cell that is already there was loaded from the committed row
+        afterCommit(() -> stock.putIfAbsent(ingredientId, new AtomicLong(bits(quantity != null ? quantity : 0.0))));
+    }
+
+    /**
+     * The stored quantity was edited by delta (new minus stored value). It is
+     * added to the existing cell rather than replacing it: a reservation
+     * taken from that cell before the edit still commits or gives back its
+     * stock against the same cell.
+     */
+    public void adjusted(Long ingredientId, double delta) {
+        afterCommit(() -> add(ingredientId, delta));
+    }
+
+    public void remove(Long ingredientId) {
+        afterCommit(() -> stock.remove(ingredientId));
+    }
+
+    private boolean tryTake(Long ingredientId, double quantity) {
+        AtomicLong cell = cell(ingredientId);
+        if (cell == null) {
+            return false;
+        }
+        while (true) {
+            long current = cell.get();
+            double value = Double.longBitsToDouble(current);
+            if (value < quantity) {
+                return false;
+            }
+            if (cell.compareAndSet(current, bits(value - quantity))) {
+                return true;
+            }
+        }
+    }
+
+    private void add(Long ingredientId, double quantity) {
+        // No lazy load here: a row not loaded yet already includes this change
+        AtomicLong cell = stock.get(ingredientId);
+        if (cell == null) {
+            return;
+        }
+        while (true) {
+            long current = cell.get();
+            if (cell.compareAndSet(current, bits(Double.longBitsToDouble(current) + quantity))) {
+                return;
+            }
+        }
+    }
+
+    private AtomicLong cell(Long ingredientId) {
+        if (ingredientId == null) {
+            return null;
+        }
+        AtomicLong cell = stock.get(ingredientId);
+        if (cell != null) {
+            return cell;
+        }
+        // Not loaded yet; the database read happens outside the map so other ids are not held up
+        Ingredient ingredient = ingredientRepository.findById(ingredientId).orElse(null);
+        if (ingredient == null) {
+            return null;
+        }
+        AtomicLong loaded = new AtomicLong(bits(quantityOf(ingredient)));
+        AtomicLong existing = stock.putIfAbsent(ingredientId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static List<Object[]> deltas(Map<Long, Double> quantities) {
+        List<Object[]> args = new ArrayList<>();
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, id}));
+        return args;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static double quantityOf(Ingredient ingredient) {
+        return ingredient.getQuantity() != null ? ingredient.getQuantity() : 0.0;
+    }
+
+    private static long bits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Stock taken by {@link #reserve}. Either commit it or release it.
+     */
+    public final class Reservation {
+
+        private final Map<Long, Double> quantities;
+        private final Long shortIngredientId;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private Reservation(Map<Long, Double> quantities, Long shortIngredientId) {
+            this.quantities = quantities;
+            this.shortIngredientId = shortIngredientId;
+        }
+
+        public boolean isGranted() {
+            return shortIngredientId == null;
+        }
+
+        /**
+         * The first ingredient that did not have enough stock, or null.
+         */
+        public Long getShortIngredientId() {
+            return shortIngredientId;
+        }
+
+        /**
+         * Write the deductions to the database. Inside a transaction the
+         * stock is given back if the transaction does not commit.
+         */
+        public void commit() {
+            if (!isGranted() || quantities.isEmpty()) {
+                return;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            open.set(false);
+                        } else {
+                            release();
+                        }
+                    }
+                });
+            }
+            try {
+                jdbcTemplate.batchUpdate(DEDUCT_SQL, deltas(quantities));
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                open.set(false);
+            }
+        }
+
+        public void release() {
+            if (open.compareAndSet(true, false)) {
+                quantities.forEach(StockLedger.this::add);
+            }
+        }
+    }
+}
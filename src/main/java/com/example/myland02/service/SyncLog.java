@@ -0,0 +1,126 @@
+package com.example.myland02.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Durable change versions for delta sync ({@link SyncService}).
+ *
+ * Each recorded change takes the next value of sync_version and stamps it on
+ * the rows it created or updated (change_version); a deleted row leaves a
+ * tombstone with that version instead. The version row is updated inside the
+ * writing transaction, so it stays locked until commit (SQLite also has only
+ * one writer): versions become visible in commit order, and a reader that has
+ * seen version v has seen every change up to v.
+ *
+ * Every write path reports its rows to {@link TableVersions}, which records
+ * them here. Bulk inserts that only bump a table stamp their rows with
+ * {@link #next()} themselves.
+ *
+ * Tombstones older than myland.sync.tombstone-retention are pruned; a client
+ * that last synced before the pruned range has to do a full sync.
+ */
+@Component
+public class SyncLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncLog.class);
+
+    private static final String NEXT_SQL = "UPDATE sync_version SET version = version + 1 WHERE id = 1";
+    private static final String VERSION_SQL = "SELECT version FROM sync_version WHERE id = 1";
+    private static final String TOMBSTONES_FROM_SQL = "SELECT tombstones_from FROM sync_version WHERE id = 1";
+    private static final String CLEAR_TOMBSTONE_SQL = "DELETE FROM sync_tombstones WHERE entity = ? AND entity_id = ?";
+    private static final String TOMBSTONE_SQL = "INSERT INTO sync_tombstones "
+            + "(entity, entity_id, change_version, deleted_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${myland.sync.tombstone-retention:P90D}")
+    private Duration tombstoneRetention;
+
+    /** Takes the next change version; call inside the writing transaction. */
+    public long next() {
+        jdbcTemplate.update(NEXT_SQL);
+        return version();
+    }
+
+    /** Latest version visible to the current transaction. */
+    public long version() {
+        Long version = jdbcTemplate.queryForObject(VERSION_SQL, Long.class);
+        return version != null ? version : 0L;
+    }
+
+    /** Deletions at or below this version may have no tombstone any more. */
+    public long tombstonesFrom() {
+        Long from = jdbcTemplate.queryForObject(TOMBSTONES_FROM_SQL, Long.class);
+        return from != null ? from : 0L;
+    }
+
+    /** Stamps created or updated rows, or leaves tombstones for deleted ones. */
+    void record(TableVersions.Table table, TableVersions.Change change, Collection<Long> ids) {
+        List<Long> rows = new ArrayList<>(ids);
+        rows.removeIf(Objects::isNull);
+        if (rows.isEmpty()) {
+            return;
+        }
+        String entity = entity(table);
+        long version = next();
+
+        // A re-created id (SQLite may reuse the highest one) must not stay deleted
+        if (change != TableVersions.Change.UPDATE) {
+            jdbcTemplate.batchUpdate(CLEAR_TOMBSTONE_SQL, rows, rows.size(), (ps, id) -> {
+                ps.setString(1, entity);
+                ps.setLong(2, id);
+            });
+        }
+        if (change == TableVersions.Change.DELETE) {
+            long now = System.currentTimeMillis();
+            jdbcTemplate.batchUpdate(TOMBSTONE_SQL, rows, rows.size(), (ps, id) -> {
+                ps.setString(1, entity);
+                ps.setLong(2, id);
+                ps.setLong(3, version);
+                ps.setLong(4, now);
+            });
+        } else {
+            jdbcTemplate.batchUpdate("UPDATE " + entity + " SET change_version = ? WHERE id = ?", rows, rows.size(),
+                    (ps, id) -> {
+                        ps.setLong(1, version);
+                        ps.setLong(2, id);
+                    });
+        }
+    }
+
+    @Scheduled(initialDelayString = "${myland.sync.prune-interval:PT6H}",
+            fixedDelayString = "${myland.sync.prune-interval:PT6H}")
+    @Transactional
+    public void pruneTombstones() {
+        long cutoff = System.currentTimeMillis() - tombstoneRetention.toMillis();
+        Long upTo = jdbcTemplate.queryForObject(
+                "SELECT MAX(change_version) FROM sync_tombstones WHERE deleted_at < ?", Long.class, cutoff);
+        if (upTo == null) {
+            return;
+        }
+        int pruned = jdbcTemplate.update("DELETE FROM sync_tombstones WHERE change_version <= ?", upTo);
+        jdbcTemplate.update("UPDATE sync_version SET tombstones_from = ? WHERE id = 1 AND tombstones_from < ?",
+                upTo, upTo);
+        log.info("Pruned {} sync tombstones up to version {}", pruned, upTo);
+    }
+
+    /** Table name, also used as the entity name in sync responses and change events. */
+    static String entity(TableVersions.Table table) {
+        return table.name().toLowerCase(Locale.ROOT);
+    }
+}
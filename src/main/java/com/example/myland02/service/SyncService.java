@@ -0,0 +1,214 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.SaleUpload;
+import com.example.myland02.dto.SaleUploadResult;
+import com.example.myland02.dto.SyncChanges;
+import com.example.myland02.model.Sale;
+import com.example.myland02.repository.IngredientRepository;
+import com.example.myland02.repository.ProductRepository;
+import com.example.myland02.repository.ProductionRepository;
+import com.example.myland02.repository.SaleRepository;
+import com.example.myland02.repository.ShopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync for clients that keep a local copy of the lists (the PWA on
+ * shop tablets): {@link #changesSince} returns only the rows stamped after
+ * the client's version plus tombstones, so steady-state traffic follows the
+ * number of changes rather than the size of the history. Sales recorded
+ * offline come back through {@link #uploadSales}, which applies each one
+ * exactly once.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    // Ids per IN (...) query, well below SQLite's bound parameter limit
+    private static final int ID_CHUNK = 500;
+    private static final int MAX_CLIENT_REF_LENGTH = 64;
+
+    @Autowired
+    private SyncLog syncLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private ShopRepository shopRepo;
+
+    @Autowired
+    private IngredientRepository ingredientRepo;
+
+    @Autowired
+    private ProductionRepository productionRepo;
+
+    @Autowired
+    private SaleRepository saleRepo;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ShopService shopService;
+
+    /**
+     * Rows of the given tables changed after {@code since}. A client without a
+     * version (0), from another database (ahead of this one) or older than the
+     * pruned tombstones gets a full copy instead.
+     *
+     * Everything is read in one transaction, i.e. one snapshot, so the
+     * returned version matches the returned rows exactly.
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges changesSince(long since, Collection<TableVersions.Table> tables) {
+        long version = syncLog.version();
+        boolean full = since <= 0 || since > version || since < syncLog.tombstonesFrom();
+
+        Map<String, List<?>> changed = new LinkedHashMap<>();
+        Map<String, List<Long>> deleted = new LinkedHashMap<>();
+        for (TableVersions.Table table : tables) {
+            String entity = SyncLog.entity(table);
+            if (full) {
+                changed.put(entity, findAll(table));
+                deleted.put(entity, List.of());
+                continue;
+            }
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM " + entity + " WHERE change_version > ?", Long.class, since);
+            changed.put(entity, findByIds(table, ids));
+            deleted.put(entity, jdbcTemplate.queryForList(
+                    "SELECT entity_id FROM sync_tombstones WHERE entity = ? AND change_version > ?",
+                    Long.class, entity, since));
+        }
+        return new SyncChanges(version, full, changed, deleted);
+    }
+
+    /**
+     * Record sales that were queued on a device while it was offline. A sale
+     * whose client reference is already known is reported as a duplicate and
+     * not recorded again, so the device can simply resend its queue until it
+     * gets an answer. Invalid entries are reported and skipped; the valid ones
+     * are saved in one transaction.
+     *
+     * Offline sales already happened in the shop, so they are not checked
+     * against product stock.
+     */
+    @Transactional
+    public List<SaleUploadResult> uploadSales(List<SaleUpload> uploads) {
+        List<SaleUploadResult> results = new ArrayList<>();
+        Map<String, Long> recorded = new HashMap<>();
+        int created = 0;
+        for (SaleUpload upload : uploads) {
+            String clientRef = upload.getClientRef();
+            String error = validate(upload);
+            if (error != null) {
+                results.add(SaleUploadResult.failed(clientRef, error));
+                continue;
+            }
+            Long existing = recorded.containsKey(clientRef)
+                    ? recorded.get(clientRef)
+                    : saleService.findIdByClientRef(clientRef).orElse(null);
+            if (existing != null) {
+                results.add(SaleUploadResult.duplicate(clientRef, existing));
+                continue;
+            }
+            Sale sale = upload.getSale();
+            sale.setId(null);
+            Sale saved = saleService.record(sale, clientRef);
+            recorded.put(clientRef, saved.getId());
+            results.add(SaleUploadResult.created(clientRef, saved.getId()));
+            created++;
+        }
+        log.info("Sale upload: {} received, {} recorded", uploads.size(), created);
+        return results;
+    }
+
+    private String validate(SaleUpload upload) {
+        String clientRef = upload.getClientRef();
+        if (clientRef == null || clientRef.isBlank() || clientRef.length() > MAX_CLIENT_REF_LENGTH) {
+            return "clientRef is required (at most " + MAX_CLIENT_REF_LENGTH + " characters)";
+        }
+        Sale sale = upload.getSale();
+        if (sale == null) {
+            return "sale is required";
+        }
+        if (sale.getProduct() == null || sale.getProduct().getId() == null) {
+            return "Product ID is required";
+        }
+        if (productService.getProductById(sale.getProduct().getId()).isEmpty()) {
+            return "Product not found: " + sale.getProduct().getId();
+        }
+        if (sale.getShop() != null && sale.getShop().getId() != null
+                && shopService.getShopById(sale.getShop().getId()).isEmpty()) {
+            return "Shop not found: " + sale.getShop().getId();
+        }
+        if (sale.getSaleDate() == null) {
+            return "saleDate is required";
+        }
+        if (sale.getSellingPrice() == null || sale.getSellingPrice() < 0) {
+            return "Selling price cannot be negative";
+        }
+        if (sale.getSoldUnits() == null || sale.getSoldUnits() <= 0) {
+            return "Sold units must be greater than 0";
+        }
+        return null;
+    }
+
+    private List<?> findAll(TableVersions.Table table) {
+        switch (table) {
+            case PRODUCTS:
+                return productRepo.findAll();
+            case SHOPS:
+                return shopRepo.findAll();
+            case INGREDIENTS:
+                return ingredientRepo.findAll();
+            case PRODUCTION:
+                return productionRepo.findAllWithDetails();
+            default:
+                return saleRepo.findAllWithDetails();
+        }
+    }
+
+    private List<?> findByIds(TableVersions.Table table, List<Long> ids) {
+        List<Object> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+            switch (table) {
+                case PRODUCTS:
+                    rows.addAll(productRepo.findAllById(chunk));
+                    break;
+                case SHOPS:
+                    rows.addAll(shopRepo.findAllById(chunk));
+                    break;
+                case INGREDIENTS:
+                    rows.addAll(ingredientRepo.findAllById(chunk));
+                    break;
+                case PRODUCTION:
+                    rows.addAll(productionRepo.findAllWithDetailsByIdIn(chunk));
+                    break;
+                default:
+                    rows.addAll(saleRepo.findAllWithDetailsByIdIn(chunk));
+            }
+        }
+        return rows;
+    }
+}
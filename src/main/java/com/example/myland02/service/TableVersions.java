@@ -0,0 +1,110 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.ChangeEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counter per table, used as the ETag of the list
+ * endpoints so an unchanged list can be answered with 304 without touching
+ * the database.
+ *
+ * Every write path calls {@link #changed} with the rows it wrote, or
+ * {@link #bump} when it wrote too many to list. Inside a transaction the
+ * bump happens after commit: bumping earlier would let a concurrent reader
+ * pair the new version with the old rows. Counters start from the startup
+ * time, so ETags from before a restart never match.
+ *
+ * Each bump is also published on the {@link ChangeStream}, so open screens
+ * can patch the changed rows. Changed rows are also stamped in the
+ * {@link SyncLog} right away, in the writing transaction, for delta sync.
+ */
+@Component
+public class TableVersions {
+
+    public enum Table { PRODUCTS, SHOPS, INGREDIENTS, PRODUCTION, SALES }
+
+    public enum Change { CREATE, UPDATE, DELETE }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+    private final ChangeStream changeStream;
+    private final SyncLog syncLog;
+
+    public TableVersions(ChangeStream changeStream, SyncLog syncLog) {
+        this.changeStream = changeStream;
+        this.syncLog = syncLog;
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    /**
+     * Many rows of the table changed (e.g. an import); clients reload it.
+     * The caller stamps its rows with {@link SyncLog#next()} itself.
+     */
+    public void bump(Table table) {
+        afterCommit(() -> publish(table, "reload", Collections.singletonList(null)));
+    }
+
+    public void changed(Table table, Change change, Long id) {
+        changed(table, change, Collections.singletonList(id));
+    }
+
+    public void changed(Table table, Change change, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String op = change.name().toLowerCase(Locale.ROOT);
+        List<Long> changedIds = new ArrayList<>(ids);
+        syncLog.record(table, change, changedIds);
+        afterCommit(() -> publish(table, op, changedIds));
+    }
+
+    /**
+     * ETag covering the given tables. Read it before loading the rows: a write
+     * that lands in between then only costs the client one extra fetch.
+     *
+     * The tag is weak because the same version is sent both plain and gzipped
+     * (Tomcat also refuses to compress responses that carry a strong ETag);
+     * If-None-Match uses weak comparison, so 304s are unaffected.
+     */
+    public String etag(Table... tables) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch);
+        for (Table table : tables) {
+            tag.append('-').append(versions.get(table).get());
+        }
+        return tag.append('"').toString();
+    }
+
+    private void publish(Table table, String op, Collection<Long> ids) {
+        long version = versions.get(table).incrementAndGet();
+        String entity = SyncLog.entity(table);
+        for (Long id : ids) {
+            changeStream.publish(new ChangeEvent(entity, id, op, version));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.myland02.service;
+
+import com.example.myland02.config.RequestIdFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for the single SQLite writer. Sale and production writes are
+ * queued here and one writer thread runs them in batches, one transaction
+ * (and so one commit, an fsync with synchronous=FULL) per batch instead of
+ * one per request.
+ *
+ * A batch starts with the oldest queued write and takes whatever else is
+ * queued, up to myland.writes.max-batch writes. Writes that arrive while a
+ * batch commits make up the next one, so batches grow with the load without
+ * holding back a lone write; myland.writes.max-wait (0 by default) can add a
+ * short wait for more. Each caller waits for its own result, which is handed
+ * over only after the batch committed.
+ *
+ * Every write runs in its own savepoint. A write that throws (e.g. a
+ * production run refused for lack of stock) is rolled back to it, together
+ * with the transaction callbacks it registered, and gets its exception after
+ * the rest of the batch committed. A database or JPA error may leave the
+ * persistence context unusable, and an exception leaving a
+ * {@code @Transactional} method marks the whole transaction rollback-only
+ * (unless declared with noRollbackFor), so these roll back the batch
+ * instead; the failing write gets its exception and the others are run
+ * again without it. Writes must therefore fail by throwing (not by marking the transaction
+ * rollback-only) and be safe to run again after a rollback, which holds for
+ * everything that keeps its state in the database or undoes it on rollback
+ * ({@link StockLedger}).
+ *
+ * The queue is bounded (myland.writes.queue-capacity). When it is full a
+ * caller waits up to myland.writes.offer-timeout for space and then gets a
+ * {@link RejectedExecutionException}.
+ *
+ * With myland.writes.group-commit=false every write runs in its own
+ * transaction on the calling thread, as before.
+ *
+ * Metrics: myland.writes.batch.size, myland.writes.commit (batch transaction
+ * time), myland.writes.queue.wait, myland.writes.queue.size,
+ * myland.writes.batch.retries and myland.writes.rejected.
+ */
+@Component
+public class WriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteQueue.class);
+
+    private final TransactionTemplate transaction;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final BlockingQueue<Write<?>> queue;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final long offerTimeoutMillis;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitTime;
+    private final Timer queueWait;
+    private final Counter retries;
+    private final Counter rejected;
+
+    private final Thread writer = new Thread(this::drain, "sqlite-group-commit");
+    private volatile boolean running = true;
+
+    public WriteQueue(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                      JdbcTemplate jdbcTemplate, MeterRegistry registry,
+                      @Value("${myland.writes.group-commit:true}") boolean enabled,
+                      @Value("${myland.writes.queue-capacity:256}") int capacity,
+                      @Value("${myland.writes.max-batch:64}") int maxBatch,
+                      @Value("${myland.writes.max-wait:PT0S}") Duration maxWait,
+                      @Value("${myland.writes.offer-timeout:PT5S}") Duration offerTimeout) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+
+        batchSize = DistributionSummary.builder("myland.writes.batch.size")
+                .description("Writes committed together in one transaction").register(registry);
+        commitTime = Timer.builder("myland.writes.commit")
+                .description("Time to run and commit one batch of writes").register(registry);
+        queueWait = Timer.builder("myland.writes.queue.wait")
+                .description("Time a write waited in the queue before its batch started").register(registry);
+        retries = Counter.builder("myland.writes.batch.retries")
+                .description("Batches rolled back by a database error and run again without the failing write")
+                .register(registry);
+        rejected = Counter.builder("myland.writes.rejected")
+                .description("Writes refused because the queue stayed full").register(registry);
+        Gauge.builder("myland.writes.queue.size", queue, BlockingQueue::size)
+                .description("Writes waiting for the writer thread").register(registry);
+        writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /**
+     * Run {@code work} in a write transaction and return its result. Blocks
+     * until the transaction has committed; an exception thrown by the work is
+     * rethrown here.
+     *
+     * @throws RejectedExecutionException if the queue stayed full
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (!enabled) {
+            return transaction.execute(status -> work.get());
+        }
+        Write<T> write = new Write<>(work);
+        try {
+            if (!running || !queue.offer(write, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Too many writes waiting, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to queue a write", e);
+        }
+        try {
+            return write.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (enabled) {
+            // Writes already queued are still committed
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void drain() {
+        List<Write<?>> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Write<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    Write<?> next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                    }
+                    batch.add(next);
+                }
+                long started = System.nanoTime();
+                for (Write<?> write : batch) {
+                    queueWait.record(started - write.queuedAt, TimeUnit.NANOSECONDS);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                // Only stop() ends the loop, after the queue is empty
+            } catch (RuntimeException | Error e) {
+                log.error("Write queue failed on a batch of {}", batch.size(), e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Write<?>> batch) {
+        List<Write<?>> pending = new ArrayList<>(batch);
+        while (!pending.isEmpty()) {
+            Write<?>[] current = new Write<?>[1];
+            long started = System.nanoTime();
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (Write<?> write : pending) {
+                        current[0] = write;
+                        runInSavepoint(write, status);
+                    }
+                    current[0] = null;
+                });
+            } catch (RuntimeException e) {
+                Write<?> failed = current[0];
+                if (failed == null) {
+                    if (pending.size() > 1) {
+                        // Failed on commit, no single write to blame
+                        log.debug("Batch of {} writes failed to commit, running them one by one", pending.size(), e);
+                        retries.increment();
+                        pending.forEach(write -> commit(Collections.singletonList(write)));
+                        return;
+                    }
+                    failed = pending.get(0);
+                }
+                failed.result.completeExceptionally(e);
+                pending.remove(failed);
+                if (!pending.isEmpty()) {
+                    retries.increment();
+                }
+                continue;
+            }
+            long committed = pending.stream().filter(write -> write.error == null).count();
+            if (committed > 0) {
+                commitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                batchSize.record(committed);
+            }
+            pending.forEach(Write::complete);
+            return;
+        }
+    }
+
+    private void runInSavepoint(Write<?> write, TransactionStatus status) {
+        // On the transaction's JDBC connection; Hibernate's JPA dialect has no savepoint support
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        List<TransactionSynchronization> before = TransactionSynchronizationManager.getSynchronizations();
+        try {
+            write.run();
+            // Pending entity changes belong to this write, so they fail here and not on commit
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            // A @Transactional method the exception passed through may have doomed the batch already
+            if (e instanceof DataAccessException || e instanceof PersistenceException || status.isRollbackOnly()) {
+                throw e;
+            }
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            entityManager.clear();
+            discardSynchronizationsSince(before);
+            write.failed(e);
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    /**
+     * Drops the callbacks registered since {@code before}, telling them their
+     * work was rolled back (e.g. a stock reservation is given back).
+     */
+    private static void discardSynchronizationsSince(List<TransactionSynchronization> before) {
+        List<TransactionSynchronization> added = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        added.removeAll(before);
+        if (added.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        before.forEach(TransactionSynchronizationManager::registerSynchronization);
+        TransactionSynchronizationUtils.invokeAfterCompletion(added, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    private static final class Write<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long queuedAt = System.nanoTime();
+        // The caller's request id, so log lines of the write still carry it
+        final String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        T value;
+        RuntimeException error;
+
+        Write(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            error = null;
+            if (requestId != null) {
+                MDC.put(RequestIdFilter.MDC_KEY, requestId);
+            }
+            try {
+                value = work.get();
+            } finally {
+                MDC.remove(RequestIdFilter.MDC_KEY);
+            }
+        }
+
+        void failed(RuntimeException e) {
+            error = e;
+        }
+
+        void complete() {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
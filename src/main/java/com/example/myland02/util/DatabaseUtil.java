@@ -1,11 +1,15 @@
 package com.example.myland02.util;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DatabaseUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseUtil.class);
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
@@ -30,9 +34,9 @@ public class DatabaseUtil {
                 jdbcTemplate.update(insertSeqQuery, tableName, maxId);
             }
             
-            System.out.println("Reset sequence for " + tableName + " to " + maxId);
+            log.info("Reset sequence for {} to {}", tableName, maxId);
         } catch (Exception e) {
-            System.err.println("Error resetting sequence for " + tableName + ": " + e.getMessage());
+            log.error("Error resetting sequence for {}", tableName, e);
         }
     }
     
@@ -42,9 +46,9 @@ public class DatabaseUtil {
     public void enableForeignKeys() {
         try {
             jdbcTemplate.execute("PRAGMA foreign_keys = ON");
-            System.out.println("Foreign keys enabled");
+            log.debug("Foreign keys enabled");
         } catch (Exception e) {
-            System.err.println("Error enabling foreign keys: " + e.getMessage());
+            log.error("Error enabling foreign keys", e);
         }
     }
 }
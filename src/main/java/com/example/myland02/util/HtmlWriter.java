@@ -0,0 +1,62 @@
+package com.example.myland02.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Thin wrapper over a Writer for the printed reports: markup is written as
+ * given, values are escaped. Nothing is buffered here, so a report goes out
+ * as it is rendered.
+ */
+public final class HtmlWriter {
+
+    private final Writer out;
+
+    public HtmlWriter(Writer out) {
+        this.out = out;
+    }
+
+    /** Markup, written unescaped. */
+    public HtmlWriter raw(String html) throws IOException {
+        out.write(html);
+        return this;
+    }
+
+    /** A value, HTML-escaped; null is written as "N/A". */
+    public HtmlWriter text(Object value) throws IOException {
+        out.write(value != null ? HtmlUtils.htmlEscape(value.toString()) : "N/A");
+        return this;
+    }
+
+    public HtmlWriter cell(Object value) throws IOException {
+        return raw("<td>").text(value).raw("</td>");
+    }
+
+    public HtmlWriter moneyCell(double value) throws IOException {
+        return raw("<td>").raw(money(value)).raw("</td>");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /** Same format as the browser side: $1234.50 */
+    public static String money(double value) {
+        return (value < 0 ? "-$" : "$") + String.format(Locale.US, "%.2f", Math.abs(value));
+    }
+
+    public static double nz(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    public static long nz(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    public static int nz(Integer value) {
+        return value != null ? value : 0;
+    }
+}
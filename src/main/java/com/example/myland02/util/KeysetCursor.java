@@ -0,0 +1,53 @@
+package com.example.myland02.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Opaque position in a list ordered by (date DESC, id DESC).
+ * Serialized as "yyyy-MM-dd_id", e.g. "2026-02-07_42".
+ */
+public class KeysetCursor {
+
+    private final LocalDate date;
+    private final Long id;
+
+    public KeysetCursor(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Parse a cursor from a request parameter; returns null for a blank value.
+     *
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int sep = value.lastIndexOf('_');
+        if (sep <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new KeysetCursor(LocalDate.parse(value.substring(0, sep)),
+                    Long.parseLong(value.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return date + "_" + id;
+    }
+}
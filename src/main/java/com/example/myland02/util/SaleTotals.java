@@ -0,0 +1,32 @@
+package com.example.myland02.util;
+
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+
+/**
+ * Income and profit rules for a sale, shared by single-sale recording and bulk import.
+ */
+public final class SaleTotals {
+
+    private SaleTotals() {
+    }
+
+    /**
+     * Set totalIncome and totalProfit on the sale from its units, selling price
+     * and the product cost. Net units = sold - returned, never below zero.
+     */
+    public static void apply(Sale sale, Product product) {
+        int soldUnits = sale.getSoldUnits() != null ? sale.getSoldUnits() : 0;
+        int returnedUnits = sale.getReturnedUnits() != null ? sale.getReturnedUnits() : 0;
+        int netUnits = soldUnits - returnedUnits;
+
+        if (netUnits < 0)
+            netUnits = 0; // preventative
+
+        Double sellingPrice = sale.getSellingPrice() != null ? sale.getSellingPrice() : 0.0;
+        Double productCost = product.getProductCost() != null ? product.getProductCost() : 0.0;
+
+        sale.setTotalIncome(netUnits * sellingPrice);
+        sale.setTotalProfit(netUnits * (sellingPrice - productCost));
+    }
+}
@@ -0,0 +1,15 @@
+CREATE TABLE products (id bigint generated by default as identity, name varchar(255) not null, description varchar(255), price float(53) not null, product_cost float(53) not null, created_at timestamp(6), updated_at timestamp(6), primary key (id));
+CREATE TABLE ingredients (id bigint generated by default as identity, name varchar(255) not null, ingredient_type varchar(255) not null, quantity float(53), price_per_unit float(53), primary key (id));
+CREATE TABLE shops (id bigint generated by default as identity, name varchar(255) not null, address varchar(255), contact_number varchar(255), email varchar(255), city varchar(255), primary key (id));
+CREATE TABLE product_ingredients (id bigint generated by default as identity, product_id bigint, ingredient_id bigint, amount_required float(53) not null, primary key (id));
+CREATE TABLE production (id bigint generated by default as identity, date date not null, product_id bigint, produced_units integer not null, primary key (id));
+CREATE TABLE production_ingredients (id bigint generated by default as identity, production_id bigint, ingredient_id bigint, quantity_used float(53) not null, primary key (id));
+CREATE TABLE sales (id bigint generated by default as identity, date date not null, product_id bigint, shop_id bigint, selling_price float(53) not null, sold_units integer not null, returned_units integer, income float(53), profit float(53), primary key (id));
+
+ALTER TABLE product_ingredients ADD CONSTRAINT fk_product_ingredients_product FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE product_ingredients ADD CONSTRAINT fk_product_ingredients_ingredient FOREIGN KEY (ingredient_id) REFERENCES ingredients;
+ALTER TABLE production ADD CONSTRAINT fk_production_product FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE production_ingredients ADD CONSTRAINT fk_production_ingredients_production FOREIGN KEY (production_id) REFERENCES production;
+ALTER TABLE production_ingredients ADD CONSTRAINT fk_production_ingredients_ingredient FOREIGN KEY (ingredient_id) REFERENCES ingredients;
+ALTER TABLE sales ADD CONSTRAINT fk_sales_product FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE sales ADD CONSTRAINT fk_sales_shop FOREIGN KEY (shop_id) REFERENCES shops;
@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (id bigint generated by default as identity, date date not null, shop_id bigint, product_id bigint, sold_units bigint not null, returned_units bigint not null, income float(53) not null, profit float(53) not null, sale_count bigint not null, primary key (id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sales_daily_rollup_key ON sales_daily_rollup (date, shop_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_shop_date ON sales_daily_rollup (shop_id, date);
@@ -0,0 +1,25 @@
+-- Delta sync (/api/myland/sync): each write transaction takes the next sync_version and
+-- stamps it on the rows it wrote; deleted rows leave a tombstone. Existing rows keep 0
+-- and are only sent in a full sync.
+ALTER TABLE products ADD COLUMN change_version bigint default 0 not null;
+ALTER TABLE shops ADD COLUMN change_version bigint default 0 not null;
+ALTER TABLE ingredients ADD COLUMN change_version bigint default 0 not null;
+ALTER TABLE production ADD COLUMN change_version bigint default 0 not null;
+ALTER TABLE sales ADD COLUMN change_version bigint default 0 not null;
+CREATE INDEX idx_products_change_version ON products (change_version);
+CREATE INDEX idx_shops_change_version ON shops (change_version);
+CREATE INDEX idx_ingredients_change_version ON ingredients (change_version);
+CREATE INDEX idx_production_change_version ON production (change_version);
+CREATE INDEX idx_sales_change_version ON sales (change_version);
+
+-- Id the recording device gave a sale, so an upload that is retried is applied once
+ALTER TABLE sales ADD COLUMN client_ref varchar(64);
+CREATE UNIQUE INDEX idx_sales_client_ref ON sales (client_ref);
+
+-- tombstones_from: tombstones up to this version have been pruned
+CREATE TABLE sync_version (id integer not null, version bigint not null, tombstones_from bigint not null, primary key (id));
+INSERT INTO sync_version (id, version, tombstones_from) VALUES (1, 0, 0);
+
+-- deleted_at is epoch millis
+CREATE TABLE sync_tombstones (entity varchar(20) not null, entity_id bigint not null, change_version bigint not null, deleted_at bigint not null, primary key (entity, entity_id));
+CREATE INDEX idx_sync_tombstones_version ON sync_tombstones (change_version);
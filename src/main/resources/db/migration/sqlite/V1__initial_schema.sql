@@ -0,0 +1,10 @@
+-- Schema as previously created by Hibernate ddl-auto=update.
+-- Existing databases are baselined at version 1 and skip this script.
+
+CREATE TABLE IF NOT EXISTS products (id integer, price float not null, created_at timestamp, description varchar(255), name varchar(255) not null, product_cost float not null, updated_at timestamp, primary key (id));
+CREATE TABLE IF NOT EXISTS ingredients (id integer, name varchar(255) not null, price_per_unit float, quantity float, ingredient_type varchar(255) not null, primary key (id));
+CREATE TABLE IF NOT EXISTS shops (id integer, address varchar(255), city varchar(255), contact_number varchar(255), email varchar(255), name varchar(255) not null, primary key (id));
+CREATE TABLE IF NOT EXISTS product_ingredients (id integer, amount_required float not null, ingredient_id bigint, product_id bigint, primary key (id));
+CREATE TABLE IF NOT EXISTS production (id integer, date date not null, produced_units integer not null, product_id bigint, primary key (id));
+CREATE TABLE IF NOT EXISTS production_ingredients (id integer, quantity_used float not null, ingredient_id bigint, production_id bigint, primary key (id));
+CREATE TABLE IF NOT EXISTS sales (id integer, returned_units integer, date date not null, selling_price float not null, sold_units integer not null, income float, profit float, product_id bigint, shop_id bigint, primary key (id));
@@ -0,0 +1,5 @@
+-- May already exist on databases that ran with ddl-auto=update
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (id integer, date date not null, income float not null, product_id bigint, profit float not null, returned_units bigint not null, sale_count bigint not null, shop_id bigint, sold_units bigint not null, primary key (id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sales_daily_rollup_key ON sales_daily_rollup (date, shop_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_shop_date ON sales_daily_rollup (shop_id, date);
@@ -0,0 +1,13 @@
+-- Append-only stock journal; quantity is signed (negative = stock out)
+CREATE TABLE inventory_movements (id integer, ingredient_id bigint not null, movement_type varchar(20) not null, quantity float not null, production_id bigint, occurred_at timestamp not null, note varchar(255), primary key (id));
+CREATE INDEX idx_inventory_movements_ingredient ON inventory_movements (ingredient_id, id);
+CREATE INDEX idx_inventory_movements_production ON inventory_movements (production_id);
+
+-- Running total per ingredient up to and including last_movement_id
+CREATE TABLE inventory_snapshots (id integer, ingredient_id bigint not null, last_movement_id bigint not null, quantity float not null, as_of timestamp not null, primary key (id));
+CREATE INDEX idx_inventory_snapshots_ingredient ON inventory_snapshots (ingredient_id, last_movement_id);
+
+-- Existing stock becomes the opening balance (timestamps are epoch millis, as Hibernate writes them)
+INSERT INTO inventory_movements (ingredient_id, movement_type, quantity, occurred_at, note)
+SELECT id, 'ADJUSTMENT', quantity, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER), 'Opening balance'
+FROM ingredients WHERE quantity IS NOT NULL AND quantity <> 0;
@@ -0,0 +1,7 @@
+IF OBJECT_ID('sales_daily_rollup', 'U') IS NULL
+    CREATE TABLE sales_daily_rollup (id bigint identity not null, date date not null, shop_id bigint, product_id bigint, sold_units bigint not null, returned_units bigint not null, income float(53) not null, profit float(53) not null, sale_count bigint not null, primary key (id));
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_sales_daily_rollup_key')
+    CREATE UNIQUE INDEX ux_sales_daily_rollup_key ON sales_daily_rollup (date, shop_id, product_id);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_sales_daily_rollup_shop_date')
+    CREATE INDEX idx_sales_daily_rollup_shop_date ON sales_daily_rollup (shop_id, date);
@@ -0,0 +1,15 @@
+-- Keyset lists (date DESC, id DESC), date ranges and per-product/per-shop filters
+CREATE INDEX idx_sales_date_id ON sales (date, id);
+CREATE INDEX idx_sales_product_date ON sales (product_id, date);
+CREATE INDEX idx_sales_shop_date ON sales (shop_id, date);
+-- Covers the dashboard per-day totals without touching the table
+CREATE INDEX idx_sales_date_totals ON sales (date) INCLUDE (income, profit);
+
+CREATE INDEX idx_production_date_id ON production (date, id);
+CREATE INDEX idx_production_product_date ON production (product_id, date);
+
+CREATE INDEX idx_production_ingredients_production ON production_ingredients (production_id);
+CREATE INDEX idx_production_ingredients_ingredient ON production_ingredients (ingredient_id);
+
+CREATE INDEX idx_product_ingredients_product ON product_ingredients (product_id);
+CREATE INDEX idx_product_ingredients_ingredient ON product_ingredients (ingredient_id);
@@ -0,0 +1,9 @@
+-- Units produced and sold per product, maintained with every production/sale write
+-- (in storage = produced - sold). Seeded from the base tables.
+CREATE TABLE product_stock (product_id bigint not null, produced_units bigint not null, sold_units bigint not null, primary key (product_id));
+
+INSERT INTO product_stock (product_id, produced_units, sold_units)
+SELECT p.id,
+       COALESCE((SELECT SUM(pr.produced_units) FROM production pr WHERE pr.product_id = p.id), 0),
+       COALESCE((SELECT SUM(s.sold_units) FROM sales s WHERE s.product_id = p.id), 0)
+FROM products p;
@@ -5,6 +5,7 @@ let ingredients = [];
 let production = [];
 let sales = [];
 let shops = [];
+let productStock = [];
 
 // API Base URL
 const API_BASE = '/api/myland';
@@ -60,11 +61,16 @@ function initializeApp() {
 
     if (currentPage) {
         // If on a specific page, load its data
+        currentTab = currentPage;
         loadTabData(currentPage);
     } else {
         // Fallback for single-page app style or default
         loadTabData('products');
     }
+
+    startChangeStream();
+    uploadPendingSales();
+    window.addEventListener('online', uploadPendingSales);
 }
 
 // Tab Navigation
@@ -149,6 +155,353 @@ function loadTabData(tabName) {
     }
 }
 
+// Live updates
+// Saves and deletes made on any screen arrive as small change events
+// ({entity, id, op}); the lists this page holds are patched one row at a
+// time instead of being downloaded again.
+let changeStream = null;
+
+const byNewest = (dateField) => (a, b) =>
+    String(b[dateField] || '').localeCompare(String(a[dateField] || '')) || b.id - a.id;
+
+const LIVE_LISTS = {
+    products: {
+        row: id => `/api/products/${id}`,
+        get: () => products, set: list => { products = list; },
+        show: () => displayProducts(products)
+    },
+    shops: {
+        row: id => `/api/shops/${id}`,
+        get: () => shops, set: list => { shops = list; },
+        show: () => displayShops()
+    },
+    ingredients: {
+        row: id => `${API_BASE}/ingredient/${id}`,
+        get: () => ingredients, set: list => { ingredients = list; },
+        show: () => {
+            displayIngredients(ingredients);
+            if (document.getElementById('inventory-tbody')) {
+                displayInventory(ingredients);
+                calculateInventorySummary(ingredients);
+            }
+        }
+    },
+    production: {
+        row: id => `${API_BASE}/production/${id}`,
+        get: () => production, set: list => { production = list; },
+        order: byNewest('date'),
+        show: () => displayProduction(production)
+    },
+    sales: {
+        row: id => `${API_BASE}/sale/${id}`,
+        get: () => sales, set: list => { sales = list; },
+        order: byNewest('saleDate'),
+        show: () => {
+            displaySales(sales);
+            if (currentTab === 'sales' && document.getElementById('report-date')) {
+                generateMonthlyReport();
+                generateDailyReport();
+            }
+        }
+    }
+};
+
+// Tables each list is shown in; a list that is neither shown nor loaded is left alone
+const LIVE_TABLES = {
+    products: 'products-tbody',
+    shops: 'shops-tbody',
+    ingredients: 'ingredients-tbody',
+    production: 'production-tbody',
+    sales: 'sales-tbody'
+};
+
+function startChangeStream() {
+    if (typeof EventSource === 'undefined') return;
+
+    changeStream = new EventSource(`${API_BASE}/changes`);
+    changeStream.addEventListener('open', uploadPendingSales);
+    // The browser reconnects by itself and sends Last-Event-ID; the server
+    // replays what was missed, or answers with "reset" when it cannot
+    changeStream.addEventListener('reset', () => loadTabData(currentTab));
+    changeStream.addEventListener('change', event => {
+        try {
+            applyChange(JSON.parse(event.data));
+        } catch (error) {
+            console.error('Could not apply change:', event.data, error);
+        }
+    });
+}
+
+// True while changes are streaming in, so a save need not reload its list
+function isLive() {
+    return changeStream !== null && changeStream.readyState === EventSource.OPEN;
+}
+
+function refreshUnlessLive(reload) {
+    if (!isLive()) reload();
+}
+
+function applyChange(change) {
+    window.dispatchEvent(new CustomEvent('myland:change', { detail: change }));
+    scheduleSummaryRefresh(change.entity);
+
+    const list = LIVE_LISTS[change.entity];
+    if (!list) return;
+    const shown = document.getElementById(LIVE_TABLES[change.entity]) !== null;
+    if (!shown && list.get().length === 0) return;
+
+    if (change.op === 'reload') {
+        reloadList(change.entity);
+    } else if (change.op === 'delete') {
+        patchList(list, change.id, null);
+    } else {
+        fetch(list.row(change.id))
+            .then(response => {
+                if (response.status === 404) return null;
+                if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+                return response.json();
+            })
+            .then(row => patchList(list, change.id, row))
+            .catch(error => {
+                console.error(`Error loading ${change.entity} ${change.id}:`, error);
+                reloadList(change.entity);
+            });
+    }
+}
+
+function patchList(list, id, row) {
+    const rows = list.get().filter(item => item.id !== id);
+    if (row) {
+        rows.push(row);
+        rows.sort(list.order || ((a, b) => a.id - b.id));
+    }
+    list.set(rows);
+    list.show();
+}
+
+function reloadList(entity) {
+    switch (entity) {
+        case 'products': loadProducts(); break;
+        case 'shops': loadShops(); break;
+        case 'ingredients':
+            if (document.getElementById('inventory-tbody')) loadInventory(); else loadIngredients();
+            break;
+        case 'production': loadProduction(); break;
+        case 'sales': loadSales().then(() => LIVE_LISTS.sales.show()); break;
+    }
+}
+
+// Dashboard, storage and sale-form stock figures are aggregated on the
+// server: reload them once after a burst of changes rather than per event
+let summaryRefresh = null;
+
+function scheduleSummaryRefresh(entity) {
+    const stockChanged = entity === 'sales' || entity === 'production';
+    const saleForm = document.getElementById('add-sale-form');
+    let refresh = null;
+
+    if (currentTab === 'dashboard') {
+        refresh = loadDashboardData;
+    } else if (currentTab === 'storage' && entity !== 'shops') {
+        refresh = loadStorageSummary;
+    } else if (stockChanged && saleForm && saleForm.style.display === 'block') {
+        refresh = () => loadProductStock().then(calculateSaleValues);
+    }
+    if (!refresh) return;
+
+    clearTimeout(summaryRefresh);
+    summaryRefresh = setTimeout(refresh, 500);
+}
+
+// Local copy of the lists (IndexedDB), kept current with /sync?since=<version>:
+// opening a page downloads only the rows changed since the last visit, and
+// without a connection the last copy is shown
+const SYNC_TABLES = ['products', 'shops', 'ingredients', 'production', 'sales'];
+let syncDb = null;
+let syncRun = null;
+
+function openSyncDb() {
+    if (!syncDb) {
+        syncDb = new Promise((resolve, reject) => {
+            const request = indexedDB.open('myland-sync', 1);
+            request.onupgradeneeded = () => {
+                SYNC_TABLES.forEach(table => request.result.createObjectStore(table, { keyPath: 'id' }));
+                request.result.createObjectStore('meta');
+            };
+            request.onsuccess = () => resolve(request.result);
+            request.onerror = () => reject(request.error);
+        });
+    }
+    return syncDb;
+}
+
+function idbRequest(request) {
+    return new Promise((resolve, reject) => {
+        request.onsuccess = () => resolve(request.result);
+        request.onerror = () => reject(request.error);
+    });
+}
+
+// The loaders of one page share a single sync request
+function syncLists() {
+    if (!syncRun) {
+        syncRun = openSyncDb()
+            .then(db => idbRequest(db.transaction('meta').objectStore('meta').get('version'))
+                .then(since => fetch(`${API_BASE}/sync?since=${since || 0}`)
+                    .then(response => {
+                        if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+                        return response.json();
+                    })
+                    .then(changes => applySync(db, changes))
+                    .catch(error => {
+                        if (!since) throw error; // nothing stored yet
+                        console.warn('Sync failed, showing the local copy:', error);
+                    }))
+                .then(() => db))
+            .finally(() => { syncRun = null; });
+    }
+    return syncRun;
+}
+
+function applySync(db, changes) {
+    return new Promise((resolve, reject) => {
+        const tx = db.transaction([...SYNC_TABLES, 'meta'], 'readwrite');
+        SYNC_TABLES.forEach(table => {
+            const store = tx.objectStore(table);
+            if (changes.full) store.clear();
+            (changes.deleted[table] || []).forEach(id => store.delete(id));
+            (changes.changed[table] || []).forEach(row => store.put(row));
+        });
+        if (!changes.full) patchEmbedded(tx, changes);
+        tx.objectStore('meta').put(changes.version, 'version');
+        tx.oncomplete = () => resolve();
+        tx.onerror = () => reject(tx.error);
+        tx.onabort = () => reject(tx.error);
+    });
+}
+
+// Sales and production rows embed their product, shop and ingredients:
+// refresh those copies when one of them changed
+function patchEmbedded(tx, changes) {
+    const byId = table => new Map((changes.changed[table] || []).map(row => [row.id, row]));
+    const changedProducts = byId('products');
+    const changedShops = byId('shops');
+    const changedIngredients = byId('ingredients');
+
+    const patch = (table, update) => {
+        tx.objectStore(table).openCursor().onsuccess = event => {
+            const cursor = event.target.result;
+            if (!cursor) return;
+            if (update(cursor.value)) cursor.update(cursor.value);
+            cursor.continue();
+        };
+    };
+    const patchProduct = row => {
+        const product = row.product && changedProducts.get(row.product.id);
+        if (product) row.product = product;
+        return !!product;
+    };
+
+    if (changedProducts.size || changedShops.size) {
+        patch('sales', row => {
+            const shop = row.shop && changedShops.get(row.shop.id);
+            if (shop) row.shop = shop;
+            return patchProduct(row) || !!shop;
+        });
+    }
+    if (changedProducts.size || changedIngredients.size) {
+        patch('production', row => {
+            let changed = patchProduct(row);
+            (row.usedIngredients || []).forEach(line => {
+                const ingredient = line.ingredient && changedIngredients.get(line.ingredient.id);
+                if (ingredient) {
+                    line.ingredient = ingredient;
+                    changed = true;
+                }
+            });
+            return changed;
+        });
+    }
+}
+
+// A list from the local copy, in the order the list endpoints use; straight
+// from the server when IndexedDB is not available
+function syncedList(table) {
+    const fromServer = () => fetch(`${API_BASE}/${table}`).then(response => {
+        if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+        return response.json();
+    });
+    if (typeof indexedDB === 'undefined') return fromServer();
+
+    return syncLists()
+        .then(db => idbRequest(db.transaction(table).objectStore(table).getAll()))
+        .then(rows => rows.sort(LIVE_LISTS[table].order || ((a, b) => a.id - b.id)))
+        .catch(error => {
+            console.warn(`Local copy of ${table} not available:`, error);
+            return fromServer();
+        });
+}
+
+// Sales recorded while the server cannot be reached wait in localStorage and
+// are uploaded to /sync/sales once it answers again. Every new sale carries a
+// client reference, so sending one twice never records it twice.
+const PENDING_SALES_KEY = 'myland.pendingSales';
+let uploadingSales = false;
+
+function newClientRef() {
+    if (window.crypto && crypto.randomUUID) return crypto.randomUUID();
+    return Date.now().toString(36) + '-' + Math.random().toString(36).slice(2, 12);
+}
+
+function pendingSales() {
+    try {
+        return JSON.parse(localStorage.getItem(PENDING_SALES_KEY)) || [];
+    } catch (e) {
+        return [];
+    }
+}
+
+function queueOfflineSale(clientRef, sale) {
+    const queue = pendingSales();
+    if (!queue.some(item => item.clientRef === clientRef)) {
+        queue.push({ clientRef, sale });
+    }
+    localStorage.setItem(PENDING_SALES_KEY, JSON.stringify(queue));
+}
+
+function uploadPendingSales() {
+    const queue = pendingSales();
+    if (queue.length === 0 || uploadingSales) return;
+
+    uploadingSales = true;
+    fetch(`${API_BASE}/sync/sales`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify(queue)
+    })
+        .then(response => {
+            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+            return response.json();
+        })
+        .then(results => {
+            // Answered entries leave the queue (rejected ones would fail again);
+            // sales queued during the upload stay
+            const answered = new Set(results.map(result => result.clientRef));
+            const remaining = pendingSales().filter(item => !answered.has(item.clientRef));
+            localStorage.setItem(PENDING_SALES_KEY, JSON.stringify(remaining));
+
+            const rejected = results.filter(result => !result.success);
+            const uploaded = results.length - rejected.length;
+            if (uploaded > 0) {
+                showMessage(`${uploaded} sale(s) recorded offline have been uploaded`, 'success');
+                refreshUnlessLive(() => loadTabData(currentTab));
+            }
+            rejected.forEach(result => showMessage('Offline sale rejected: ' + result.error, 'error'));
+        })
+        .catch(error => console.warn('Offline sales not uploaded yet:', error))
+        .finally(() => { uploadingSales = false; });
+}
+
 // Form Handlers
 function setupFormHandlers() {
     const attachListener = (id, handler) => {
@@ -244,7 +597,7 @@ function handleProductSubmit(e) {
             hideLoading();
             showMessage(editId ? 'Product updated successfully!' : 'Product added successfully!', 'success');
             hideAddProductForm();
-            loadProducts();
+            refreshUnlessLive(loadProducts);
         })
         .catch(error => {
             hideLoading();
@@ -254,8 +607,7 @@ function handleProductSubmit(e) {
 
 function loadProducts() {
     showLoading();
-    fetch(`${API_BASE}/products`)
-        .then(response => response.json())
+    syncedList('products')
         .then(data => {
             hideLoading();
             products = Array.isArray(data) ? data : [];
@@ -379,7 +731,7 @@ function handleIngredientSubmit(e) {
             hideAddIngredientForm();
             // Add small delay to ensure database transaction completes
             setTimeout(() => {
-                loadIngredients();
+                refreshUnlessLive(loadIngredients);
             }, 300);
         })
         .catch(error => {
@@ -391,8 +743,7 @@ function handleIngredientSubmit(e) {
 function loadIngredients() {
     return new Promise((resolve, reject) => {
         showLoading();
-        fetch(`${API_BASE}/ingredients`)
-            .then(response => response.json())
+        syncedList('ingredients')
             .then(data => {
                 ingredients = data;
                 displayIngredients(data);
@@ -642,8 +993,10 @@ function handleProductionSubmit(e) {
             hideAddProductionForm();
             // Add small delay to ensure database transaction completes
             setTimeout(() => {
-                loadProduction();
-                loadIngredients(); // Reload ingredients as stock changed
+                refreshUnlessLive(() => {
+                    loadProduction();
+                    loadIngredients(); // Reload ingredients as stock changed
+                });
             }, 300);
         })
         .catch(error => {
@@ -699,8 +1052,10 @@ function deleteProduction(id) {
                 if (form && form.dataset.editId == id) {
                     hideAddProductionForm();
                 }
-                loadProduction();
-                loadIngredients();
+                refreshUnlessLive(() => {
+                    loadProduction();
+                    loadIngredients();
+                });
             })
             .catch(error => {
                 hideLoading();
@@ -712,14 +1067,7 @@ function deleteProduction(id) {
 function loadProduction() {
     console.log('[loadProduction] Starting to load production data...');
     showLoading();
-    fetch(`${API_BASE}/production`)
-        .then(response => {
-            console.log('[loadProduction] Response status:', response.status);
-            if (!response.ok) {
-                throw new Error(`HTTP error! status: ${response.status}`);
-            }
-            return response.json();
-        })
+    syncedList('production')
         .then(data => {
             console.log('[loadProduction] Received data:', data);
             console.log('[loadProduction] Data type:', typeof data, 'Is array:', Array.isArray(data));
@@ -806,13 +1154,8 @@ function showAddSaleForm() {
     showLoading();
     Promise.all([
         loadShops(),
-        fetch(`${API_BASE}/production`).then(r => r.json().catch(() => [])),
-        fetch(`${API_BASE}/sales`).then(r => r.json().catch(() => []))
-    ]).then(([shopsData, productionData, salesData]) => {
-        // Update globals
-        production = Array.isArray(productionData) ? productionData : [];
-        sales = Array.isArray(salesData) ? salesData : [];
-
+        loadProductStock().catch(() => productStock)
+    ]).then(() => {
         loadShopsForSelect('sale-shop');
         loadProductsForSelect('sale-product');
         hideLoading();
@@ -845,30 +1188,9 @@ function calculateSaleValues() {
     if (selectedProductId) {
         const product = products.find(p => p.id == selectedProductId);
 
-        // Calculate stock if data is available
-        // Note: production and sales arrays are global
-        let totalProduced = 0;
-        let totalSold = 0;
-
-        if (typeof production !== 'undefined') {
-            production.forEach(p => {
-                if (p.product && p.product.id == selectedProductId) {
-                    totalProduced += (p.producedUnits || 0);
-                }
-            });
-        }
-
-        if (typeof sales !== 'undefined') {
-            sales.forEach(s => {
-                if (s.product && s.product.id == selectedProductId) {
-                    // Check if we are editing this specific sale, if so, don't count it as "sold" yet
-                    const editId = document.getElementById('sale-form').dataset.editId;
-                    if (editId && s.id == editId) return;
-
-                    totalSold += (s.soldUnits || 0);
-                }
-            });
-        }
+        // Stock from the server's per-product totals (kept current by the change stream)
+        const editId = document.getElementById('sale-form').dataset.editId;
+        const { totalProduced, totalSold } = stockFor(productStock, selectedProductId, editId);
 
         const availableStock = totalProduced - totalSold;
 
@@ -944,6 +1266,33 @@ function calculateSaleValues() {
     }
 }
 
+function loadProductStock() {
+    return fetch(`${API_BASE}/inventory/products`)
+        .then(response => {
+            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+            return response.json();
+        })
+        .then(data => {
+            productStock = Array.isArray(data) ? data : [];
+            return productStock;
+        });
+}
+
+// Produced and sold units of one product; a sale being edited does not count as sold
+function stockFor(stockRows, productId, editId) {
+    const row = stockRows.find(r => r.productId == productId);
+    const totalProduced = row ? row.producedUnits : 0;
+    let totalSold = row ? row.soldUnits : 0;
+
+    if (editId) {
+        const edited = sales.find(s => s.id == editId);
+        if (edited && edited.product && edited.product.id == productId) {
+            totalSold -= (edited.soldUnits || 0);
+        }
+    }
+    return { totalProduced, totalSold };
+}
+
 function hideAddSaleForm() {
     document.getElementById('add-sale-form').style.display = 'none';
     document.getElementById('sale-form').reset();
@@ -1000,32 +1349,18 @@ function handleSaleSubmit(e) {
     }
 
     showLoading();
-    // Validate stock by fetching fresh data
-    Promise.all([
-        fetch(`${API_BASE}/production`).then(r => r.json().catch(() => [])),
-        fetch(`${API_BASE}/sales`).then(r => r.json().catch(() => []))
-    ]).then(([productionData, salesData]) => {
-
-        // Defensive: Ensure we have arrays
-        const productions = Array.isArray(productionData) ? productionData : [];
-        const allSales = Array.isArray(salesData) ? salesData : [];
-
-        let totalProduced = 0;
-        let totalSold = 0;
-
-        productions.forEach(p => {
-            if (p.product && p.product.id == productId) {
-                totalProduced += (p.producedUnits || 0);
-            }
-        });
-
-        allSales.forEach(s => {
-            if (s.product && s.product.id == productId) {
-                // If editing, skip the record we are currently changing
-                if (editId && s.id == editId) return;
-                totalSold += (s.soldUnits || 0);
-            }
-        });
+    // Validate against fresh per-product stock totals; offline, against the last ones seen
+    let offline = false;
+    loadProductStock().catch(error => {
+        console.warn('Stock totals not available:', error);
+        offline = true;
+        return productStock;
+    }).then(stockRows => {
+        if (offline && stockRows.length === 0) {
+            performSaleSubmission(sale, editId);
+            return;
+        }
+        const { totalProduced, totalSold } = stockFor(stockRows, productId, editId);
 
         const availableStock = totalProduced - totalSold;
 
@@ -1049,11 +1384,13 @@ function handleSaleSubmit(e) {
 
 function performSaleSubmission(sale, editId) {
     // showLoading is already active from the validation step
+    const clientRef = editId ? null : newClientRef();
+    const headers = { 'Content-Type': 'application/json' };
+    if (clientRef) headers['Idempotency-Key'] = clientRef;
+
     fetch(`${API_BASE}/sale`, {
         method: 'POST',
-        headers: {
-            'Content-Type': 'application/json',
-        },
+        headers: headers,
         body: JSON.stringify(sale)
     })
         .then(response => response.json())
@@ -1065,7 +1402,7 @@ function performSaleSubmission(sale, editId) {
 
             // Add small delay to ensure database transaction completes
             setTimeout(() => {
-                loadSales();
+                refreshUnlessLive(loadSales);
 
                 // Show print bill option for new sales (not edits)
                 if (!editId) {
@@ -1075,7 +1412,7 @@ function performSaleSubmission(sale, editId) {
                 }
 
                 // Refresh reports if we're on the sales tab
-                if (currentTab === 'sales') {
+                if (currentTab === 'sales' && !isLive()) {
                     generateMonthlyReport();
                     generateDailyReport();
                 }
@@ -1083,17 +1420,20 @@ function performSaleSubmission(sale, editId) {
         })
         .catch(error => {
             hideLoading();
+            // fetch rejects with a TypeError when the server cannot be reached
+            if (clientRef && error instanceof TypeError) {
+                queueOfflineSale(clientRef, sale);
+                hideAddSaleForm();
+                showMessage('No connection: the sale is kept on this device and will be uploaded automatically', 'success');
+                return;
+            }
             showMessage('Error recording sale: ' + error.message, 'error');
         });
 }
 
 function loadSales() {
     showLoading();
-    return fetch(`${API_BASE}/sales`)
-        .then(response => {
-            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
-            return response.json();
-        })
+    return syncedList('sales')
         .then(data => {
             console.log('Loaded sales data:', data);
             sales = Array.isArray(data) ? data : [];
@@ -1160,20 +1500,19 @@ function displaySales(sales) {
 function loadStorageSummary() {
     showLoading();
 
-    // Load all data needed for storage calculations
+    // Product stock and ingredient usage are aggregated on the server
     Promise.all([
-        fetch(`${API_BASE}/products`).then(response => response.json()),
+        fetch(`${API_BASE}/inventory/products`).then(response => response.json()),
         fetch(`${API_BASE}/ingredients`).then(response => response.json()),
-        fetch(`${API_BASE}/production`).then(response => response.json()),
-        fetch(`${API_BASE}/sales`).then(response => response.json())
+        fetch(`${API_BASE}/inventory/ingredients/usage`).then(response => response.json())
     ])
-        .then(([productsData, ingredientsData, productionData, salesData]) => {
-            products = productsData;
+        .then(([stockData, ingredientsData, usageData]) => {
+            productStock = stockData;
             ingredients = ingredientsData;
 
             // Calculate storage levels
-            calculateProductStorage(productsData, productionData, salesData);
-            calculateIngredientStorage(ingredientsData, productionData);
+            calculateProductStorage(stockData);
+            calculateIngredientStorage(ingredientsData, usageData);
 
             hideLoading();
         })
@@ -1183,44 +1522,25 @@ function loadStorageSummary() {
         });
 }
 
-function calculateProductStorage(products, production, sales) {
+function calculateProductStorage(stock) {
     const productStorage = {};
 
-    // Initialize all products with 0 storage
-    products.forEach(product => {
-        productStorage[product.id] = {
-            product: product,
-            produced: 0,
-            sold: 0,
-            inStorage: 0
+    // One row per product: produced, sold and in storage (produced - sold)
+    stock.forEach(row => {
+        productStorage[row.productId] = {
+            product: { id: row.productId, name: row.productName },
+            produced: row.producedUnits,
+            sold: row.soldUnits,
+            inStorage: row.inStorage
         };
     });
 
-    // Calculate produced quantities
-    production.forEach(prod => {
-        if (prod.product && productStorage[prod.product.id]) {
-            productStorage[prod.product.id].produced += prod.producedUnits;
-        }
-    });
-
-    // Calculate sold quantities
-    sales.forEach(sale => {
-        if (sale.product && productStorage[sale.product.id]) {
-            productStorage[sale.product.id].sold += sale.soldUnits;
-        }
-    });
-
-    // Calculate in storage (produced - sold)
-    Object.values(productStorage).forEach(item => {
-        item.inStorage = item.produced - item.sold;
-    });
-
     // Display product storage summary
     displayProductStorageSummary(productStorage);
     displayProductStorageTable(productStorage);
 }
 
-function calculateIngredientStorage(ingredients, production) {
+function calculateIngredientStorage(ingredients, usage) {
     const ingredientUsage = {};
 
     // Initialize all ingredients with their current quantities
@@ -1232,14 +1552,10 @@ function calculateIngredientStorage(ingredients, production) {
         };
     });
 
-    // Calculate used quantities from production
-    production.forEach(prod => {
-        if (prod.usedIngredients) {
-            prod.usedIngredients.forEach(usage => {
-                if (usage.ingredient && ingredientUsage[usage.ingredient.id]) {
-                    ingredientUsage[usage.ingredient.id].used += usage.quantityUsed;
-                }
-            });
+    // Total used per ingredient across all production
+    usage.forEach(row => {
+        if (ingredientUsage[row.ingredientId]) {
+            ingredientUsage[row.ingredientId].used += row.used || 0;
         }
     });
 
@@ -1357,8 +1673,7 @@ function refreshStorageSummary() {
 // Inventory Management
 function loadInventory() {
     showLoading();
-    return fetch(`${API_BASE}/ingredients`)
-        .then(response => response.json())
+    return syncedList('ingredients')
         .then(data => {
             if (Array.isArray(data)) {
                 ingredients = data;
@@ -1384,103 +1699,59 @@ function loadInventory() {
 // Dashboard Management
 function loadDashboardData() {
     console.log("Starting loadDashboardData...");
-    // showLoading(); // Optional: might clash with initial load, but good for feedback
-
-    Promise.all([
-        fetch(`${API_BASE}/sales`).then(r => {
-            if (!r.ok) throw new Error(`Sales fetch failed: ${r.status}`);
-            return r.json();
-        }).catch(err => { console.error("Sales fetch error:", err); return []; }),
-
-        fetch(`${API_BASE}/products`).then(r => {
-            if (!r.ok) throw new Error(`Products fetch failed: ${r.status}`);
-            return r.json();
-        }).catch(err => { console.error("Products fetch error:", err); return []; }),
 
-        fetch(`${API_BASE}/shops`).then(r => {
-            if (!r.ok) throw new Error(`Shops fetch failed: ${r.status}`);
+    // Totals, chart data and recent sales are aggregated server-side
+    fetch(`${API_BASE}/dashboard/summary`)
+        .then(r => {
+            if (!r.ok) throw new Error(`Dashboard fetch failed: ${r.status}`);
             return r.json();
-        }).catch(err => { console.error("Shops fetch error:", err); return []; })
-    ]).then(([salesData, productsData, shopsData]) => {
-
-        // Populate global state
-        sales = Array.isArray(salesData) ? salesData : [];
-        products = Array.isArray(productsData) ? productsData : [];
-        shops = Array.isArray(shopsData) ? shopsData : [];
-
-        console.log("Dashboard state populated:", {
-            salesCount: sales.length,
-            productsCount: products.length,
-            shopsCount: shops.length
-        });
-
-        // Calculate Totals safely
-        let totalRevenue = 0;
-        let totalProfit = 0;
-
-        sales.forEach(sale => {
-            // Handle potential nulls or strings
-            const income = parseFloat(sale.totalIncome) || 0;
-            const profit = parseFloat(sale.totalProfit) || 0;
-            totalRevenue += income;
-            totalProfit += profit;
-        });
-
-        const totalProducts = products.length;
-        const totalShops = shops.length;
-
-        console.log("Calculated Totals:", { totalRevenue, totalProfit, totalProducts, totalShops });
-
-        // Update DOM
-        const revenueEl = document.getElementById('total-revenue');
-        const profitEl = document.getElementById('total-profit');
-        const productsEl = document.getElementById('total-products');
-        const shopsEl = document.getElementById('total-shops');
+        })
+        .then(summary => {
+            const totalRevenue = summary.totalRevenue || 0;
+            const totalProfit = summary.totalProfit || 0;
 
-        if (revenueEl) revenueEl.textContent = `$${totalRevenue.toFixed(2)}`;
-        else console.warn("Element #total-revenue not found");
+            // Update DOM
+            const revenueEl = document.getElementById('total-revenue');
+            const profitEl = document.getElementById('total-profit');
+            const productsEl = document.getElementById('total-products');
+            const shopsEl = document.getElementById('total-shops');
 
-        if (profitEl) profitEl.textContent = `$${totalProfit.toFixed(2)}`;
-        else console.warn("Element #total-profit not found");
+            if (revenueEl) revenueEl.textContent = `$${totalRevenue.toFixed(2)}`;
+            else console.warn("Element #total-revenue not found");
 
-        if (productsEl) productsEl.textContent = totalProducts;
-        else console.warn("Element #total-products not found");
+            if (profitEl) profitEl.textContent = `$${totalProfit.toFixed(2)}`;
+            else console.warn("Element #total-profit not found");
 
-        if (shopsEl) shopsEl.textContent = totalShops;
-        else console.warn("Element #total-shops not found");
+            if (productsEl) productsEl.textContent = summary.productCount || 0;
+            else console.warn("Element #total-products not found");
 
-        // Update Recent Sales Table
-        try {
-            updateRecentSalesTable(sales);
-        } catch (e) {
-            console.error("Error updating recent sales table:", e);
-        }
+            if (shopsEl) shopsEl.textContent = summary.shopCount || 0;
+            else console.warn("Element #total-shops not found");
 
-        // Update Chart
-        try {
-            updateDashboardChart(sales);
-        } catch (e) {
-            console.error("Error updating dashboard chart:", e);
-        }
+            // Update Recent Sales Table
+            try {
+                updateRecentSalesTable(summary.recentSales || []);
+            } catch (e) {
+                console.error("Error updating recent sales table:", e);
+            }
 
-    }).catch(err => {
-        console.error("Critical error loading dashboard data:", err);
-        showMessage("Failed to load dashboard data. Check console for details.", "error");
-    });
+            // Update Chart
+            try {
+                updateDashboardChart(summary.monthlyIncome || []);
+            } catch (e) {
+                console.error("Error updating dashboard chart:", e);
+            }
+        })
+        .catch(err => {
+            console.error("Critical error loading dashboard data:", err);
+            showMessage("Failed to load dashboard data. Check console for details.", "error");
+        });
 }
 
-function updateRecentSalesTable(salesData) {
+function updateRecentSalesTable(recentSales) {
     const tbody = document.querySelector('.table tbody');
     if (!tbody) return;
 
-    // Sort by date desc (assuming ID correlates with time or date field exists)
-    // The salesData might need sorting.
-    const sortedSales = [...salesData].sort((a, b) => {
-        return new Date(b.saleDate) - new Date(a.saleDate) || b.id - a.id;
-    });
-
-    const recentSales = sortedSales.slice(0, 5);
-
     tbody.innerHTML = '';
 
     if (recentSales.length === 0) {
@@ -1492,8 +1763,8 @@ function updateRecentSalesTable(salesData) {
         const row = document.createElement('tr');
         row.innerHTML = `
             <td>${sale.saleDate}</td>
-            <td>${sale.product ? sale.product.name : 'Unknown'}</td>
-            <td>${sale.shop ? sale.shop.name : 'Unknown'}</td>
+            <td>${sale.productName || 'Unknown'}</td>
+            <td>${sale.shopName || 'Unknown'}</td>
             <td>${sale.soldUnits}</td>
             <td>$${(sale.totalIncome || 0).toFixed(2)}</td>
             <td><span class="badge badge-success">Completed</span></td>
@@ -1502,42 +1773,19 @@ function updateRecentSalesTable(salesData) {
     });
 }
 
-function updateDashboardChart(salesData) {
+function updateDashboardChart(monthlyIncome) {
     if (typeof Chart === 'undefined') return;
 
     const canvas = document.getElementById('salesChart');
     if (!canvas) return;
 
-    // Aggregate income by month (simplified)
-    const monthlyIncome = {};
+    // monthlyIncome holds Jan..Dec income for the current year
     const months = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+    const data = months.map((m, i) => monthlyIncome[i] || 0);
 
-    // Initialize current year months
-    const currentYear = new Date().getFullYear();
-    for (let i = 0; i < 12; i++) {
-        monthlyIncome[months[i]] = 0;
-    }
-
-    salesData.forEach(sale => {
-        const date = new Date(sale.saleDate);
-        if (date.getFullYear() === currentYear) {
-            const monthName = months[date.getMonth()];
-            monthlyIncome[monthName] += (sale.totalIncome || 0);
-        }
-    });
-
-    const data = months.map(m => monthlyIncome[m]);
-
-    // Check if chart instance exists (we need to find it or recreate it)
-    // Often it's better to just destroy and recreate if we don't store the instance.
-    // However, index.html creates it. Let's try to update it if global or just let it be.
-    // For now, let's just log that we calculated the data.
-    console.log("Monthly Sales Data for Chart:", monthlyIncome);
-
-    // If we want to really update it, we need the chart object. 
-    // Let's assume the user might have others, so we will try to find it on the canvas
     const chart = Chart.getChart(canvas);
     if (chart) {
+        chart.data.labels = months;
         chart.data.datasets[0].data = data;
         chart.update();
     }
@@ -1608,7 +1856,7 @@ function handleInventorySubmit(e) {
             hideAddInventoryForm();
             // Add small delay to ensure database transaction completes
             setTimeout(() => {
-                loadInventory();
+                refreshUnlessLive(loadInventory);
             }, 300);
         })
         .catch(error => {
@@ -1739,8 +1987,7 @@ function loadProductsForSelect(selectId) {
     if (products.length > 0) {
         populate();
     } else {
-        fetch(`${API_BASE}/products`)
-            .then(response => response.json())
+        syncedList('products')
             .then(data => {
                 if (Array.isArray(data)) {
                     products = data;
@@ -1849,7 +2096,7 @@ function deleteProduct(id) {
                 if (form && form.dataset.editId == id) {
                     hideAddProductForm();
                 }
-                loadProducts();
+                refreshUnlessLive(loadProducts);
             })
             .catch(error => {
                 hideLoading();
@@ -1889,7 +2136,7 @@ function deleteIngredient(id) {
                 if (form && form.dataset.editId == id) {
                     hideAddIngredientForm();
                 }
-                loadIngredients();
+                refreshUnlessLive(loadIngredients);
             })
             .catch(error => {
                 hideLoading();
@@ -1951,6 +2198,7 @@ function deleteSale(id) {
             .then(() => {
                 hideLoading();
                 showMessage('Sale deleted successfully!', 'success');
+                if (isLive()) return;
                 loadSales();
                 // Refresh reports if we're on the sales tab
                 if (currentTab === 'sales') {
@@ -2017,7 +2265,7 @@ function handleShopSubmit(e) {
             hideAddShopForm();
             // Add small delay to ensure database transaction completes
             setTimeout(() => {
-                loadShops(); // Reload list
+                refreshUnlessLive(loadShops); // Reload list
             }, 300);
         })
         .catch(error => {
@@ -2031,13 +2279,7 @@ function loadShops() {
     console.log('Loading shops...');
     return new Promise((resolve, reject) => {
         showLoading();
-        fetch(`${API_BASE}/shops`)
-            .then(response => {
-                if (!response.ok) {
-                    throw new Error('Network response was not ok ' + response.statusText);
-                }
-                return response.json();
-            })
+        syncedList('shops')
             .then(data => {
                 console.log('Shops loaded:', data);
                 shops = data || []; // Ensure it's an array
@@ -2224,7 +2466,7 @@ function deleteShop(id) {
             .then(() => {
                 hideLoading();
                 showMessage('Shop deleted successfully!', 'success');
-                loadShops();
+                refreshUnlessLive(loadShops);
             })
             .catch(error => {
                 hideLoading();
@@ -2239,57 +2481,42 @@ function generateMonthlyReport() {
     const selectedMonth = monthInput ? monthInput.value : '';
 
     console.log('Generating monthly report for:', selectedMonth);
-    console.log('Total sales available:', sales.length);
 
     if (!selectedMonth) {
         // Only show message if we are actively trying to generate, not on auto-init
         return;
     }
 
-    // Filter sales for the selected month using string-based comparison
-    const monthlySales = sales.filter(sale => {
-        if (!sale.saleDate) return false;
-        return sale.saleDate.substring(0, 7) === selectedMonth;
-    });
-
-    console.log('Found monthly sales matches:', monthlySales.length);
-    generateMonthlyReportData(monthlySales);
+    // Per-shop totals come from the server-side daily rollup
+    fetch(`${API_BASE}/reports/monthly?month=${encodeURIComponent(selectedMonth)}`)
+        .then(response => {
+            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+            return response.json();
+        })
+        .then(report => generateMonthlyReportData(report))
+        .catch(error => {
+            console.error('Error loading monthly report:', error);
+            showMessage('Error loading monthly report: ' + error.message, 'error');
+        });
 }
 
-function generateMonthlyReportData(monthlySales) {
+function generateMonthlyReportData(report) {
     const shopData = {};
-    let totalSales = 0;
-    let totalReturns = 0;
-    let totalProfit = 0;
 
-    // Group sales by shop
-    monthlySales.forEach(sale => {
-        const shopName = sale.shop ? sale.shop.name : 'Unknown Shop';
-
-        if (!shopData[shopName]) {
-            shopData[shopName] = {
-                shopName: shopName,
-                totalSoldUnits: 0,
-                totalReturnedUnits: 0,
-                totalIncome: 0,
-                totalProfit: 0
-            };
-        }
-
-        shopData[shopName].totalSoldUnits += sale.soldUnits || 0;
-        shopData[shopName].totalReturnedUnits += sale.returnedUnits || 0;
-        shopData[shopName].totalIncome += sale.totalIncome || 0;
-        shopData[shopName].totalProfit += sale.totalProfit || 0;
-
-        totalSales += sale.totalIncome || 0;
-        totalReturns += sale.returnedUnits || 0;
-        totalProfit += sale.totalProfit || 0;
+    (report.groups || []).forEach(group => {
+        shopData[group.key] = {
+            shopName: group.name || 'Unknown Shop',
+            totalSoldUnits: group.soldUnits || 0,
+            totalReturnedUnits: group.returnedUnits || 0,
+            totalIncome: group.income || 0,
+            totalProfit: group.profit || 0
+        };
     });
 
     // Update summary cards
-    document.getElementById('total-sales').textContent = `$${totalSales.toFixed(2)}`;
-    document.getElementById('total-returns').textContent = `${totalReturns} units`;
-    document.getElementById('net-profit').textContent = `$${totalProfit.toFixed(2)}`;
+    document.getElementById('total-sales').textContent = `$${(report.income || 0).toFixed(2)}`;
+    document.getElementById('total-returns').textContent = `${report.returnedUnits || 0} units`;
+    document.getElementById('net-profit').textContent = `$${(report.profit || 0).toFixed(2)}`;
 
     // Display shop data in table
     displayMonthlyReportTable(shopData);
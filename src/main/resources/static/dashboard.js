@@ -13,27 +13,22 @@ async function loadDashboardData() {
     try {
         showLoading();
         
-        // Load all data in parallel
-        const [products, ingredients, production, sales, shops] = await Promise.all([
-            fetch(`${API_BASE}/products`).then(r => r.json()),
-            fetch(`${API_BASE}/ingredients`).then(r => r.json()),
-            fetch(`${API_BASE}/production`).then(r => r.json()),
-            fetch(`${API_BASE}/sales`).then(r => r.json()),
-            fetch(`${API_BASE}/shops`).then(r => r.json())
-        ]);
+        // Totals, chart series and recent sales are aggregated server-side
+        const period = parseInt(document.getElementById('chart-period').value) || 7;
+        const summary = await fetch(`${API_BASE}/dashboard/summary?days=${period}`).then(r => r.json());
 
         // Update statistics
-        updateStatistics(products, ingredients, production, sales, shops);
+        updateStatistics(summary);
         
         // Update charts
-        updateSalesChart(sales);
-        updateShopChart(sales, shops);
+        updateSalesChart(summary.daily || []);
+        updateShopChart(summary.shopTotals || []);
         
         // Update recent sales
-        updateRecentSales(sales);
+        updateRecentSales(summary.recentSales || []);
         
         // Update module counts
-        updateModuleCounts(products, ingredients, production, sales, shops);
+        updateModuleCounts(summary);
         
         hideLoading();
     } catch (error) {
@@ -43,96 +38,33 @@ async function loadDashboardData() {
     }
 }
 
-function updateStatistics(products, ingredients, production, sales, shops) {
-    // Calculate total revenue
-    const totalRevenue = sales.reduce((sum, sale) => sum + (sale.totalIncome || 0), 0);
-    document.getElementById('total-revenue').textContent = `$${totalRevenue.toFixed(2)}`;
-    
-    // Calculate total profit
-    const totalProfit = sales.reduce((sum, sale) => sum + (sale.totalProfit || 0), 0);
-    document.getElementById('total-profit').textContent = `$${totalProfit.toFixed(2)}`;
-    
-    // Calculate products in storage
-    const productStorage = {};
-    products.forEach(product => {
-        productStorage[product.id] = { produced: 0, sold: 0 };
-    });
-    
-    production.forEach(prod => {
-        if (prod.product && productStorage[prod.product.id]) {
-            productStorage[prod.product.id].produced += prod.producedUnits || 0;
-        }
-    });
-    
-    sales.forEach(sale => {
-        if (sale.product && productStorage[sale.product.id]) {
-            productStorage[sale.product.id].sold += sale.soldUnits || 0;
-        }
-    });
-    
-    const totalInStorage = Object.values(productStorage).reduce((sum, item) => 
-        sum + Math.max(0, item.produced - item.sold), 0);
-    
-    document.getElementById('total-products').textContent = products.length;
-    document.getElementById('products-in-storage').textContent = totalInStorage;
-    
-    // Total shops
-    document.getElementById('total-shops').textContent = shops.length;
-    
-    // Today's sales
-    const today = new Date().toISOString().split('T')[0];
-    const todaySales = sales.filter(sale => sale.saleDate === today).length;
-    document.getElementById('today-sales').textContent = todaySales;
-    
-    // Calculate month-over-month changes (simplified)
-    const currentMonth = new Date().getMonth();
-    const lastMonthSales = sales.filter(sale => {
-        const saleDate = new Date(sale.saleDate);
-        return saleDate.getMonth() === currentMonth - 1;
-    });
-    const currentMonthSales = sales.filter(sale => {
-        const saleDate = new Date(sale.saleDate);
-        return saleDate.getMonth() === currentMonth;
-    });
-    
-    const lastMonthRevenue = lastMonthSales.reduce((sum, s) => sum + (s.totalIncome || 0), 0);
-    const currentMonthRevenue = currentMonthSales.reduce((sum, s) => sum + (s.totalIncome || 0), 0);
-    
-    const revenueChange = lastMonthRevenue > 0 
-        ? ((currentMonthRevenue - lastMonthRevenue) / lastMonthRevenue * 100).toFixed(1)
+function updateStatistics(summary) {
+    document.getElementById('total-revenue').textContent = `$${(summary.totalRevenue || 0).toFixed(2)}`;
+    document.getElementById('total-profit').textContent = `$${(summary.totalProfit || 0).toFixed(2)}`;
+    
+    document.getElementById('total-products').textContent = summary.productCount;
+    document.getElementById('products-in-storage').textContent = summary.productsInStorage;
+    document.getElementById('total-shops').textContent = summary.shopCount;
+    document.getElementById('today-sales').textContent = summary.todaySales;
+    
+    // Month-over-month changes
+    const revenueChange = summary.lastMonthRevenue > 0 
+        ? ((summary.currentMonthRevenue - summary.lastMonthRevenue) / summary.lastMonthRevenue * 100).toFixed(1)
         : '0';
     
-    const lastMonthProfit = lastMonthSales.reduce((sum, s) => sum + (s.totalProfit || 0), 0);
-    const currentMonthProfit = currentMonthSales.reduce((sum, s) => sum + (s.totalProfit || 0), 0);
-    
-    const profitChange = lastMonthProfit > 0 
-        ? ((currentMonthProfit - lastMonthProfit) / lastMonthProfit * 100).toFixed(1)
+    const profitChange = summary.lastMonthProfit > 0 
+        ? ((summary.currentMonthProfit - summary.lastMonthProfit) / summary.lastMonthProfit * 100).toFixed(1)
         : '0';
     
     document.getElementById('revenue-change').textContent = `${revenueChange}%`;
     document.getElementById('profit-change').textContent = `${profitChange}%`;
 }
 
-function updateSalesChart(sales) {
-    const period = parseInt(document.getElementById('chart-period').value) || 7;
-    const today = new Date();
-    const labels = [];
-    const revenueData = [];
-    const profitData = [];
-    
-    for (let i = period - 1; i >= 0; i--) {
-        const date = new Date(today);
-        date.setDate(date.getDate() - i);
-        const dateStr = date.toISOString().split('T')[0];
-        labels.push(date.toLocaleDateString('en-US', { month: 'short', day: 'numeric' }));
-        
-        const daySales = sales.filter(sale => sale.saleDate === dateStr);
-        const dayRevenue = daySales.reduce((sum, s) => sum + (s.totalIncome || 0), 0);
-        const dayProfit = daySales.reduce((sum, s) => sum + (s.totalProfit || 0), 0);
-        
-        revenueData.push(dayRevenue);
-        profitData.push(dayProfit);
-    }
+function updateSalesChart(daily) {
+    const labels = daily.map(day => new Date(day.date + 'T00:00:00')
+        .toLocaleDateString('en-US', { month: 'short', day: 'numeric' }));
+    const revenueData = daily.map(day => day.income || 0);
+    const profitData = daily.map(day => day.profit || 0);
     
     const ctx = document.getElementById('salesChart').getContext('2d');
     
@@ -186,19 +118,9 @@ function updateSalesChart(sales) {
     });
 }
 
-function updateShopChart(sales, shops) {
-    const shopData = {};
-    
-    sales.forEach(sale => {
-        const shopName = sale.shop ? sale.shop.name : 'Unknown';
-        if (!shopData[shopName]) {
-            shopData[shopName] = 0;
-        }
-        shopData[shopName] += sale.totalIncome || 0;
-    });
-    
-    const labels = Object.keys(shopData);
-    const data = Object.values(shopData);
+function updateShopChart(shopTotals) {
+    const labels = shopTotals.map(total => total.shopName || 'Unknown');
+    const data = shopTotals.map(total => total.income || 0);
     
     const colors = [
         '#667eea', '#764ba2', '#56ab2f', '#f093fb', 
@@ -245,11 +167,7 @@ function updateShopChart(sales, shops) {
     });
 }
 
-function updateRecentSales(sales) {
-    const recentSales = sales
-        .sort((a, b) => new Date(b.saleDate) - new Date(a.saleDate))
-        .slice(0, 5);
-    
+function updateRecentSales(recentSales) {
     const container = document.getElementById('recent-sales');
     
     if (recentSales.length === 0) {
@@ -273,10 +191,10 @@ function updateRecentSales(sales) {
                 </div>
                 <div class="activity-content">
                     <div class="activity-title">
-                        ${sale.product ? sale.product.name : 'Unknown Product'}
+                        ${sale.productName || 'Unknown Product'}
                     </div>
                     <div class="activity-details">
-                        ${sale.shop ? sale.shop.name : 'Unknown Shop'} • ${sale.soldUnits} units
+                        ${sale.shopName || 'Unknown Shop'} • ${sale.soldUnits} units
                     </div>
                 </div>
                 <div class="activity-amount">
@@ -289,17 +207,13 @@ function updateRecentSales(sales) {
     }).join('');
 }
 
-function updateModuleCounts(products, ingredients, production, sales, shops) {
-    document.getElementById('module-products-count').textContent = products.length;
-    document.getElementById('module-ingredients-count').textContent = ingredients.length;
-    document.getElementById('module-production-count').textContent = production.length;
-    document.getElementById('module-sales-count').textContent = sales.length;
-    document.getElementById('module-shops-count').textContent = shops.length;
-    
-    // Calculate inventory value
-    const inventoryValue = ingredients.reduce((sum, ing) => 
-        sum + ((ing.quantity || 0) * (ing.pricePerUnit || 0)), 0);
-    document.getElementById('module-inventory-value').textContent = `$${inventoryValue.toFixed(0)}`;
+function updateModuleCounts(summary) {
+    document.getElementById('module-products-count').textContent = summary.productCount;
+    document.getElementById('module-ingredients-count').textContent = summary.ingredientCount;
+    document.getElementById('module-production-count').textContent = summary.productionCount;
+    document.getElementById('module-sales-count').textContent = summary.saleCount;
+    document.getElementById('module-shops-count').textContent = summary.shopCount;
+    document.getElementById('module-inventory-value').textContent = `$${(summary.inventoryValue || 0).toFixed(0)}`;
 }
 
 function updateCharts() {
@@ -484,13 +484,19 @@ function generateInventoryPrintContent() {
                 <tbody>
     `;
 
-    // Calculate product storage
-    products.forEach(product => {
+    // Product storage from the server-side stock rows loaded by the storage page;
+    // fall back to summing the loaded production and sales lists
+    const stockRows = productStock.length > 0 ? productStock : products.map(product => {
         const produced = production.filter(p => p.product && p.product.id === product.id)
             .reduce((sum, p) => sum + p.producedUnits, 0);
         const sold = sales.filter(s => s.product && s.product.id === product.id)
             .reduce((sum, s) => sum + s.soldUnits, 0);
-        const available = produced - sold;
+        return { productName: product.name, producedUnits: produced, soldUnits: sold, inStorage: produced - sold };
+    });
+    stockRows.forEach(row => {
+        const produced = row.producedUnits;
+        const sold = row.soldUnits;
+        const available = row.inStorage;
 
         let status = 'Good';
         let statusClass = 'status-good';
@@ -504,7 +510,7 @@ function generateInventoryPrintContent() {
 
         html += `
             <tr>
-                <td>${product.name}</td>
+                <td>${row.productName}</td>
                 <td>${produced}</td>
                 <td>${sold}</td>
                 <td>${available}</td>
@@ -570,6 +576,22 @@ function generateInventoryPrintContent() {
 // SALES REPORTS PRINT FUNCTIONS
 // =====================================================
 
+// Reports and bills are rendered by the server (/api/myland/reports/.../print),
+// which reads the sales it needs itself; the local generators are only used
+// when the server cannot be reached.
+function printFromServer(url, buildLocally) {
+    fetch(url)
+        .then(response => {
+            if (!response.ok) throw new Error(`HTTP error! status: ${response.status}`);
+            return response.text();
+        })
+        .then(html => printInSameTab(html))
+        .catch(error => {
+            console.error('Server-side print failed, building it locally:', error);
+            printInSameTab(buildLocally());
+        });
+}
+
 function printMonthlyReport() {
     const reportMonth = document.getElementById('report-month').value;
     if (!reportMonth) {
@@ -577,8 +599,8 @@ function printMonthlyReport() {
         return;
     }
 
-    const printContent = generateMonthlyReportPrintContent(reportMonth);
-    printInSameTab(printContent);
+    printFromServer(`${API_BASE}/reports/monthly/print?month=${encodeURIComponent(reportMonth)}`,
+        () => generateMonthlyReportPrintContent(reportMonth));
 }
 
 function generateMonthlyReportPrintContent(reportMonth) {
@@ -697,8 +719,8 @@ function printDailyReport() {
         return;
     }
 
-    const printContent = generateDailyReportPrintContent(reportDate);
-    printInSameTab(printContent);
+    printFromServer(`${API_BASE}/reports/daily/print?date=${encodeURIComponent(reportDate)}`,
+        () => generateDailyReportPrintContent(reportDate));
 }
 
 function generateDailyReportPrintContent(reportDate) {
@@ -827,8 +849,8 @@ function printShopHistory() {
         return;
     }
 
-    const printContent = generateShopHistoryPrintContent(shopId);
-    printInSameTab(printContent);
+    printFromServer(`${API_BASE}/reports/shop-history/print?shopId=${encodeURIComponent(shopId)}`,
+        () => generateShopHistoryPrintContent(shopId));
 }
 
 function generateShopHistoryPrintContent(shopId) {
@@ -955,8 +977,12 @@ function generateShopHistoryPrintContent(shopId) {
 // =====================================================
 
 function printSaleBill(sale, product, shop) {
-    const printContent = generateSaleBillContent(sale, product, shop);
-    printInSameTab(printContent);
+    if (!sale.id) {
+        printInSameTab(generateSaleBillContent(sale, product, shop));
+        return;
+    }
+    printFromServer(`${API_BASE}/reports/sales/${sale.id}/bill`,
+        () => generateSaleBillContent(sale, product, shop));
 }
 
 function generateSaleBillContent(sale, product, shop) {
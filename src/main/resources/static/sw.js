@@ -1,4 +1,4 @@
-const CACHE_NAME = 'myland-v9';
+const CACHE_NAME = 'myland-v12';
 const ASSETS_TO_CACHE = [
     '/',
     '/index.html',
@@ -45,11 +45,11 @@ self.addEventListener('activate', event => {
 
 // Fetch Event - Serve from Cache or Network
 self.addEventListener('fetch', event => {
-    // API requests: Network ONLY, never cache
+    // API requests: Network ONLY, revalidated with the server's ETag
     if (event.request.url.includes('/api/')) {
         event.respondWith(
             fetch(event.request, {
-                cache: 'no-store'  // Never cache API responses
+                cache: 'no-cache'  // Always revalidate; unchanged lists come back as 304
             })
         );
         return;
@@ -0,0 +1,67 @@
+package com.example.myland02.config;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.model.Product;
+import com.example.myland02.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * On SQLite every write must go through the single sqlite-writer
+ * connection, also when the request read something first.
+ */
+@SpringBootTest(classes = Myland02Application.class)
+@AutoConfigureMockMvc
+class SqliteConnectionRoutingTests {
+
+    @DynamicPropertySource
+    static void sqliteFile(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("myland-routing");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("myland.db"));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Test
+    void updateAfterReadUsesWriter() throws Exception {
+        Product product = new Product();
+        product.setName("Bun");
+        product.setBasePrice(40.0);
+        product.setProductCost(20.0);
+        product = productRepo.save(product);
+        long writerUses = uses("sqlite-writer");
+
+        mockMvc.perform(put("/api/products/" + product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tea bun\",\"basePrice\":45.0,\"productCost\":20.0}"))
+                .andExpect(status().isOk());
+
+        assertTrue(uses("sqlite-writer") > writerUses, "the update did not borrow the writer connection");
+        assertEquals("Tea bun", productRepo.findById(product.getId()).orElseThrow().getName());
+    }
+
+    private long uses(String pool) {
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+}
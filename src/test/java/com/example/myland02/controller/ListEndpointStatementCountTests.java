@@ -0,0 +1,129 @@
+package com.example.myland02.controller;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.model.*;
+import com.example.myland02.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The list endpoints must issue the same number of SQL statements no matter
+ * how many rows they return.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcount",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListEndpointStatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ProductRepository productRepo;
+    @Autowired
+    private ShopRepository shopRepo;
+    @Autowired
+    private IngredientRepository ingredientRepo;
+    @Autowired
+    private ProductionRepository prodRepo;
+    @Autowired
+    private SaleRepository saleRepo;
+
+    private final List<Product> products = new ArrayList<>();
+    private final List<Shop> shops = new ArrayList<>();
+    private final List<Ingredient> ingredients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        saleRepo.deleteAll();
+        prodRepo.deleteAll();
+        products.clear();
+        shops.clear();
+        ingredients.clear();
+        for (int i = 0; i < 4; i++) {
+            products.add(productRepo.save(new Product(null, "Product " + i, null, 10.0, 4.0, null, null)));
+            shops.add(shopRepo.save(new Shop(null, "Shop " + i, null, null, null, null)));
+            ingredients.add(ingredientRepo.save(new Ingredient(null, "Ingredient " + i, "KG", 1000.0, 1.0)));
+        }
+    }
+
+    @Test
+    void productionListStatementCountIsConstant() throws Exception {
+        seed(5);
+        long small = countStatements("/api/myland/production", 5);
+        seed(25);
+        long large = countStatements("/api/myland/production", 30);
+        assertEquals(small, large);
+
+        long smallPage = countStatements("/api/myland/production?limit=5", 5);
+        long largePage = countStatements("/api/myland/production?limit=30", 30);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void salesListStatementCountIsConstant() throws Exception {
+        seed(5);
+        long small = countStatements("/api/myland/sales", 5);
+        seed(25);
+        long large = countStatements("/api/myland/sales", 30);
+        assertEquals(small, large);
+
+        long smallPage = countStatements("/api/myland/sales?limit=5", 5);
+        long largePage = countStatements("/api/myland/sales?limit=30", 30);
+        assertEquals(smallPage, largePage);
+    }
+
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            Product product = products.get(i % products.size());
+
+            Production production = new Production();
+            production.setDate(LocalDate.of(2026, 1, 1).plusDays(i));
+            production.setProduct(product);
+            production.setProducedUnits(10);
+            for (int j = 0; j < 2; j++) {
+                ProductionIngredient line = new ProductionIngredient();
+                line.setProduction(production);
+                line.setIngredient(ingredients.get((i + j) % ingredients.size()));
+                line.setQuantityUsed(1.5);
+                production.getUsedIngredients().add(line);
+            }
+            prodRepo.save(production);
+
+            saleRepo.save(new Sale(null, LocalDate.of(2026, 1, 1).plusDays(i), product,
+                    shops.get(i % shops.size()), 10.0, 5, 0, 50.0, 30.0));
+        }
+    }
+
+    private long countStatements(String url, int expectedRows) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedRows));
+        return statistics.getPrepareStatementCount();
+    }
+}
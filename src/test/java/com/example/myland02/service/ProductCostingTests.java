@@ -0,0 +1,112 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.dto.RecipeLine;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A price change recosts only the products whose recipe uses the
+ * ingredient, and the cached product list shows the new costs.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:productcosting",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class ProductCostingTests {
+
+    @Autowired
+    private ProductCosting costing;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private IngredientService ingredientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void priceChangeRecostsOnlyTheProductsUsingIt() {
+        Long flour = ingredient("Flour", 100.0);
+        Long sugar = ingredient("Sugar", 50.0);
+        Long bread = product("Bread", List.of(new RecipeLine(flour, 0.5)));
+        Long cake = product("Cake", List.of(new RecipeLine(sugar, 2.0)));
+        Long roll = product("Roll", List.of(new RecipeLine(flour, 0.2), new RecipeLine(sugar, 1.0)));
+        assertEquals(50.0, stored(bread), 1e-9);
+        assertEquals(100.0, stored(cake), 1e-9);
+        assertEquals(70.0, stored(roll), 1e-9);
+
+        // Fill the product list cache, and give the cake a cost that only a recompute would fix
+        productService.getAllProducts();
+        jdbcTemplate.update("UPDATE products SET product_cost = 999 WHERE id = ?", cake);
+
+        assertEquals(2, ingredientService.updatePrices(Map.of(flour, 200.0)));
+
+        assertEquals(100.0, stored(bread), 1e-9);
+        assertEquals(90.0, stored(roll), 1e-9);
+        assertEquals(999.0, stored(cake), 1e-9);
+        assertEquals(100.0, costing.cost(bread).getUnitCost(), 1e-9);
+        assertEquals(90.0, costing.cost(roll).getUnitCost(), 1e-9);
+        assertEquals(100.0, costing.cost(cake).getUnitCost(), 1e-9);
+        assertEquals(100.0, listed(bread), 1e-9);
+        assertEquals(90.0, listed(roll), 1e-9);
+    }
+
+    @Test
+    void ingredientEditRecostsItsProducts() {
+        Long butter = ingredient("Butter", 300.0);
+        Long salt = ingredient("Salt", 10.0);
+        Long pastry = product("Pastry", List.of(new RecipeLine(butter, 0.1)));
+        Long pretzel = product("Pretzel", List.of(new RecipeLine(salt, 0.5)));
+        productService.getAllProducts();
+
+        Ingredient edited = ingredientService.getIngredientById(butter).orElseThrow();
+        edited.setPricePerUnit(400.0);
+        ingredientService.saveIngredient(edited);
+
+        assertEquals(40.0, stored(pastry), 1e-9);
+        assertEquals(5.0, stored(pretzel), 1e-9);
+        assertEquals(40.0, listed(pastry), 1e-9);
+    }
+
+    private Long ingredient(String name, double price) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName(name);
+        ingredient.setType("KG");
+        ingredient.setQuantity(10.0);
+        ingredient.setPricePerUnit(price);
+        return ingredientService.saveIngredient(ingredient).getId();
+    }
+
+    private Long product(String name, List<RecipeLine> recipe) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBasePrice(500.0);
+        product.setProductCost(0.0);
+        Long id = productService.saveProduct(product).getId();
+        productService.saveRecipe(id, recipe);
+        return id;
+    }
+
+    private double stored(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT product_cost FROM products WHERE id = ?", Double.class, productId);
+    }
+
+    /** Cost as returned by the (cached) product list. */
+    private double listed(Long productId) {
+        return productService.getAllProducts().stream()
+                .filter(product -> product.getId().equals(productId))
+                .findFirst().orElseThrow()
+                .getProductCost();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.dto.ProductionBatchItemResult;
+import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductionRequest;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A batch either records every entry and takes all their stock, or records
+ * nothing and reports every entry.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:productionbatch",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class ProductionBatchServiceTests {
+
+    @Autowired
+    private ProductionBatchService batchService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private IngredientService ingredientService;
+    @Autowired
+    private StockLedger ledger;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void validBatchRecordsEveryEntry() {
+        Long product = product();
+        Long flour = ingredient(10.0);
+        Long sugar = ingredient(5.0);
+        int before = productions(product);
+
+        List<ProductionBatchItemResult> results = batchService.recordBatch(List.of(
+                request(product, 2, line(flour, 3.0), line(sugar, 1.0)),
+                request(product, 1, line(flour, 4.0))));
+
+        assertEquals(2, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertTrue(results.get(i).isSuccess());
+            assertNotNull(results.get(i).getProductionId());
+        }
+        assertEquals(before + 2, productions(product));
+        assertEquals(3.0, stored(flour), 1e-9);
+        assertEquals(4.0, stored(sugar), 1e-9);
+        assertEquals(3.0, ledger.available(flour), 1e-9);
+        assertEquals(3L, produced(product));
+    }
+
+    @Test
+    void invalidEntryRollsBackTheWholeBatch() {
+        Long product = product();
+        Long flour = ingredient(10.0);
+        int before = productions(product);
+
+        List<ProductionBatchItemResult> results = batchService.recordBatch(List.of(
+                request(product, 2, line(flour, 3.0)),
+                request(product, 1, line(flour, null)),
+                request(product, 1, line(flour, -1.0)),
+                request(product, 1, line(null, 1.0)),
+                request(product, -1, line(flour, 1.0))));
+
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertFalse(results.get(i).isSuccess());
+            assertNull(results.get(i).getProductionId());
+        }
+        assertEquals(ProductionBatchService.NOT_SAVED, results.get(0).getError());
+        assertEquals("Quantity used is required: " + flour, results.get(1).getError());
+        assertEquals("Quantity used cannot be negative: " + flour, results.get(2).getError());
+        assertEquals("Ingredient is required", results.get(3).getError());
+        assertEquals("Produced units cannot be negative", results.get(4).getError());
+        assertEquals(before, productions(product));
+        assertEquals(10.0, stored(flour), 1e-9);
+        assertEquals(10.0, ledger.available(flour), 1e-9);
+    }
+
+    @Test
+    void shortageAcrossEntriesRollsBackTheWholeBatch() {
+        Long product = product();
+        Long flour = ingredient(10.0);
+        Long sugar = ingredient(10.0);
+
+        List<ProductionBatchItemResult> results = batchService.recordBatch(List.of(
+                request(product, 1, line(sugar, 2.0)),
+                request(product, 1, line(flour, 6.0)),
+                request(product, 1, line(flour, 6.0))));
+
+        assertEquals(3, results.size());
+        assertEquals(ProductionBatchService.NOT_SAVED, results.get(0).getError());
+        assertTrue(results.get(1).getError().startsWith("Insufficient stock"));
+        assertTrue(results.get(2).getError().startsWith("Insufficient stock"));
+        assertEquals(10.0, stored(flour), 1e-9);
+        assertEquals(10.0, stored(sugar), 1e-9);
+        assertEquals(10.0, ledger.available(sugar), 1e-9);
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Bread");
+        product.setBasePrice(200.0);
+        product.setProductCost(0.0);
+        return productService.saveProduct(product).getId();
+    }
+
+    private Long ingredient(double quantity) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName("Flour");
+        ingredient.setType("KG");
+        ingredient.setQuantity(quantity);
+        ingredient.setPricePerUnit(100.0);
+        return ingredientService.saveIngredient(ingredient).getId();
+    }
+
+    private static ProductionRequest request(Long productId, int units, ProductionIngredientRequest... lines) {
+        Product product = new Product();
+        product.setId(productId);
+        ProductionRequest request = new ProductionRequest();
+        request.setProduct(product);
+        request.setDate(LocalDate.of(2026, 1, 1));
+        request.setProducedUnits(units);
+        request.setUsedIngredients(List.of(lines));
+        return request;
+    }
+
+    private static ProductionIngredientRequest line(Long ingredientId, Double quantity) {
+        ProductionIngredientRequest line = new ProductionIngredientRequest();
+        line.setIngredientId(ingredientId);
+        line.setQuantityUsed(quantity);
+        return line;
+    }
+
+    private int productions(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM production WHERE product_id = ?",
+                Integer.class, productId);
+    }
+
+    private long produced(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT produced_units FROM product_stock WHERE product_id = ?",
+                Long.class, productId);
+    }
+
+    private double stored(Long id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM ingredients WHERE id = ?", Double.class, id);
+    }
+}
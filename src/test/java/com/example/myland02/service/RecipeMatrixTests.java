@@ -0,0 +1,131 @@
+package com.example.myland02.service;
+
+import com.example.myland02.dto.IngredientDemand;
+import com.example.myland02.dto.PlannedProduct;
+import com.example.myland02.dto.ProductUnits;
+import com.example.myland02.dto.ProductionPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expanding production targets through the recipe matrix; no Spring context.
+ */
+class RecipeMatrixTests {
+
+    private static final long BREAD = 1L;
+    private static final long ROLL = 2L;
+    private static final long FLOUR = 10L;
+    private static final long SALT = 11L;
+    private static final long YEAST = 12L;
+
+    private static final RecipeMatrix RECIPES = RecipeMatrix.of(Map.of(
+            BREAD, Map.of(FLOUR, 0.5, SALT, 0.1),
+            ROLL, Map.of(FLOUR, 0.2, YEAST, 0.1)));
+
+    @Test
+    void sharedIngredientIsSummedAcrossProducts() {
+        ProductionPlan plan = RECIPES.plan(List.of(target(BREAD, 4), target(ROLL, 5)),
+                stock(Map.of(FLOUR, 10.0, SALT, 1.0, YEAST, 1.0)), id -> "ingredient " + id);
+
+        assertTrue(plan.isFeasible());
+        assertEquals(List.of(FLOUR, SALT, YEAST),
+                plan.getIngredients().stream().map(IngredientDemand::getIngredientId).toList());
+        IngredientDemand flour = plan.getIngredients().get(0);
+        assertEquals("ingredient " + FLOUR, flour.getName());
+        assertEquals(3.0, flour.getRequired(), 1e-9);
+        assertEquals(10.0, flour.getAvailable(), 1e-9);
+        assertEquals(0.0, flour.getShortage());
+        assertEquals(0.4, plan.getIngredients().get(1).getRequired(), 1e-9);
+        assertEquals(0.5, plan.getIngredients().get(2).getRequired(), 1e-9);
+    }
+
+    @Test
+    void targetsForTheSameProductAreMerged() {
+        ProductionPlan plan = RECIPES.plan(List.of(target(BREAD, 2), target(BREAD, 3), new ProductUnits(BREAD, null)),
+                stock(Map.of(FLOUR, 10.0, SALT, 1.0)), id -> null);
+
+        assertEquals(1, plan.getProducts().size());
+        assertEquals(5, plan.getProducts().get(0).getUnits());
+        assertEquals(2.5, plan.getIngredients().get(0).getRequired(), 1e-9);
+    }
+
+    @Test
+    void productWithoutRecipeHasNoDemandAndNoMaximum() {
+        ProductionPlan plan = RECIPES.plan(List.of(target(99L, 7)), stock(Map.of()), id -> null);
+
+        assertTrue(plan.isFeasible());
+        assertTrue(plan.getIngredients().isEmpty());
+        PlannedProduct product = plan.getProducts().get(0);
+        assertEquals(99L, product.getProductId());
+        assertEquals(7, product.getUnits());
+        assertFalse(product.isHasRecipe());
+        assertNull(product.getMaxUnits());
+        assertNull(product.getLimitingIngredientId());
+    }
+
+    @Test
+    void shortageIsReportedBeyondRoundingSlack() {
+        ProductionPlan plan = RECIPES.plan(List.of(target(BREAD, 6)), stock(Map.of(FLOUR, 2.0, SALT, 1.0)), id -> null);
+
+        assertFalse(plan.isFeasible());
+        assertEquals(1.0, plan.getIngredients().get(0).getShortage(), 1e-9);
+        assertEquals(0.0, plan.getIngredients().get(1).getShortage());
+
+        // 6 * 0.1 salt is 0.6000000000000001, within EPSILON of the 0.6 in stock
+        ProductionPlan exact = RECIPES.plan(List.of(target(BREAD, 6)), stock(Map.of(FLOUR, 3.0, SALT, 0.6)), id -> null);
+
+        assertTrue(exact.isFeasible());
+        assertEquals(0.0, exact.getIngredients().get(1).getShortage());
+    }
+
+    @Test
+    void maxUnitsIsLimitedByTheScarcestIngredient() {
+        ProductionPlan plan = RECIPES.plan(List.of(target(BREAD, 1)), stock(Map.of(FLOUR, 10.0, SALT, 0.75)), id -> null);
+
+        PlannedProduct bread = plan.getProducts().get(0);
+        assertTrue(bread.isHasRecipe());
+        assertEquals(7L, bread.getMaxUnits());
+        assertEquals(SALT, bread.getLimitingIngredientId());
+    }
+
+    @Test
+    void maxUnitsAllowsForRounding() {
+        // 0.3 / 0.1 is 2.9999999999999996
+        RecipeMatrix matrix = RecipeMatrix.of(Map.of(BREAD, Map.of(YEAST, 0.1)));
+
+        ProductionPlan plan = matrix.plan(List.of(target(BREAD, 3)), stock(Map.of(YEAST, 0.3)), id -> null);
+
+        assertTrue(plan.isFeasible());
+        assertEquals(3L, plan.getProducts().get(0).getMaxUnits());
+        assertEquals(0.0, plan.getIngredients().get(0).getShortage());
+    }
+
+    @Test
+    void invalidTargetsAreRefused() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RECIPES.plan(Arrays.asList((ProductUnits) null), stock(Map.of()), id -> null));
+        assertThrows(IllegalArgumentException.class,
+                () -> RECIPES.plan(List.of(new ProductUnits(null, 1L)), stock(Map.of()), id -> null));
+        assertThrows(IllegalArgumentException.class,
+                () -> RECIPES.plan(List.of(target(BREAD, -1)), stock(Map.of()), id -> null));
+    }
+
+    private static ProductUnits target(long productId, long units) {
+        return new ProductUnits(productId, units);
+    }
+
+    /** Ingredients not in the map have no stock. */
+    private static LongToDoubleFunction stock(Map<Long, Double> quantities) {
+        return id -> quantities.getOrDefault(id, 0.0);
+    }
+}
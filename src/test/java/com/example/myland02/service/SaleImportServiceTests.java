@@ -0,0 +1,113 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.dto.SaleImportReport;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Shop;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Importing a small CSV file: the rows, the daily rollup and the product
+ * stock must all agree afterwards.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:saleimport",
+        "spring.jpa.show-sql=false",
+        "myland.import.batch-size=2"
+})
+@ActiveProfiles("test")
+class SaleImportServiceTests {
+
+    @Autowired
+    private SaleImportService importService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ShopService shopService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void quotedFieldsDoNotShiftTheColumns() throws IOException {
+        Long product = product();
+        Long shop = shop();
+        String csv = String.join("\n",
+                "note,date,productId,shopId,sellingPrice,soldUnits,returnedUnits",
+                "\"Market, north\",2026-03-01," + product + "," + shop + ",250,4,1",
+                "\"He said \"\"two\"\"\",2026-03-01," + product + ",,250,2,0",
+                "plain,2026-03-02," + product + "," + shop + ",300,3,",
+                "\"\",2026-03-01," + product + "," + shop + ",\"250\",1,0",
+                "\"unterminated,2026-03-02," + product + "," + shop + ",250,1,0",
+                "unknown,2026-03-02,999999," + shop + ",250,1,0");
+
+        SaleImportReport report = importService.importSales(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), SaleImportService.Format.CSV);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(4, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(6, report.getErrors().get(0).getLine());
+        assertEquals("Unterminated quoted field", report.getErrors().get(0).getError());
+        assertEquals(7, report.getErrors().get(1).getLine());
+
+        assertEquals(List.of("2026-03-01 " + shop + " 250.0 4 1", "2026-03-01 null 250.0 2 0",
+                        "2026-03-02 " + shop + " 300.0 3 0", "2026-03-01 " + shop + " 250.0 1 0"),
+                jdbcTemplate.query("SELECT date, shop_id, selling_price, sold_units, returned_units FROM sales "
+                                + "WHERE product_id = ? ORDER BY id",
+                        (rs, i) -> rs.getDate(1) + " " + rs.getObject(2) + " " + rs.getDouble(3) + " "
+                                + rs.getInt(4) + " " + rs.getInt(5), product));
+
+        List<String> sales = jdbcTemplate.query("SELECT date, shop_id, SUM(sold_units), SUM(returned_units), "
+                        + "SUM(income), SUM(profit), COUNT(*) FROM sales WHERE product_id = ? "
+                        + "GROUP BY date, shop_id ORDER BY date, shop_id",
+                (rs, i) -> rs.getDate(1) + " " + rs.getObject(2) + " " + rs.getLong(3) + " " + rs.getLong(4)
+                        + " " + Math.round(rs.getDouble(5)) + " " + Math.round(rs.getDouble(6)) + " " + rs.getLong(7),
+                product);
+        List<String> rollup = jdbcTemplate.query("SELECT date, shop_id, sold_units, returned_units, income, profit, "
+                        + "sale_count FROM sales_daily_rollup WHERE product_id = ? ORDER BY date, shop_id",
+                (rs, i) -> rs.getDate(1) + " " + rs.getObject(2) + " " + rs.getLong(3) + " " + rs.getLong(4)
+                        + " " + Math.round(rs.getDouble(5)) + " " + Math.round(rs.getDouble(6)) + " " + rs.getLong(7),
+                product);
+        assertEquals(3, rollup.size());
+        assertEquals(sales, rollup);
+
+        assertEquals(10L, jdbcTemplate.queryForObject(
+                "SELECT sold_units FROM product_stock WHERE product_id = ?", Long.class, product));
+    }
+
+    @Test
+    void splitsQuotedFields() {
+        assertArrayEquals(new String[]{"a, b", "say \"hi\"", "", "c"},
+                SaleImportService.splitCsv(" \"a, b\" ,\"say \"\"hi\"\"\",,c"));
+        assertArrayEquals(new String[]{"", ""}, SaleImportService.splitCsv(","));
+        assertThrows(IllegalArgumentException.class, () -> SaleImportService.splitCsv("\"a\"b,c"));
+        assertThrows(IllegalArgumentException.class, () -> SaleImportService.splitCsv("\"a,b"));
+    }
+
+    private Long product() {
+        Product product = new Product();
+        product.setName("Bread");
+        product.setBasePrice(250.0);
+        product.setProductCost(100.0);
+        return productService.saveProduct(product).getId();
+    }
+
+    private Long shop() {
+        Shop shop = new Shop();
+        shop.setName("Corner shop");
+        return shopService.saveShop(shop).getId();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.controller.MylandController;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import com.example.myland02.model.Shop;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The rollup is maintained by adding and subtracting each sale; after any
+ * mix of new, edited and deleted sales it must equal a GROUP BY over the
+ * sales table.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:salesrollup",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class SalesRollupServiceTests {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 4, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 4, 2);
+
+    // Zero rows left behind by edits and deletes are skipped
+    private static final String ROLLUP_SQL = "SELECT date, shop_id, product_id, sold_units, returned_units, "
+            + "income, profit, sale_count FROM sales_daily_rollup WHERE sale_count <> 0 "
+            + "ORDER BY date, shop_id, product_id";
+    private static final String SALES_SQL = "SELECT date, shop_id, product_id, SUM(sold_units), "
+            + "SUM(COALESCE(returned_units, 0)), SUM(income), SUM(profit), COUNT(*) FROM sales "
+            + "GROUP BY date, shop_id, product_id ORDER BY date, shop_id, product_id";
+    private static final String LEFTOVER_SQL = "SELECT COUNT(*) FROM sales_daily_rollup WHERE sale_count = 0 "
+            + "AND (sold_units <> 0 OR returned_units <> 0 OR ABS(income) > 1e-6 OR ABS(profit) > 1e-6)";
+
+    @Autowired
+    private SaleService saleService;
+    @Autowired
+    private MylandController controller;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ShopService shopService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupFollowsNewEditedAndDeletedSales() {
+        Product bread = product("Bread");
+        Product cake = product("Cake");
+        Shop north = shop("North");
+        Shop south = shop("South");
+
+        Sale first = saleService.record(sale(null, DAY_1, bread, north, 250.0, 4, 1), null);
+        Sale second = saleService.record(sale(null, DAY_1, bread, north, 300.0, 2, 0), null);
+        Sale walkIn = saleService.record(sale(null, DAY_1, cake, null, 500.0, 1, null), null);
+        saleService.record(sale(null, DAY_2, cake, south, 450.0, 5, 2), null);
+        assertRollupMatchesSales(3);
+
+        // Same key, new figures
+        saleService.record(sale(first.getId(), DAY_1, bread, north, 250.0, 6, 0), null);
+        assertRollupMatchesSales(3);
+
+        // Moved to another day and shop, leaving its old row
+        saleService.record(sale(second.getId(), DAY_2, bread, south, 300.0, 3, 1), null);
+        assertRollupMatchesSales(4);
+
+        // Deleting the only sale of a row empties it
+        controller.deleteSale(walkIn.getId());
+        assertRollupMatchesSales(3);
+
+        controller.deleteSale(first.getId());
+        assertRollupMatchesSales(2);
+    }
+
+    private void assertRollupMatchesSales(int rows) {
+        List<String> expected = jdbcTemplate.query(SALES_SQL, (rs, i) -> row(rs));
+        List<String> rollup = jdbcTemplate.query(ROLLUP_SQL, (rs, i) -> row(rs));
+        assertEquals(expected, rollup);
+        assertEquals(rows, rollup.size());
+        assertEquals(0, jdbcTemplate.queryForObject(LEFTOVER_SQL, Integer.class));
+    }
+
+    /** date, shop, product, sold, returned, income and profit to the cent, count */
+    private static String row(java.sql.ResultSet rs) throws java.sql.SQLException {
+        return rs.getDate(1) + " " + rs.getObject(2) + " " + rs.getLong(3) + " " + rs.getLong(4) + " "
+                + rs.getLong(5) + " " + Math.round(rs.getDouble(6) * 100) + " " + Math.round(rs.getDouble(7) * 100)
+                + " " + rs.getLong(8);
+    }
+
+    private static Sale sale(Long id, LocalDate date, Product product, Shop shop, double price, int sold,
+                             Integer returned) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSaleDate(date);
+        sale.setProduct(product);
+        sale.setShop(shop);
+        sale.setSellingPrice(price);
+        sale.setSoldUnits(sold);
+        sale.setReturnedUnits(returned);
+        return sale;
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBasePrice(250.0);
+        product.setProductCost(100.0);
+        return productService.saveProduct(product);
+    }
+
+    private Shop shop(String name) {
+        Shop shop = new Shop();
+        shop.setName(name);
+        return shopService.saveShop(shop);
+    }
+}
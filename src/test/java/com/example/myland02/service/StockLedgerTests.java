@@ -0,0 +1,105 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.model.Ingredient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The ledger must end up equal to ingredients.quantity when an ingredient
+ * is edited while a production run holds some of its stock.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stockledger",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class StockLedgerTests {
+
+    @Autowired
+    private StockLedger ledger;
+    @Autowired
+    private IngredientService ingredientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void editDuringReservationThenCommit() {
+        Long id = ingredient(10.0);
+        StockLedger.Reservation reservation = ledger.reserve(Map.of(id, 4.0));
+        assertTrue(reservation.isGranted());
+
+        edit(id, 20.0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> reservation.commit());
+
+        assertEquals(16.0, stored(id), 1e-9);
+        assertEquals(16.0, ledger.available(id), 1e-9);
+    }
+
+    @Test
+    void editDuringReservationThenRollback() {
+        Long id = ingredient(10.0);
+        StockLedger.Reservation reservation = ledger.reserve(Map.of(id, 4.0));
+        assertTrue(reservation.isGranted());
+
+        edit(id, 20.0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reservation.commit();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(20.0, stored(id), 1e-9);
+        assertEquals(20.0, ledger.available(id), 1e-9);
+    }
+
+    @Test
+    void negativeLineTakesNothing() {
+        Long first = ingredient(10.0);
+        Long second = ingredient(10.0);
+        Map<Long, Double> lines = new LinkedHashMap<>();
+        lines.put(first, 4.0);
+        lines.put(second, -1.0);
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(lines));
+
+        assertEquals(10.0, ledger.available(first), 1e-9);
+        assertEquals(10.0, ledger.available(second), 1e-9);
+    }
+
+    private Long ingredient(double quantity) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName("Flour");
+        ingredient.setType("KG");
+        ingredient.setQuantity(quantity);
+        ingredient.setPricePerUnit(100.0);
+        return ingredientService.saveIngredient(ingredient).getId();
+    }
+
+    private void edit(Long id, double quantity) {
+        Ingredient edited = new Ingredient();
+        edited.setId(id);
+        edited.setName("Flour");
+        edited.setType("KG");
+        edited.setQuantity(quantity);
+        edited.setPricePerUnit(100.0);
+        ingredientService.saveIngredient(edited);
+    }
+
+    private double stored(Long id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM ingredients WHERE id = ?", Double.class, id);
+    }
+}
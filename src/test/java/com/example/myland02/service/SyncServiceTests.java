@@ -0,0 +1,170 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.controller.MylandController;
+import com.example.myland02.dto.SaleUpload;
+import com.example.myland02.dto.SaleUploadResult;
+import com.example.myland02.dto.SyncChanges;
+import com.example.myland02.model.Product;
+import com.example.myland02.model.Sale;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offline sale uploads are applied once per client reference, and a client
+ * syncing across a delete gets a tombstone, or a full copy when its version
+ * cannot be served as a delta.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync",
+        "spring.jpa.show-sql=false",
+        // Every tombstone is old enough to prune when the test asks for it
+        "myland.sync.tombstone-retention=PT0S"
+})
+@ActiveProfiles("test")
+class SyncServiceTests {
+
+    private static final List<TableVersions.Table> SALES = List.of(TableVersions.Table.SALES);
+
+    @Autowired
+    private SyncService syncService;
+    @Autowired
+    private SyncLog syncLog;
+    @Autowired
+    private SaleService saleService;
+    @Autowired
+    private MylandController controller;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reuploadedClientRefIsRecordedOnce() {
+        Product bread = product();
+
+        List<SaleUploadResult> first = syncService.uploadSales(List.of(
+                upload("tablet-1:1", bread, 2), upload("tablet-1:2", bread, 3), upload("tablet-1:1", bread, 2)));
+
+        assertTrue(first.get(0).isSuccess());
+        assertFalse(first.get(0).isDuplicate());
+        assertFalse(first.get(1).isDuplicate());
+        assertTrue(first.get(2).isDuplicate());
+        assertEquals(first.get(0).getSaleId(), first.get(2).getSaleId());
+
+        // The device did not get the answer and sends its whole queue again
+        List<SaleUploadResult> again = syncService.uploadSales(List.of(
+                upload("tablet-1:1", bread, 2), upload("tablet-1:2", bread, 3)));
+
+        assertTrue(again.get(0).isDuplicate());
+        assertTrue(again.get(1).isDuplicate());
+        assertEquals(first.get(0).getSaleId(), again.get(0).getSaleId());
+        assertEquals(first.get(1).getSaleId(), again.get(1).getSaleId());
+        assertEquals(1, count("SELECT COUNT(*) FROM sales WHERE client_ref = 'tablet-1:1'"));
+        assertEquals(2, count("SELECT COUNT(*) FROM sales WHERE product_id = " + bread.getId()));
+        assertEquals(5, count("SELECT sold_units FROM product_stock WHERE product_id = " + bread.getId()));
+    }
+
+    @Test
+    void deltaAcrossADeleteHasTheTombstone() {
+        Product bread = product();
+        Sale kept = saleService.record(sale(bread, 2), null);
+        Sale removed = saleService.record(sale(bread, 3), null);
+        long since = syncService.changesSince(0, SALES).getVersion();
+
+        controller.deleteSale(removed.getId());
+        kept.setSoldUnits(4);
+        saleService.record(kept, null);
+        SyncChanges changes = syncService.changesSince(since, SALES);
+
+        assertFalse(changes.isFull());
+        assertEquals(List.of(kept.getId()), ids(changes));
+        assertEquals(List.of(removed.getId()), changes.getDeleted().get("sales"));
+
+        SyncChanges none = syncService.changesSince(changes.getVersion(), SALES);
+        assertFalse(none.isFull());
+        assertEquals(changes.getVersion(), none.getVersion());
+        assertTrue(ids(none).isEmpty());
+        assertTrue(none.getDeleted().get("sales").isEmpty());
+    }
+
+    @Test
+    void versionsThatCannotBeServedAsADeltaGetAFullCopy() {
+        Product bread = product();
+        Sale kept = saleService.record(sale(bread, 2), null);
+        Sale removed = saleService.record(sale(bread, 3), null);
+        long beforeDelete = syncLog.version();
+        controller.deleteSale(removed.getId());
+        long afterDelete = syncLog.version();
+
+        // No version yet, and a version from another (newer) database
+        assertFull(syncService.changesSince(0, SALES), kept, removed);
+        assertFull(syncService.changesSince(afterDelete + 1, SALES), kept, removed);
+        assertFalse(syncService.changesSince(afterDelete, SALES).isFull());
+
+        // Once the tombstone is pruned, a client from before the delete would miss it
+        assertFalse(syncService.changesSince(beforeDelete, SALES).isFull());
+        sleepPastNow();
+        syncLog.pruneTombstones();
+        assertEquals(afterDelete, syncLog.tombstonesFrom());
+        assertFull(syncService.changesSince(beforeDelete, SALES), kept, removed);
+        SyncChanges current = syncService.changesSince(afterDelete, SALES);
+        assertFalse(current.isFull());
+        assertTrue(current.getDeleted().get("sales").isEmpty());
+    }
+
+    private void assertFull(SyncChanges changes, Sale kept, Sale removed) {
+        assertTrue(changes.isFull());
+        assertTrue(ids(changes).contains(kept.getId()));
+        assertFalse(ids(changes).contains(removed.getId()));
+        assertTrue(changes.getDeleted().get("sales").isEmpty());
+    }
+
+    private static List<Long> ids(SyncChanges changes) {
+        return changes.getChanged().get("sales").stream().map(row -> ((Sale) row).getId()).toList();
+    }
+
+    private Product product() {
+        Product product = new Product();
+        product.setName("Bread");
+        product.setBasePrice(250.0);
+        product.setProductCost(100.0);
+        return productService.saveProduct(product);
+    }
+
+    private static Sale sale(Product product, int units) {
+        Sale sale = new Sale();
+        sale.setSaleDate(LocalDate.of(2026, 6, 1));
+        sale.setProduct(product);
+        sale.setSellingPrice(250.0);
+        sale.setSoldUnits(units);
+        sale.setReturnedUnits(0);
+        return sale;
+    }
+
+    private static SaleUpload upload(String clientRef, Product product, int units) {
+        return new SaleUpload(clientRef, sale(product, units));
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    /** Tombstones are pruned when deleted_at is before now; make sure now has moved on. */
+    private static void sleepPastNow() {
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= start) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.myland02.service;
+
+import com.example.myland02.Myland02Application;
+import com.example.myland02.dto.ProductionIngredientRequest;
+import com.example.myland02.dto.ProductionRequest;
+import com.example.myland02.model.Ingredient;
+import com.example.myland02.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Failures inside a group-commit batch: each test holds the writer thread
+ * with a gate write, queues its writes behind it and then lets them run as
+ * one batch.
+ */
+@SpringBootTest(classes = Myland02Application.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:writequeue",
+        "spring.jpa.show-sql=false",
+        "myland.writes.max-wait=PT0S"
+})
+@ActiveProfiles("test")
+class WriteQueueTests {
+
+    @Autowired
+    private WriteQueue writeQueue;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ProductionService productionService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private IngredientService ingredientService;
+    @Autowired
+    private StockLedger stockLedger;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS write_queue_test (id INT PRIMARY KEY)");
+        jdbcTemplate.update("DELETE FROM write_queue_test");
+        CountDownLatch holding = new CountDownLatch(1);
+        callers.submit(() -> writeQueue.execute(() -> {
+            holding.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS), "writer thread did not pick up the gate");
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void refusedWriteIsRolledBackAlone() {
+        AtomicInteger refusedCompletion = new AtomicInteger(-1);
+        double retriesBefore = retries();
+
+        CompletableFuture<Object> first = submit(() -> insert(1));
+        CompletableFuture<Object> refused = submit(() -> {
+            insert(2);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    refusedCompletion.set(status);
+                }
+            });
+            throw new IllegalStateException("Insufficient stock");
+        });
+        CompletableFuture<Object> last = submit(() -> insert(3));
+        gate.countDown();
+
+        assertEquals(1, first.join());
+        assertEquals(3, last.join());
+        assertInstanceOf(IllegalStateException.class, failure(refused));
+        assertEquals(List.of(1, 3), rows());
+        assertEquals(TransactionSynchronization.STATUS_ROLLED_BACK, refusedCompletion.get());
+        assertEquals(retriesBefore, retries());
+    }
+
+    @Test
+    void unknownProductDoesNotDoomTheBatch() {
+        double retriesBefore = retries();
+        ProductionRequest request = new ProductionRequest();
+        Product unknown = new Product();
+        unknown.setId(999_999L);
+        request.setProduct(unknown);
+        request.setDate(LocalDate.of(2026, 1, 1));
+        request.setProducedUnits(1);
+
+        CompletableFuture<Object> first = submit(() -> insert(1));
+        CompletableFuture<Object> production = submit(() -> productionService.record(request));
+        CompletableFuture<Object> last = submit(() -> insert(3));
+        gate.countDown();
+
+        assertEquals(1, first.join());
+        assertEquals(3, last.join());
+        assertInstanceOf(IllegalArgumentException.class, failure(production));
+        assertEquals(List.of(1, 3), rows());
+        assertEquals(retriesBefore, retries());
+    }
+
+    @Test
+    void productionLineWithoutQuantityDoesNotDoomTheBatch() {
+        double retriesBefore = retries();
+        Ingredient flour = new Ingredient();
+        flour.setName("Flour");
+        flour.setType("KG");
+        flour.setQuantity(10.0);
+        flour.setPricePerUnit(100.0);
+        Long flourId = ingredientService.saveIngredient(flour).getId();
+        Product bread = new Product();
+        bread.setName("Bread");
+        bread.setBasePrice(200.0);
+        bread.setProductCost(0.0);
+        ProductionIngredientRequest line = new ProductionIngredientRequest();
+        line.setIngredientId(flourId);
+        ProductionRequest request = new ProductionRequest();
+        request.setProduct(productService.saveProduct(bread));
+        request.setDate(LocalDate.of(2026, 1, 1));
+        request.setProducedUnits(1);
+        request.setUsedIngredients(List.of(line));
+
+        CompletableFuture<Object> first = submit(() -> insert(1));
+        CompletableFuture<Object> production = submit(() -> productionService.record(request));
+        CompletableFuture<Object> last = submit(() -> insert(3));
+        gate.countDown();
+
+        assertEquals(1, first.join());
+        assertEquals(3, last.join());
+        assertInstanceOf(IllegalArgumentException.class, failure(production));
+        assertEquals(List.of(1, 3), rows());
+        assertEquals(retriesBefore, retries());
+        assertEquals(10.0, stockLedger.available(flourId), 1e-9);
+    }
+
+    @Test
+    void databaseErrorRerunsTheOthersWithoutIt() {
+        AtomicInteger firstRuns = new AtomicInteger();
+        double retriesBefore = retries();
+
+        CompletableFuture<Object> first = submit(() -> {
+            firstRuns.incrementAndGet();
+            return insert(1);
+        });
+        CompletableFuture<Object> duplicate = submit(() -> {
+            insert(2);
+            return insert(2);
+        });
+        CompletableFuture<Object> last = submit(() -> insert(3));
+        gate.countDown();
+
+        assertEquals(1, first.join());
+        assertEquals(3, last.join());
+        assertInstanceOf(DataAccessException.class, failure(duplicate));
+        assertEquals(List.of(1, 3), rows());
+        assertEquals(2, firstRuns.get());
+        assertEquals(retriesBefore + 1, retries());
+    }
+
+    @Test
+    void failedCommitRunsTheWritesOneByOne() {
+        double retriesBefore = retries();
+
+        CompletableFuture<Object> first = submit(() -> insert(1));
+        CompletableFuture<Object> failing = submit(() -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("Commit failed");
+                }
+            });
+            return insert(2);
+        });
+        CompletableFuture<Object> last = submit(() -> insert(3));
+        gate.countDown();
+
+        assertEquals(1, first.join());
+        assertEquals(3, last.join());
+        assertInstanceOf(IllegalStateException.class, failure(failing));
+        assertEquals(List.of(1, 3), rows());
+        assertEquals(retriesBefore + 1, retries());
+    }
+
+    /** Queue a write and wait until it is in the queue, so writes keep their order. */
+    private CompletableFuture<Object> submit(Supplier<Object> work) {
+        double queued = queued();
+        CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> writeQueue.execute(work), callers);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queued() <= queued) {
+            if (System.nanoTime() > deadline) {
+                fail("write was not queued");
+            }
+            Thread.onSpinWait();
+        }
+        return result;
+    }
+
+    private Object insert(int id) {
+        jdbcTemplate.update("INSERT INTO write_queue_test (id) VALUES (?)", id);
+        return id;
+    }
+
+    private List<Integer> rows() {
+        return jdbcTemplate.queryForList("SELECT id FROM write_queue_test ORDER BY id", Integer.class);
+    }
+
+    private static Throwable failure(CompletableFuture<Object> result) {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+        return fail("write did not fail");
+    }
+
+    private double queued() {
+        return meterRegistry.get("myland.writes.queue.size").gauge().value();
+    }
+
+    private double retries() {
+        return meterRegistry.get("myland.writes.batch.retries").counter().count();
+    }
+}